@@ -0,0 +1,66 @@
+package com.it342.basinillo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.it342.basinillo.dto.ApiResponse;
+import com.it342.basinillo.dto.ShipmentResponse;
+import com.it342.basinillo.enums.DocumentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The body of {@code GET /api/v1/shipments}: a list of shipments with ten items each and their
+ * document counts, written by an ObjectMapper configured the way Boot configures the app's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int shipmentCount;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<ShipmentResponse>> response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        List<ShipmentResponse> shipments = new ArrayList<>(shipmentCount);
+        for (int i = 0; i < shipmentCount; i++) {
+            ShipmentResponse shipment = ShipmentResponse.fromEntity(ShipmentFixtures.shipment(i + 1, 10));
+            Map<DocumentType, Long> counts = new EnumMap<>(DocumentType.class);
+            counts.put(DocumentType.values()[0], 2L);
+            shipment.setDocumentCounts(counts);
+            shipment.setDocumentCount(2L);
+            shipments.add(shipment);
+        }
+        response = ApiResponse.success(shipments);
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
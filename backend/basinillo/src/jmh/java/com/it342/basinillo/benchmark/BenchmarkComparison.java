@@ -0,0 +1,84 @@
+package com.it342.basinillo.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files benchmark by benchmark (same name, same params) and exits
+ * with status 1 if any got worse by more than the threshold. A change inside the two runs'
+ * combined error margin is not counted, however large in percent.
+ * <p>
+ * Usage: {@code BenchmarkComparison <baseline.json> <current.json> [threshold-percent, default 10]}
+ */
+public final class BenchmarkComparison {
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-80s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, JsonNode> entry : new TreeMap<>(current).entrySet()) {
+            JsonNode now = entry.getValue();
+            JsonNode before = baseline.get(entry.getKey());
+            String unit = now.path("primaryMetric").path("scoreUnit").asText();
+            double score = now.path("primaryMetric").path("score").asDouble();
+            if (before == null) {
+                System.out.printf("%-80s %14s %14.3f %9s  %s%n", entry.getKey(), "-", score, "new", unit);
+                continue;
+            }
+            double baseScore = before.path("primaryMetric").path("score").asDouble();
+            double margin = error(before) + error(now);
+            double change = baseScore == 0 ? 0 : (score - baseScore) / baseScore * 100;
+            // throughput: higher is better; average/sample/single-shot time: lower is better
+            double worse = "thrpt".equals(now.path("mode").asText()) ? -change : change;
+            boolean regression = worse > threshold && Math.abs(score - baseScore) > margin;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%%  %s%s%n",
+                    entry.getKey(), baseScore, score, change, unit, regression ? "  REGRESSION" : "");
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    /** JMH writes "NaN" when a run had a single iteration */
+    private static double error(JsonNode result) {
+        double error = result.path("primaryMetric").path("scoreError").asDouble(0);
+        return Double.isFinite(error) ? error : 0;
+    }
+
+    /** Keyed by benchmark name plus params, e.g. {@code ShipmentMappingBenchmark.fromEntity[itemCount=10]}. */
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            String name = result.path("benchmark").asText().replace(BenchmarkComparison.class.getPackageName() + ".", "");
+            if (result.has("params")) {
+                StringBuilder params = new StringBuilder();
+                result.get("params").fields().forEachRemaining(p ->
+                        params.append(params.isEmpty() ? "" : ",").append(p.getKey()).append('=').append(p.getValue().asText()));
+                name += "[" + params + "]";
+            }
+            results.put(name, result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,33 @@
+package com.it342.basinillo.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Entry point of {@code mvn -Pjmh verify}: runs the benchmarks selected by the command-line
+ * arguments (standard JMH options, all of them by default) and always writes the results as JSON
+ * to {@code -Djmh.result}, so runs from different commits can be compared with {@link BenchmarkComparison}.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path result = Path.of(System.getProperty("jmh.result", "benchmarks/results/local.json")).toAbsolutePath();
+        Files.createDirectories(result.getParent());
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build();
+        new Runner(options).run();
+        System.out.println("Results written to " + result);
+    }
+}
@@ -0,0 +1,46 @@
+package com.it342.basinillo.benchmark;
+
+import com.it342.basinillo.entity.Shipment;
+import com.it342.basinillo.entity.ShipmentItem;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** Detached shipments filled the way a broker's manifest import fills them. */
+final class ShipmentFixtures {
+
+    private static final String[] CURRENCIES = {"USD", "EUR", "JPY", "CNY", "SGD"};
+
+    private ShipmentFixtures() {
+    }
+
+    static Shipment shipment(long id, int itemCount) {
+        Shipment shipment = Shipment.builder()
+                .id(id)
+                .vesselName("MV Kota Harum")
+                .voyageNumber("KH" + (2400 + id))
+                .arrivalDate(LocalDate.of(2026, 3, 14))
+                .portOfDischarge("Manila International Container Terminal")
+                .clientName("Northport Trading Corp.")
+                .containerNumbers("MSKU1234565, TGHU7654321")
+                .descriptionOfGoods("Assorted consumer electronics and accessories")
+                .doomsdayDate(LocalDate.of(2026, 3, 19))
+                .entryNumber("C-2026-" + id)
+                .version(3L)
+                .build();
+        for (int i = 0; i < itemCount; i++) {
+            shipment.getItems().add(ShipmentItem.builder()
+                    .id(id * 1000 + i)
+                    .shipment(shipment)
+                    .description("Item " + i + " - lithium-ion power bank, 20000 mAh")
+                    .hsCode("8507.60.90")
+                    .quantity(10 + i)
+                    .declaredValue(BigDecimal.valueOf(125_000 + i * 731L, 2))
+                    .currency(CURRENCIES[i % CURRENCIES.length])
+                    .phpConvertedValue(BigDecimal.valueOf(7_031_250 + i * 41_119L, 2))
+                    .exchangeRate(new BigDecimal("56.250000"))
+                    .build());
+        }
+        return shipment;
+    }
+}
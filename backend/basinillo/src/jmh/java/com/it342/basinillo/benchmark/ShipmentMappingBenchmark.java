@@ -0,0 +1,42 @@
+package com.it342.basinillo.benchmark;
+
+import com.it342.basinillo.dto.ShipmentResponse;
+import com.it342.basinillo.entity.Shipment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Entity → DTO mapping for one shipment; the item list is the part that grows. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShipmentMappingBenchmark {
+
+    @Param({"0", "10", "100"})
+    private int itemCount;
+
+    private Shipment shipment;
+
+    @Setup
+    public void setUp() {
+        shipment = ShipmentFixtures.shipment(1, itemCount);
+    }
+
+    @Benchmark
+    public ShipmentResponse fromEntity() {
+        return ShipmentResponse.fromEntity(shipment);
+    }
+}
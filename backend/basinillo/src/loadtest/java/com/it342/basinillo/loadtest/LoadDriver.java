@@ -0,0 +1,147 @@
+package com.it342.basinillo.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Open-model load: requests are started at a fixed arrival rate whatever the server's response
+ * time, the way independent users arrive. A slow server therefore builds a backlog rather than
+ * slowing the test down. Operations are picked by weight from {@code loadtest.mix}, and the
+ * broker, shipment and search term are picked at random. All picks use one seeded {@link Random}.
+ */
+final class LoadDriver {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final SyntheticDataset dataset;
+    private final LoadTestSettings settings;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "loadtest-http");
+                thread.setDaemon(true);
+                return thread;
+            }))
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Operation[] weighted;
+    private final Random random;
+
+    LoadDriver(String baseUrl, SyntheticDataset dataset, LoadTestSettings settings, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl;
+        this.dataset = dataset;
+        this.settings = settings;
+        this.objectMapper = objectMapper;
+        this.weighted = settings.mix().entrySet().stream()
+                .flatMap(e -> Stream.generate(e::getKey).limit(e.getValue()))
+                .toArray(Operation[]::new);
+        this.random = new Random(settings.seed() + 1);
+    }
+
+    /** Sends load for {@code seconds} and waits for the stragglers; the stats cover every request started. */
+    Map<Operation, OperationStats> run(int seconds) throws InterruptedException {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        settings.mix().keySet().forEach(op -> stats.put(op, new OperationStats()));
+        Semaphore outstanding = new Semaphore(settings.maxOutstanding());
+
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / settings.ratePerSecond());
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        for (long i = 0; ; i++) {
+            long due = start + i * interval;
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = weighted[random.nextInt(weighted.length)];
+            OperationStats operationStats = stats.get(operation);
+            if (!outstanding.tryAcquire()) {
+                operationStats.drop();
+                continue;
+            }
+            client.sendAsync(request(operation), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        operationStats.record(System.nanoTime() - due, response == null ? -1 : response.statusCode());
+                        outstanding.release();
+                    });
+        }
+        if (!outstanding.tryAcquire(settings.maxOutstanding(), REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS)) {
+            System.err.println("Some requests were still outstanding after the run");
+        }
+        return stats;
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    private HttpRequest request(Operation operation) {
+        SyntheticDataset.Broker broker = dataset.brokers().get(random.nextInt(dataset.brokers().size()));
+        return switch (operation) {
+            case LOGIN -> post("/api/v1/auth/login", null,
+                    Map.of("email", broker.email(), "password", SyntheticDataset.PASSWORD));
+            case LIST -> get("/api/v1/shipments", broker.accessToken());
+            case GET -> get("/api/v1/shipments/" + pick(broker.shipmentIds()), broker.accessToken());
+            case SEARCH -> get("/api/v1/shipments?search="
+                    + URLEncoder.encode(pick(broker.clientNames()).split(" ")[0], StandardCharsets.UTF_8),
+                    broker.accessToken());
+            case CREATE -> post("/api/v1/shipments", broker.accessToken(), Map.of(
+                    "vesselName", "MV Load Test",
+                    "voyageNumber", "LT" + random.nextInt(1000),
+                    "arrivalDate", LocalDate.of(2026, 6, 1).plusDays(random.nextInt(60)).toString(),
+                    "clientName", pick(broker.clientNames()),
+                    "items", List.of(
+                            Map.of("description", "Power banks", "hsCode", "8507.60.90", "quantity", 100,
+                                    "declaredValue", 2500, "currency", "USD"),
+                            Map.of("description", "Cotton T-shirts", "hsCode", "6109.10.10", "quantity", 500,
+                                    "declaredValue", 1800, "currency", "CNY"))));
+            case ADMIN_ANALYSIS -> get("/api/v1/admin/analysis", dataset.adminToken());
+            case ADMIN_USERS -> get("/api/v1/admin/users", dataset.adminToken());
+        };
+    }
+
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private HttpRequest get(String path, String token) {
+        return builder(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String token, Object body) {
+        try {
+            return builder(path, token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest.Builder builder(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+}
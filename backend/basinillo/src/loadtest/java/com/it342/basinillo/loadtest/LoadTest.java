@@ -0,0 +1,151 @@
+package com.it342.basinillo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.it342.basinillo.BasinilloApplication;
+import com.it342.basinillo.dto.SqlStatementStatsResponse;
+import com.it342.basinillo.service.SqlStatementMonitor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Entry point of {@code mvn -Ploadtest verify}. It does the following:
+ * <ol>
+ *   <li>starts an embedded PostgreSQL, unless {@code loadtest.jdbc-url} names an empty database;</li>
+ *   <li>boots the application against it on a random port;</li>
+ *   <li>seeds the {@link SyntheticDataset};</li>
+ *   <li>runs the workload once as warm-up and once measured.</li>
+ * </ol>
+ * It then prints and saves, as JSON, per-operation latency percentiles and error rates, plus the
+ * SQL statements the measured phase cost: per route, and overall including background jobs.
+ * The load generator shares the JVM and the machine with the server, so compare runs from the
+ * same machine only.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        EmbeddedPostgres postgres = settings.jdbcUrl().isEmpty() ? EmbeddedPostgres.builder().start() : null;
+        try (ConfigurableApplicationContext app = start(settings, postgres)) {
+            long seedStart = System.nanoTime();
+            SyntheticDataset dataset = SyntheticDataset.seed(app, settings);
+            System.out.printf("Seeded %d brokers x %d shipments (%d items, %d documents each) in %.1f s%n",
+                    settings.brokers(), settings.shipmentsPerBroker(), settings.itemsPerShipment(),
+                    settings.documentsPerShipment(), (System.nanoTime() - seedStart) / 1e9);
+
+            String baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            LoadDriver driver = new LoadDriver(baseUrl, dataset, settings, app.getBean(ObjectMapper.class));
+            if (settings.warmupSeconds() > 0) {
+                driver.run(settings.warmupSeconds());
+            }
+
+            SqlStatementMonitor statementMonitor = app.getBean(SqlStatementMonitor.class);
+            MeterRegistry meterRegistry = app.getBean(MeterRegistry.class);
+            statementMonitor.reset();
+            Map<String, double[]> routesBefore = statementsPerRoute(meterRegistry);
+            Instant startedAt = Instant.now();
+            Map<Operation, OperationStats> stats = driver.run(settings.durationSeconds());
+
+            Map<String, Object> report = report(settings, startedAt, stats,
+                    database(statementMonitor, routesBefore, statementsPerRoute(meterRegistry)));
+            ObjectMapper json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+            System.out.println(json.writeValueAsString(report));
+            Path result = Path.of(settings.result()).toAbsolutePath();
+            Files.createDirectories(result.getParent());
+            json.writeValue(result.toFile(), report);
+            System.out.println("Results written to " + result);
+        } finally {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    /** System properties, so they take precedence over application.properties and its env defaults. */
+    private static ConfigurableApplicationContext start(LoadTestSettings settings, EmbeddedPostgres postgres)
+            throws Exception {
+        if (postgres != null) {
+            System.setProperty("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+            System.setProperty("spring.datasource.username", "postgres");
+            System.setProperty("spring.datasource.password", "postgres");
+        } else {
+            System.setProperty("spring.datasource.url", settings.jdbcUrl());
+        }
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        System.setProperty("jwt.secret", Base64.getEncoder().encodeToString(key));
+        System.setProperty("server.port", "0");
+        System.setProperty("storage.backend", "local");
+        System.setProperty("storage.local-root", Files.createTempDirectory("loadtest-storage").toString());
+        System.setProperty("tracing.file.enabled", "false");
+        System.setProperty("spring.main.banner-mode", "off");
+        System.setProperty("logging.level.root", "WARN");
+        return new SpringApplicationBuilder(BasinilloApplication.class).run();
+    }
+
+    /** Count and total of {@code hibernate.request.statements} per "METHOD route". */
+    private static Map<String, double[]> statementsPerRoute(MeterRegistry meterRegistry) {
+        Map<String, double[]> routes = new TreeMap<>();
+        for (DistributionSummary summary : meterRegistry.find("hibernate.request.statements").summaries()) {
+            String route = summary.getId().getTag("method") + " " + summary.getId().getTag("uri");
+            routes.put(route, new double[]{summary.count(), summary.totalAmount()});
+        }
+        return routes;
+    }
+
+    private static Map<String, Object> database(SqlStatementMonitor statementMonitor,
+                                                Map<String, double[]> before, Map<String, double[]> after) {
+        List<SqlStatementStatsResponse> shapes = statementMonitor.topStatements(Integer.MAX_VALUE);
+        Map<String, Object> routes = new TreeMap<>();
+        after.forEach((route, now) -> {
+            double[] then = before.getOrDefault(route, new double[2]);
+            long requests = (long) (now[0] - then[0]);
+            if (requests > 0) {
+                routes.put(route, Map.of(
+                        "requests", requests,
+                        "statementsPerRequest", Math.round((now[1] - then[1]) / requests * 100) / 100.0));
+            }
+        });
+        Map<String, Object> database = new LinkedHashMap<>();
+        database.put("statements", shapes.stream().mapToLong(SqlStatementStatsResponse::getCount).sum());
+        database.put("statementMillis", Math.round(shapes.stream().mapToDouble(SqlStatementStatsResponse::getTotalMillis).sum()));
+        database.put("routes", routes);
+        database.put("topStatements", shapes.stream().limit(10).toList());
+        return database;
+    }
+
+    private static Map<String, Object> report(LoadTestSettings settings, Instant startedAt,
+                                              Map<Operation, OperationStats> stats, Map<String, Object> database) {
+        Map<String, Object> operations = new LinkedHashMap<>();
+        stats.forEach((operation, operationStats) -> {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("area", operation.area());
+            summary.putAll(operationStats.summary(settings.durationSeconds()));
+            operations.put(operation.key(), summary);
+        });
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("settings", settings);
+        report.put("operations", operations);
+        report.put("database", database);
+        return report;
+    }
+}
@@ -0,0 +1,60 @@
+package com.it342.basinillo.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Run parameters, read from {@code -Dloadtest.*} system properties (the {@code loadtest} Maven
+ * profile passes them through). The defaults here match the profile's.
+ */
+record LoadTestSettings(
+        int brokers,
+        int shipmentsPerBroker,
+        int itemsPerShipment,
+        int documentsPerShipment,
+        long seed,
+        double ratePerSecond,
+        int warmupSeconds,
+        int durationSeconds,
+        int maxOutstanding,
+        Map<Operation, Integer> mix,
+        String jdbcUrl,
+        String result) {
+
+    static final String DEFAULT_MIX = "login:5,list:30,get:30,search:10,create:15,admin-analysis:5,admin-users:5";
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.brokers", 20),
+                Integer.getInteger("loadtest.shipments-per-broker", 50),
+                Integer.getInteger("loadtest.items-per-shipment", 10),
+                Integer.getInteger("loadtest.documents-per-shipment", 3),
+                Long.getLong("loadtest.seed", 42),
+                Double.parseDouble(System.getProperty("loadtest.rate", "50")),
+                Integer.getInteger("loadtest.warmup-seconds", 10),
+                Integer.getInteger("loadtest.duration-seconds", 60),
+                Integer.getInteger("loadtest.max-outstanding", 500),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                System.getProperty("loadtest.jdbc-url", "").trim(),
+                System.getProperty("loadtest.result", "benchmarks/results/loadtest-local.json"));
+    }
+
+    /** {@code name:weight,...}; operations left out are not sent. */
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split(":");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            if (weight > 0) {
+                mix.put(Operation.fromKey(parts[0]), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix selects no operations: " + value);
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,33 @@
+package com.it342.basinillo.loadtest;
+
+import java.util.Locale;
+
+/** One kind of request in the workload mix, named as in {@code -Dloadtest.mix}. */
+enum Operation {
+    LOGIN("auth"),
+    LIST("shipments"),
+    GET("shipments"),
+    SEARCH("shipments"),
+    CREATE("shipments"),
+    ADMIN_ANALYSIS("admin"),
+    ADMIN_USERS("admin");
+
+    private final String area;
+
+    Operation(String area) {
+        this.area = area;
+    }
+
+    String area() {
+        return area;
+    }
+
+    /** e.g. {@code admin-analysis} */
+    String key() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    static Operation fromKey(String key) {
+        return valueOf(key.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
@@ -0,0 +1,69 @@
+package com.it342.basinillo.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and outcomes of one operation. Latency runs from when the request was due to be sent
+ * to when its response arrived, so time spent queued behind slow requests is counted
+ * (no coordinated omission).
+ */
+final class OperationStats {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+    private long dropped;
+    private final Map<String, Long> outcomes = new TreeMap<>();
+
+    /** {@code status} is the HTTP status, or -1 when the request failed without a response. */
+    synchronized void record(long latencyNanos, int status) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (status < 200 || status >= 400) {
+            errors++;
+        }
+        outcomes.merge(status < 0 ? "io-error" : String.valueOf(status), 1L, Long::sum);
+    }
+
+    /** Not sent because {@code loadtest.max-outstanding} requests were already in flight. */
+    synchronized void drop() {
+        dropped++;
+        errors++;
+        outcomes.merge("dropped", 1L, Long::sum);
+    }
+
+    synchronized Map<String, Object> summary(double seconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        long total = count + dropped;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", total);
+        summary.put("successPerSecond", round((total - errors) / seconds));
+        summary.put("errors", errors);
+        summary.put("errorRate", total == 0 ? 0 : round((double) errors / total));
+        summary.put("p50Ms", percentileMillis(sorted, 0.50));
+        summary.put("p90Ms", percentileMillis(sorted, 0.90));
+        summary.put("p99Ms", percentileMillis(sorted, 0.99));
+        summary.put("p999Ms", percentileMillis(sorted, 0.999));
+        summary.put("maxMs", sorted.length == 0 ? 0 : round(sorted[sorted.length - 1] / 1e6));
+        summary.put("outcomes", new TreeMap<>(outcomes));
+        return summary;
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return round(sorted[Math.max(0, index)] / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,169 @@
+package com.it342.basinillo.loadtest;
+
+import com.it342.basinillo.entity.Document;
+import com.it342.basinillo.entity.Shipment;
+import com.it342.basinillo.entity.ShipmentItem;
+import com.it342.basinillo.entity.User;
+import com.it342.basinillo.enums.DocumentType;
+import com.it342.basinillo.enums.Role;
+import com.it342.basinillo.enums.ShipmentLane;
+import com.it342.basinillo.enums.ShipmentStatus;
+import com.it342.basinillo.repository.ShipmentRepository;
+import com.it342.basinillo.repository.UserRepository;
+import com.it342.basinillo.security.JwtService;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds brokers, their shipments, items and document records through the app's repositories.
+ * Everything is drawn from one {@link Random} seeded with {@code loadtest.seed}, so the same
+ * settings always produce the same rows. Document rows point at storage keys that do not exist:
+ * the workload only reads document metadata.
+ */
+final class SyntheticDataset {
+
+    static final String PASSWORD = "LoadTest-Password-1";
+    private static final int SAVE_BATCH = 100;
+    private static final LocalDate FIRST_ARRIVAL = LocalDate.of(2026, 1, 1);
+
+    private static final String[] VESSELS = {
+            "MV Kota Harum", "Maersk Seletar", "Ever Given", "CMA CGM Lapis", "ONE Minato",
+            "Wan Hai 301", "MSC Aurora", "Hyundai Pride", "Yang Ming Unity", "OOCL Manila"};
+    private static final String[] CLIENTS = {
+            "Northport Trading", "Luzon Agri Supply", "Visayas Electronics", "Mindanao Steel Works",
+            "Pacific Home Goods", "Bayanihan Motors", "Island Pharma", "Metro Apparel", "Coral Beverages",
+            "Sierra Building Materials", "Manila Office Hub", "Harbor Foods"};
+    private static final String[] HS_CODES = {
+            "0201.30.00", "1006.30.99", "2203.00.10", "3004.90.99", "4011.10.00", "6109.10.10",
+            "7208.51.00", "8415.10.10", "8471.30.20", "8507.60.90", "8517.13.00", "9403.60.90"};
+    private static final String[] CURRENCIES = {"USD", "EUR", "JPY", "CNY", "SGD"};
+
+    /** A seeded broker with a ready access token and the ids/client names it can query. */
+    record Broker(String email, String accessToken, List<Long> shipmentIds, List<String> clientNames) {
+    }
+
+    private final List<Broker> brokers;
+    private final String adminToken;
+
+    private SyntheticDataset(List<Broker> brokers, String adminToken) {
+        this.brokers = brokers;
+        this.adminToken = adminToken;
+    }
+
+    List<Broker> brokers() {
+        return brokers;
+    }
+
+    String adminToken() {
+        return adminToken;
+    }
+
+    static SyntheticDataset seed(ApplicationContext app, LoadTestSettings settings) {
+        UserRepository users = app.getBean(UserRepository.class);
+        ShipmentRepository shipments = app.getBean(ShipmentRepository.class);
+        JwtService jwtService = app.getBean(JwtService.class);
+        TransactionTemplate tx = new TransactionTemplate(app.getBean(PlatformTransactionManager.class));
+
+        if (users.findByEmail(brokerEmail(0)).isPresent()) {
+            throw new IllegalStateException("The database already holds a load-test dataset; "
+                    + "point loadtest.jdbc-url at an empty database or leave it blank for an embedded one");
+        }
+
+        // one hash for everyone: BCrypt(12) per broker would dominate seeding time
+        String passwordHash = app.getBean(PasswordEncoder.class).encode(PASSWORD);
+        Random random = new Random(settings.seed());
+        List<Broker> brokers = new ArrayList<>(settings.brokers());
+
+        for (int b = 0; b < settings.brokers(); b++) {
+            User user = users.save(User.builder()
+                    .email(brokerEmail(b))
+                    .passwordHash(passwordHash)
+                    .firstName("Broker")
+                    .lastName(String.format("%04d", b))
+                    .role(Role.BROKER)
+                    .build());
+
+            List<Long> shipmentIds = new ArrayList<>(settings.shipmentsPerBroker());
+            List<String> clientNames = new ArrayList<>();
+            for (int from = 0; from < settings.shipmentsPerBroker(); from += SAVE_BATCH) {
+                List<Shipment> batch = new ArrayList<>(SAVE_BATCH);
+                for (int s = from; s < Math.min(from + SAVE_BATCH, settings.shipmentsPerBroker()); s++) {
+                    Shipment shipment = shipment(user, b, s, settings, random);
+                    clientNames.add(shipment.getClientName());
+                    batch.add(shipment);
+                }
+                List<Shipment> saved = tx.execute(status -> shipments.saveAll(batch));
+                saved.forEach(shipment -> shipmentIds.add(shipment.getId()));
+            }
+            brokers.add(new Broker(user.getEmail(), jwtService.generateAccessToken(user),
+                    List.copyOf(shipmentIds), clientNames.stream().distinct().toList()));
+        }
+
+        User admin = users.save(User.builder()
+                .email("admin@loadtest.local")
+                .passwordHash(passwordHash)
+                .firstName("Load")
+                .lastName("Admin")
+                .role(Role.ADMIN)
+                .build());
+        return new SyntheticDataset(List.copyOf(brokers), jwtService.generateAccessToken(admin));
+    }
+
+    static String brokerEmail(int index) {
+        return String.format("broker-%04d@loadtest.local", index);
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    private static Shipment shipment(User user, int broker, int index, LoadTestSettings settings, Random random) {
+        LocalDate arrival = FIRST_ARRIVAL.plusDays(random.nextInt(180));
+        Shipment shipment = Shipment.builder()
+                .user(user)
+                .vesselName(VESSELS[random.nextInt(VESSELS.length)])
+                .voyageNumber("V" + (100 + random.nextInt(900)))
+                .arrivalDate(arrival)
+                .portOfDischarge("Manila International Container Terminal")
+                .clientName(CLIENTS[random.nextInt(CLIENTS.length)])
+                .containerNumbers(String.format("MSKU%07d", random.nextInt(10_000_000)))
+                .descriptionOfGoods("General cargo")
+                .doomsdayDate(arrival.plusDays(5))
+                .status(ShipmentStatus.values()[random.nextInt(ShipmentStatus.values().length)])
+                .lane(ShipmentLane.values()[random.nextInt(ShipmentLane.values().length)])
+                .entryNumber(String.format("LT-%04d-%05d", broker, index))
+                .build();
+        for (int i = 0; i < settings.itemsPerShipment(); i++) {
+            String currency = CURRENCIES[random.nextInt(CURRENCIES.length)];
+            shipment.getItems().add(ShipmentItem.builder()
+                    .shipment(shipment)
+                    .description("Line " + (i + 1))
+                    .hsCode(HS_CODES[random.nextInt(HS_CODES.length)])
+                    .quantity(1 + random.nextInt(500))
+                    .declaredValue(BigDecimal.valueOf(1_000 + random.nextInt(5_000_000), 2))
+                    .currency(currency)
+                    .build());
+        }
+        DocumentType[] types = DocumentType.values();
+        for (int d = 0; d < settings.documentsPerShipment(); d++) {
+            DocumentType type = types[d % types.length];
+            String key = String.format("loadtest/%04d/%05d/%s-%d.pdf", broker, index, type, d);
+            shipment.getDocuments().add(Document.builder()
+                    .shipment(shipment)
+                    .fileName(type + "-" + d + ".pdf")
+                    .fileUrl(key)
+                    .storageKey(key)
+                    .contentType("application/pdf")
+                    .type(type)
+                    .sizeBytes(50_000L + random.nextInt(2_000_000))
+                    .build());
+        }
+        return shipment;
+    }
+}
@@ -0,0 +1,18 @@
+package com.it342.basinillo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "archive")
+public class ArchiveProperties {
+    private boolean enabled = true;
+    private String cron = "0 30 2 * * *";
+    private int batchSize = 200;
+    private long throttleMs = 250;
+    private int maxBatchesPerRun = 500;
+    private int softDeletedGraceDays = 30;
+    private int releasedRetentionDays = 90;
+}
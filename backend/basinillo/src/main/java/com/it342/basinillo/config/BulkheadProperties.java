@@ -0,0 +1,47 @@
+package com.it342.basinillo.config;
+
+import com.it342.basinillo.enums.EndpointClass;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "bulkhead")
+public class BulkheadProperties {
+    private boolean enabled = true;
+    /** Sent as Retry-After on a 503 rejection */
+    private int retryAfterSeconds = 1;
+    private Limit auth = new Limit(4, 8, 1000);
+    private Limit read = new Limit(12, 24, 500);
+    private Limit write = new Limit(6, 12, 1000);
+    private Limit admin = new Limit(1, 2, 250);
+    private Limit export = new Limit(2, 2, 250);
+    /** Primary-pool connections that only logins and background work may take; checked at checkout */
+    private int reservedConnections = 1;
+
+    public Limit limitFor(EndpointClass endpointClass) {
+        return switch (endpointClass) {
+            case AUTH -> auth;
+            case READ -> read;
+            case WRITE -> write;
+            case ADMIN -> admin;
+            case EXPORT -> export;
+        };
+    }
+
+    /**
+     * At most {@code maxConcurrent} requests run at once; up to {@code maxQueued} more wait at
+     * most {@code maxWaitMs} for a slot. Anything beyond that is rejected straight away.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private int maxConcurrent;
+        private int maxQueued;
+        private long maxWaitMs;
+    }
+}
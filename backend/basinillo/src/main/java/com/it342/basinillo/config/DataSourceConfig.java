@@ -0,0 +1,136 @@
+package com.it342.basinillo.config;
+
+import com.it342.basinillo.enums.EndpointClass;
+import com.it342.basinillo.security.BulkheadFilter;
+import com.it342.basinillo.service.SqlStatementMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * Wraps the pool so that:
+     * <ul>
+     *   <li>every connection checkout is timed as {@code db.connection.wait}, tagged with the pool
+     *       and the bulkhead of the request waiting ({@code none} for background work). Hikari's
+     *       own acquire timer has no such tag, so it cannot show which class of request is queuing;</li>
+     *   <li>every statement is reported to {@link SqlStatementMonitor} (slow-query log and
+     *       per-shape aggregates) unless {@code sql.monitor.enabled=false};</li>
+     *   <li>the primary's last {@code bulkhead.reserved-connections} are kept for logins and
+     *       background work (see {@link ReservedConnectionsDataSource}).</li>
+     * </ul>
+     * With {@code datasource.replicas.enabled}, the read-only transactions of {@link ReplicaRead}
+     * methods are routed to replica pools (see {@link ReplicaRoutingDataSource}); each replica
+     * pool is monitored the same way.
+     */
+    @Bean
+    public static BeanPostProcessor monitoredDataSource(ObjectProvider<MeterRegistry> meterRegistry,
+                                                        ObjectProvider<SqlStatementMonitor> statementMonitor,
+                                                        ObjectProvider<ReplicaProperties> replicaProperties,
+                                                        ObjectProvider<BulkheadProperties> bulkheadProperties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)
+                        || bean instanceof MonitoredDataSource || bean instanceof ReplicaRoutingDataSource) {
+                    return bean;
+                }
+                DataSource primary = new MonitoredDataSource(
+                        ReservedConnectionsDataSource.wrap(dataSource, bulkheadProperties.getIfAvailable()),
+                        "primary", meterRegistry, statementMonitor);
+                ReplicaProperties replicas = replicaProperties.getIfAvailable();
+                if (replicas == null || !replicas.isEnabled() || replicas.getUrls().isEmpty()) {
+                    return primary;
+                }
+                return new ReplicaRoutingDataSource(primary, dataSource, replicas,
+                        (pool, name) -> new MonitoredDataSource(pool, name, meterRegistry, statementMonitor),
+                        meterRegistry);
+            }
+        };
+    }
+
+    @Bean
+    public ReplicaReadAspect replicaReadAspect() {
+        return new ReplicaReadAspect();
+    }
+
+    /** Marks the thread for replica reads while a {@link ReplicaRead} method runs; a no-op without replicas. */
+    @Aspect
+    public static class ReplicaReadAspect {
+
+        @Around("@annotation(com.it342.basinillo.config.ReplicaRead)")
+        public Object replicaRead(ProceedingJoinPoint joinPoint) throws Throwable {
+            return ReplicaRoutingDataSource.replicaRead(joinPoint);
+        }
+    }
+
+    private static final class MonitoredDataSource extends DelegatingDataSource {
+
+        private final String pool;
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+        private final ObjectProvider<SqlStatementMonitor> statementMonitor;
+        private volatile SqlStatementMonitor monitor;
+
+        private MonitoredDataSource(DataSource target, String pool, ObjectProvider<MeterRegistry> meterRegistry,
+                                    ObjectProvider<SqlStatementMonitor> statementMonitor) {
+            super(target);
+            this.pool = pool;
+            this.meterRegistry = meterRegistry;
+            this.statementMonitor = statementMonitor;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return monitored(super.getConnection());
+            } finally {
+                record(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return monitored(super.getConnection(username, password));
+            } finally {
+                record(System.nanoTime() - start);
+            }
+        }
+
+        /** The monitor is looked up on first use: the pool is created before the service beans. */
+        private Connection monitored(Connection connection) {
+            if (monitor == null) {
+                monitor = statementMonitor.getIfAvailable();
+            }
+            return monitor != null && monitor.isEnabled()
+                    ? StatementMonitoringProxy.wrap(connection, monitor)
+                    : connection;
+        }
+
+        private void record(long nanos) {
+            EndpointClass endpointClass = BulkheadFilter.current();
+            Timer.builder("db.connection.wait")
+                    .tag("pool", pool)
+                    .tag("bulkhead", endpointClass == null ? "none" : endpointClass.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry.getObject())
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
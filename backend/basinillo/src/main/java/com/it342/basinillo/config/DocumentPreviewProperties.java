@@ -0,0 +1,28 @@
+package com.it342.basinillo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "documents.preview")
+public class DocumentPreviewProperties {
+    private boolean enabled = true;
+    private long pollIntervalMs = 2000;
+    private int workerThreads = 2;
+    /** Claimed documents waiting for a worker. Beyond this, documents stay PENDING in the table. */
+    private int queueCapacity = 10;
+    /**
+     * Decoded pixels all workers may hold at once. A render reserves its estimate first and
+     * waits while the budget is taken; one that alone exceeds it is failed.
+     */
+    private long memoryBudgetBytes = 128L * 1024 * 1024;
+    /** Longest edge, in pixels */
+    private int thumbnailSize = 256;
+    private int previewSize = 1024;
+    private float jpegQuality = 0.8f;
+    private long leaseSeconds = 300;
+    private int maxAttempts = 5;
+    private long retryBackoffSeconds = 60;
+}
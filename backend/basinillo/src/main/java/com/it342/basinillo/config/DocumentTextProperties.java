@@ -0,0 +1,25 @@
+package com.it342.basinillo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "documents.text")
+public class DocumentTextProperties {
+    private boolean enabled = true;
+    private long pollIntervalMs = 2000;
+    /** Extractions running at once; each holds at most one parsed PDF page set in memory */
+    private int workerThreads = 2;
+    /** Claimed documents waiting for a worker. Beyond this, documents stay PENDING in the table. */
+    private int queueCapacity = 20;
+    /** How long a claim is held before another instance may take the document over */
+    private long leaseSeconds = 300;
+    private int maxAttempts = 5;
+    private long retryBackoffSeconds = 60;
+    /** Text kept per document; the rest is dropped */
+    private int maxChars = 200_000;
+    private int maxPdfPages = 50;
+    private int maxSearchResults = 50;
+}
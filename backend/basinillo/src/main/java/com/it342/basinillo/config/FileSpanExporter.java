@@ -0,0 +1,111 @@
+package com.it342.basinillo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Appends finished spans to a local file, one JSON object per line. Called from the SDK's batch
+ * processor thread, never from a request thread. Rolls the file over to {@code <path>.1} once it
+ * reaches the configured size, so at most two files are kept.
+ */
+@Slf4j
+final class FileSpanExporter implements SpanExporter {
+
+    private final Path path;
+    private final long maxBytes;
+    private final ObjectMapper objectMapper;
+    private BufferedWriter writer;
+    private long written;
+
+    FileSpanExporter(TracingProperties.File properties, ObjectMapper objectMapper) {
+        this.path = Path.of(properties.getPath()).toAbsolutePath();
+        this.maxBytes = properties.getMaxBytes();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            for (SpanData span : spans) {
+                if (writer == null || written >= maxBytes) {
+                    open();
+                }
+                String line = objectMapper.writeValueAsString(toMap(span));
+                writer.write(line);
+                writer.newLine();
+                written += line.length() + 1;
+            }
+            writer.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("Could not write {} spans to {}: {}", spans.size(), path, e.getMessage());
+            closeQuietly();
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        closeQuietly();
+        return CompletableResultCode.ofSuccess();
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    private void open() throws IOException {
+        closeQuietly();
+        Files.createDirectories(path.getParent());
+        if (Files.exists(path) && Files.size(path) >= maxBytes) {
+            Files.move(path, path.resolveSibling(path.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+        }
+        written = Files.exists(path) ? Files.size(path) : 0;
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private void closeQuietly() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException ignored) {
+                // the next export reopens the file
+            }
+            writer = null;
+        }
+    }
+
+    private static Map<String, Object> toMap(SpanData span) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("traceId", span.getTraceId());
+        line.put("spanId", span.getSpanId());
+        line.put("parentSpanId", span.getParentSpanContext().isValid() ? span.getParentSpanId() : null);
+        line.put("name", span.getName());
+        line.put("kind", span.getKind().name());
+        line.put("startEpochMicros", span.getStartEpochNanos() / 1_000);
+        line.put("durationMicros", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000);
+        line.put("status", span.getStatus().getStatusCode().name());
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+        line.put("attributes", attributes);
+        return line;
+    }
+}
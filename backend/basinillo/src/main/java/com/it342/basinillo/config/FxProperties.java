@@ -0,0 +1,22 @@
+package com.it342.basinillo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "fx")
+public class FxProperties {
+    private String ratesFile = "classpath:fx/rates.csv";
+    private long refreshIntervalMs = 600000;
+    private Backfill backfill = new Backfill();
+
+    @Data
+    public static class Backfill {
+        private boolean enabled = true;
+        private String cron = "0 0 3 * * *";
+        private int batchSize = 500;
+        private long throttleMs = 100;
+    }
+}
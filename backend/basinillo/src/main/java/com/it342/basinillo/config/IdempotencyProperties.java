@@ -0,0 +1,13 @@
+package com.it342.basinillo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "idempotency")
+public class IdempotencyProperties {
+    private long ttlHours = 24;
+    private long lockSeconds = 60;
+}
@@ -0,0 +1,31 @@
+package com.it342.basinillo.config;
+
+import com.it342.basinillo.enums.ShipmentLane;
+import com.it342.basinillo.enums.ShipmentStatus;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "lanes.escalation")
+public class LaneEscalationProperties {
+    private boolean enabled = true;
+    private long intervalMs = 300000;
+    private List<Rule> rules = new ArrayList<>();
+
+    /**
+     * Raises a shipment to {@code targetLane} once its doomsday date is at most
+     * {@code maxDaysToDoomsday} days away. An empty status list means every status except RELEASED.
+     */
+    @Data
+    public static class Rule {
+        private String name;
+        private ShipmentLane targetLane;
+        private int maxDaysToDoomsday;
+        private List<ShipmentStatus> statuses = new ArrayList<>();
+    }
+}
@@ -0,0 +1,115 @@
+package com.it342.basinillo.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Application metrics beyond what Boot binds on its own (HTTP server requests, Hikari, JVM):
+ * {@code @Timed} support, and per-request Hibernate work, i.e. SQL statements prepared and
+ * entities loaded while serving one request, recorded per route as
+ * {@code hibernate.request.statements} / {@code hibernate.request.entity.loads}.
+ * Counting is per thread, so work handed to executors (async uploads, background jobs) is not
+ * attributed to the request.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final ThreadLocal<RequestCounts> CURRENT = new ThreadLocal<>();
+
+    private static final class RequestCounts {
+        private long statements;
+        private long entityLoads;
+    }
+
+    /** Backs {@code @Timed} on service classes (ShipmentService, ShipmentAnalysisService). */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounter() {
+        StatementInspector inspector = sql -> {
+            RequestCounts counts = CURRENT.get();
+            if (counts != null) {
+                counts.statements++;
+            }
+            return sql;
+        };
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+
+    @Bean
+    public SmartInitializingSingleton entityLoadCounter(EntityManagerFactory entityManagerFactory) {
+        PostLoadEventListener listener = event -> {
+            RequestCounts counts = CURRENT.get();
+            if (counts != null) {
+                counts.entityLoads++;
+            }
+        };
+        return () -> entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, listener);
+    }
+
+    /** Outermost, so the JWT filter's user lookup counts towards the request too. */
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> hibernateRequestMetricsFilter(MeterRegistry meterRegistry) {
+        OncePerRequestFilter filter = new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                            @NonNull HttpServletResponse response,
+                                            @NonNull FilterChain filterChain) throws ServletException, IOException {
+                RequestCounts counts = new RequestCounts();
+                CURRENT.set(counts);
+                try {
+                    filterChain.doFilter(request, response);
+                } finally {
+                    CURRENT.remove();
+                    // unmatched requests (404s, scans) would only add tag values
+                    Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                    if (route != null) {
+                        record(meterRegistry, "hibernate.request.statements", request, route, counts.statements);
+                        record(meterRegistry, "hibernate.request.entity.loads", request, route, counts.entityLoads);
+                    }
+                }
+            }
+        };
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    private static void record(MeterRegistry meterRegistry, String name, HttpServletRequest request,
+                               Object route, long value) {
+        DistributionSummary.builder(name)
+                .tag("method", request.getMethod())
+                .tag("uri", route.toString())
+                .register(meterRegistry)
+                .record(value);
+    }
+}
@@ -0,0 +1,20 @@
+package com.it342.basinillo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "outbox.relay")
+public class OutboxProperties {
+    private boolean enabled = true;
+    private int batchSize = 100;
+    private long pollIntervalMs = 1000;
+    private long leaseSeconds = 60;
+    private int maxAttempts = 10;
+    private long retryBackoffSeconds = 30;
+    private long retentionHours = 72;
+    /** How long an event of a type no handler supports waits for one before it is deleted */
+    private long unhandledRetentionHours = 168;
+}
@@ -13,4 +13,6 @@ public class R2Properties {
     private String secretKey;
     private String bucket;
     private String accountId;
+    /** R2 accepts "auto"; other S3-compatible stores need their real region */
+    private String region = "auto";
 }
@@ -0,0 +1,34 @@
+package com.it342.basinillo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "datasource.replicas")
+public class ReplicaProperties {
+    /** Off: every statement goes to the primary, as without replicas */
+    private boolean enabled = false;
+    /** JDBC URLs of the read replicas; each gets its own pool, settings copied from the primary's */
+    private List<String> urls = new ArrayList<>();
+    /** Replica credentials; blank means the primary's */
+    private String username;
+    private String password;
+    private int maximumPoolSize = 5;
+    /** A replica further behind the primary than this gets no reads until it catches up */
+    private long maxLagMs = 5000;
+    private long lagCheckIntervalMs = 1000;
+    /**
+     * After a write, that user's read-only transactions stay on the primary this long. Never
+     * shorter than max-lag-ms plus one lag check, the longest a replica may still miss the write.
+     */
+    private long readYourWritesMs = 10000;
+
+    public long effectiveReadYourWritesMs() {
+        return Math.max(readYourWritesMs, maxLagMs + lagCheckIntervalMs);
+    }
+}
@@ -0,0 +1,19 @@
+package com.it342.basinillo.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lets the read-only transaction of a service method be served by a replica (see
+ * {@link ReplicaRoutingDataSource}). Only for reads that can be up to
+ * {@code datasource.replicas.max-lag-ms} behind; every other read, including Spring Data's own
+ * read-only repository methods, stays on the primary.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReplicaRead {
+}
@@ -0,0 +1,296 @@
+package com.it342.basinillo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Sends the read-only transactions of {@link ReplicaRead} methods to replica pools and
+ * everything else to the primary.
+ * <p>
+ * The physical connection is fetched lazily, at the first statement, when the transaction's
+ * read-only flag is already set. It then comes from:
+ * <ul>
+ *   <li>the primary, for read-write transactions, for work outside a transaction, and for
+ *       read-only transactions outside a {@link ReplicaRead} method. Spring Data runs its
+ *       repository methods read-only, so a bare {@code findById} in a background job would
+ *       otherwise read from a replica that may not have the row yet;</li>
+ *   <li>the primary, for a read-only transaction of a user who committed a write within the
+ *       read-your-writes window, so their own changes show at once;</li>
+ *   <li>otherwise the next replica, round-robin, among those whose lag was last measured within
+ *       {@code max-lag-ms}. With none in range, or when the replica refuses the connection, the
+ *       primary serves the read.</li>
+ * </ul>
+ * Lag is polled from every replica on a background thread and published as
+ * {@code db.replica.lag}. Each routed connection counts as {@code db.connection.route}, tagged
+ * with the pool and the reason.
+ */
+@Slf4j
+final class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    /** 0 on a caught-up standby or a plain server; otherwise the age of the last replayed commit */
+    private static final String LAG_QUERY =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() " +
+            "THEN 0 ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+
+    /** Set while a {@link ReplicaRead} method runs on this thread. */
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+    private final Router router;
+
+    /**
+     * @param primary  the monitored primary DataSource
+     * @param template the primary's pool, whose settings the replica pools copy
+     * @param monitor  wraps a replica pool the way the primary is wrapped, given the pool name
+     */
+    ReplicaRoutingDataSource(DataSource primary, DataSource template, ReplicaProperties properties,
+                             BiFunction<DataSource, String, DataSource> monitor,
+                             ObjectProvider<MeterRegistry> meterRegistry) {
+        this(new Router(primary, template, properties, monitor, meterRegistry));
+    }
+
+    private ReplicaRoutingDataSource(Router router) {
+        super(router);
+        this.router = router;
+    }
+
+    @Override
+    public void close() {
+        router.close();
+    }
+
+    /** Runs a {@link ReplicaRead} method with replica reads allowed, restoring the caller's setting after. */
+    static Object replicaRead(ProceedingJoinPoint joinPoint) throws Throwable {
+        Boolean outer = REPLICA_READ.get();
+        REPLICA_READ.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (outer == null) {
+                REPLICA_READ.remove();
+            } else {
+                REPLICA_READ.set(outer);
+            }
+        }
+    }
+
+    // ── Router ───────────────────────────────────────────────
+
+    private static final class Router extends AbstractDataSource {
+
+        private final DataSource primary;
+        private final List<Replica> replicas = new ArrayList<>();
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+        private final long maxLagMs;
+        private final long readYourWritesNanos;
+        private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+        private final AtomicInteger next = new AtomicInteger();
+        private final ScheduledExecutorService lagChecker;
+        private volatile boolean metersRegistered;
+
+        private Router(DataSource primary, DataSource template, ReplicaProperties properties,
+                       BiFunction<DataSource, String, DataSource> monitor, ObjectProvider<MeterRegistry> meterRegistry) {
+            this.primary = primary;
+            this.meterRegistry = meterRegistry;
+            this.maxLagMs = properties.getMaxLagMs();
+            this.readYourWritesNanos = TimeUnit.MILLISECONDS.toNanos(properties.effectiveReadYourWritesMs());
+            List<String> urls = properties.getUrls();
+            for (int i = 0; i < urls.size(); i++) {
+                String name = "replica-" + (i + 1);
+                HikariDataSource pool = pool(template, urls.get(i), name, properties);
+                replicas.add(new Replica(name, pool, monitor.apply(pool, name)));
+            }
+            this.lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "replica-lag-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            lagChecker.scheduleWithFixedDelay(this::checkReplicas, 0,
+                    properties.getLagCheckIntervalMs(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                trackWrite();
+                return route(primary, "primary", "write");
+            }
+            if (REPLICA_READ.get() == null) {
+                return route(primary, "primary", "read");
+            }
+            String user = currentUser();
+            if (user != null && wroteRecently(user)) {
+                return route(primary, "primary", "read-your-writes");
+            }
+            for (int attempt = 0; attempt < replicas.size(); attempt++) {
+                Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+                if (replica.lagMs <= maxLagMs) {
+                    try {
+                        return route(replica.dataSource, replica.name, "read");
+                    } catch (SQLException e) {
+                        replica.lagMs = Double.NaN;
+                        log.warn("Replica {} refused a connection, reads fall back until it recovers: {}",
+                                replica.name, e.getMessage());
+                    }
+                }
+            }
+            return route(primary, "primary", "no-replica");
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLFeatureNotSupportedException("Replica routing uses the pools' own credentials");
+        }
+
+        /** Unwrapping (Hikari metrics, health checks) sees the primary pool. */
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            return iface.isInstance(this) ? iface.cast(this) : primary.unwrap(iface);
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) throws SQLException {
+            return iface.isInstance(this) || primary.isWrapperFor(iface);
+        }
+
+        private Connection route(DataSource target, String pool, String reason) throws SQLException {
+            Connection connection = target.getConnection();
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry != null) {
+                Counter.builder("db.connection.route").tag("pool", pool).tag("reason", reason)
+                        .register(registry).increment();
+            }
+            return connection;
+        }
+
+        /** A committed read-write transaction starts the writing user's read-your-writes window. */
+        private void trackWrite() {
+            String user = currentUser();
+            if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lastWrites.put(user, System.nanoTime());
+                }
+            });
+        }
+
+        private boolean wroteRecently(String user) {
+            Long wroteAt = lastWrites.get(user);
+            return wroteAt != null && System.nanoTime() - wroteAt < readYourWritesNanos;
+        }
+
+        private static String currentUser() {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            return authentication == null || authentication instanceof AnonymousAuthenticationToken
+                    ? null : authentication.getName();
+        }
+
+        private void checkReplicas() {
+            registerMeters();
+            for (Replica replica : replicas) {
+                try (Connection connection = replica.pool.getConnection();
+                     Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                    rs.next();
+                    double lagMs = rs.getDouble(1);
+                    replica.lagMs = rs.wasNull() ? Double.NaN : lagMs;
+                } catch (Exception e) {
+                    if (!Double.isNaN(replica.lagMs)) {
+                        log.warn("Lag check failed for replica {}: {}", replica.name, e.getMessage());
+                    }
+                    replica.lagMs = Double.NaN;
+                }
+            }
+            long now = System.nanoTime();
+            lastWrites.values().removeIf(wroteAt -> now - wroteAt >= readYourWritesNanos);
+        }
+
+        /** On the checker thread: the registry is not yet available while the pools are built. */
+        private void registerMeters() {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (metersRegistered || registry == null) {
+                return;
+            }
+            for (Replica replica : replicas) {
+                Gauge.builder("db.replica.lag", replica, r -> r.lagMs).tag("replica", replica.name)
+                        .baseUnit("milliseconds")
+                        .description("Replication lag at the last check; NaN when the replica is unreachable")
+                        .register(registry);
+            }
+            metersRegistered = true;
+        }
+
+        private void close() {
+            lagChecker.shutdownNow();
+            replicas.forEach(replica -> replica.pool.close());
+        }
+
+        /** The replica pool starts on first use, so a replica that is down does not stop startup. */
+        private static HikariDataSource pool(DataSource template, String url, String name, ReplicaProperties properties) {
+            HikariDataSource pool = new HikariDataSource();
+            if (template instanceof HikariDataSource primaryPool) {
+                primaryPool.copyStateTo(pool);
+            }
+            pool.setJdbcUrl(url);
+            pool.setPoolName(name);
+            pool.setMaximumPoolSize(properties.getMaximumPoolSize());
+            if (pool.getMinimumIdle() > properties.getMaximumPoolSize()) {
+                pool.setMinimumIdle(properties.getMaximumPoolSize());
+            }
+            pool.setReadOnly(true);
+            if (StringUtils.hasText(properties.getUsername())) {
+                pool.setUsername(properties.getUsername());
+            }
+            if (StringUtils.hasText(properties.getPassword())) {
+                pool.setPassword(properties.getPassword());
+            }
+            return pool;
+        }
+    }
+
+    /** {@code lagMs} is NaN until the first successful check and while the replica is unreachable. */
+    private static final class Replica {
+
+        private final String name;
+        private final HikariDataSource pool;
+        private final DataSource dataSource;
+        private volatile double lagMs = Double.NaN;
+
+        private Replica(String name, HikariDataSource pool, DataSource dataSource) {
+            this.name = name;
+            this.pool = pool;
+            this.dataSource = dataSource;
+        }
+    }
+}
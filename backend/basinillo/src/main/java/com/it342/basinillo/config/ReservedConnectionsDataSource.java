@@ -0,0 +1,95 @@
+package com.it342.basinillo.config;
+
+import com.it342.basinillo.enums.EndpointClass;
+import com.it342.basinillo.security.BulkheadFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the last {@code bulkhead.reserved-connections} of the primary pool for logins and
+ * background jobs. Requests in the other bulkheads share the rest, checked at checkout: past
+ * that share a checkout waits as it would on an exhausted pool, up to the pool's connection
+ * timeout, and the slot comes back when the connection is closed. The bulkheads bound how many
+ * requests run; this bounds how many connections they hold, whatever the bulkhead sizes add up to.
+ */
+final class ReservedConnectionsDataSource extends DelegatingDataSource {
+
+    private final Semaphore shared;
+    private final int reserved;
+    private final long timeoutMs;
+
+    private ReservedConnectionsDataSource(HikariDataSource pool, int reserved) {
+        super(pool);
+        this.reserved = reserved;
+        this.shared = new Semaphore(Math.max(1, pool.getMaximumPoolSize() - reserved), true);
+        this.timeoutMs = pool.getConnectionTimeout();
+    }
+
+    /** The pool unchanged when nothing is reserved or the bulkheads are off. */
+    static DataSource wrap(DataSource pool, BulkheadProperties properties) {
+        if (!(pool instanceof HikariDataSource hikari) || properties == null
+                || !properties.isEnabled() || properties.getReservedConnections() <= 0) {
+            return pool;
+        }
+        return new ReservedConnectionsDataSource(hikari, properties.getReservedConnections());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        EndpointClass endpointClass = BulkheadFilter.current();
+        if (endpointClass == null || endpointClass == EndpointClass.AUTH) {
+            return super.getConnection();
+        }
+        try {
+            if (!shared.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("No connection for a "
+                        + endpointClass.name().toLowerCase(Locale.ROOT) + " request within " + timeoutMs
+                        + " ms; " + reserved + " of the pool's connections are kept for logins");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+        }
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            shared.release();
+            throw e;
+        }
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ReservedConnectionsDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("equals") && args != null && args.length == 1) {
+                        return proxy == args[0];
+                    }
+                    if (method.getName().equals("hashCode") && args == null) {
+                        return System.identityHashCode(proxy);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                            shared.release();
+                        }
+                    }
+                });
+    }
+}
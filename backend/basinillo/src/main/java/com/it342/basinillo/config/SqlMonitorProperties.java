@@ -0,0 +1,18 @@
+package com.it342.basinillo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "sql.monitor")
+public class SqlMonitorProperties {
+    private boolean enabled = true;
+    /** Statements at or above this (execution plus result read) are logged */
+    private long slowThresholdMs = 200;
+    /** Fraction of slow statements that are logged, 0..1; all of them still count in the aggregates */
+    private double slowLogSampleRate = 1.0;
+    /** Distinct statement shapes tracked; later new shapes are counted under "(other)" */
+    private int maxShapes = 1000;
+}
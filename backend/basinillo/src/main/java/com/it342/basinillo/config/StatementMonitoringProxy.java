@@ -0,0 +1,168 @@
+package com.it342.basinillo.config;
+
+import com.it342.basinillo.service.SqlStatementMonitor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JDBC proxies that time every statement execution and report it to {@link SqlStatementMonitor}.
+ * A query counts as finished when its result set is closed (or its statement, whichever comes
+ * first), so the time includes reading the rows and the row count is what was actually read.
+ * Parameters are recorded by type only ({@code setLong} → {@code Long}); values never leave the driver.
+ */
+final class StatementMonitoringProxy {
+
+    private StatementMonitoringProxy() {
+    }
+
+    static Connection wrap(Connection connection, SqlStatementMonitor monitor) {
+        return (Connection) Proxy.newProxyInstance(StatementMonitoringProxy.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection, monitor));
+    }
+
+    /** Forwards to the target; equals/hashCode stay on the proxy so it can key Hibernate's resource maps. */
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        if (method.getName().equals("equals") && args != null && args.length == 1) {
+            return proxy == args[0];
+        }
+        if (method.getName().equals("hashCode") && args == null) {
+            return System.identityHashCode(proxy);
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private record ConnectionHandler(Connection target, SqlStatementMonitor monitor) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = StatementMonitoringProxy.invoke(proxy, target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> statement(PreparedStatement.class, (Statement) result, (String) args[0]);
+                case "prepareCall" -> statement(CallableStatement.class, (Statement) result, (String) args[0]);
+                case "createStatement" -> statement(Statement.class, (Statement) result, null);
+                default -> result;
+            };
+        }
+
+        private Object statement(Class<? extends Statement> type, Statement statement, String sql) {
+            return Proxy.newProxyInstance(StatementMonitoringProxy.class.getClassLoader(),
+                    new Class<?>[]{type}, new StatementHandler(statement, sql, monitor));
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private final SqlStatementMonitor monitor;
+        private final List<String> parameterTypes = new ArrayList<>();
+        /** Query whose result set is still open: its sql, start time and rows read so far */
+        private String pendingSql;
+        private long pendingStart;
+        private long pendingRows;
+
+        private StatementHandler(Statement target, String preparedSql, SqlStatementMonitor monitor) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.monitor = monitor;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                recordParameterType(index, name.substring(3));
+                return StatementMonitoringProxy.invoke(proxy, target, method, args);
+            }
+            if (name.equals("clearParameters")) {
+                parameterTypes.clear();
+            }
+            if (name.equals("close")) {
+                finishPending();
+                return StatementMonitoringProxy.invoke(proxy, target, method, args);
+            }
+            if (!name.startsWith("execute") || !monitor.isEnabled()) {
+                Object result = StatementMonitoringProxy.invoke(proxy, target, method, args);
+                return name.equals("getResultSet") && result instanceof ResultSet rs && pendingSql != null
+                        ? resultSet(rs) : result;
+            }
+
+            finishPending();
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            long start = System.nanoTime();
+            Object result = StatementMonitoringProxy.invoke(proxy, target, method, args);
+            switch (name) {
+                case "executeQuery" -> {
+                    startPending(sql, start);
+                    return resultSet((ResultSet) result);
+                }
+                case "execute" -> {
+                    if (Boolean.TRUE.equals(result)) {
+                        startPending(sql, start);   // rows come through getResultSet()
+                    } else {
+                        finish(sql, start, target.getUpdateCount());
+                    }
+                }
+                case "executeBatch" -> finish(sql, start, Arrays.stream((int[]) result).filter(n -> n > 0).sum());
+                case "executeLargeBatch" -> finish(sql, start, Arrays.stream((long[]) result).filter(n -> n > 0).sum());
+                default -> finish(sql, start, result instanceof Number n ? n.longValue() : -1);
+            }
+            return result;
+        }
+
+        private void recordParameterType(int index, String type) {
+            while (parameterTypes.size() < index) {
+                parameterTypes.add("?");
+            }
+            parameterTypes.set(index - 1, type);
+        }
+
+        private void startPending(String sql, long start) {
+            pendingSql = sql;
+            pendingStart = start;
+            pendingRows = 0;
+        }
+
+        private void finishPending() {
+            if (pendingSql != null) {
+                String sql = pendingSql;
+                pendingSql = null;
+                finish(sql, pendingStart, pendingRows);
+            }
+        }
+
+        private void finish(String sql, long start, long rows) {
+            if (sql != null) {
+                monitor.record(sql, System.nanoTime() - start, rows, parameterTypes);
+            }
+        }
+
+        private ResultSet resultSet(ResultSet resultSet) {
+            return (ResultSet) Proxy.newProxyInstance(StatementMonitoringProxy.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                        Object result = StatementMonitoringProxy.invoke(proxy, resultSet, method, args);
+                        if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                            pendingRows++;
+                        } else if (method.getName().equals("close")) {
+                            finishPending();
+                        }
+                        return result;
+                    });
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.it342.basinillo.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class StorageConfig {
+
+    /**
+     * Runs document uploads off the Tomcat request threads. When the pool and queue are
+     * full the upload runs on the caller's thread instead of being rejected. Each task runs
+     * with the uploading user's security context, so the metadata write starts their
+     * read-your-writes window like any other write.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor documentUploadExecutor(StorageProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("doc-upload-");
+        executor.setCorePoolSize(properties.getUploadThreads());
+        executor.setMaxPoolSize(properties.getUploadThreads());
+        executor.setQueueCapacity(properties.getUploadQueueCapacity());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(task -> DelegatingSecurityContextRunnable.create(task, null));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+
+    /**
+     * Opens the next object of a ZIP bundle while the current one is being sent. Only ever one
+     * task per bundle download; the caller runs it itself when the pool is saturated.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor documentReadAheadExecutor(StorageProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("doc-read-ahead-");
+        executor.setCorePoolSize(properties.getBundleReadAheadThreads());
+        executor.setMaxPoolSize(properties.getBundleReadAheadThreads());
+        executor.setQueueCapacity(0);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Background text extraction. Rejects rather than running on the caller: the poller only
+     * claims what fits, and anything rejected goes back to the table.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor documentTextExecutor(DocumentTextProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("doc-text-");
+        executor.setCorePoolSize(properties.getWorkerThreads());
+        executor.setMaxPoolSize(properties.getWorkerThreads());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /** Thumbnail and preview rendering; rejects like {@link #documentTextExecutor}. */
+    @Bean
+    public ThreadPoolTaskExecutor documentPreviewExecutor(DocumentPreviewProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("doc-preview-");
+        executor.setCorePoolSize(properties.getWorkerThreads());
+        executor.setMaxPoolSize(properties.getWorkerThreads());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
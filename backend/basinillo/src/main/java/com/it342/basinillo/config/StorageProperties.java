@@ -0,0 +1,41 @@
+package com.it342.basinillo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "storage")
+public class StorageProperties {
+    /** "r2" (S3-compatible, uses r2.* credentials) or "local" */
+    private String backend = "local";
+    private String localRoot = "./data/documents";
+    /** Multipart part size; also the most heap one upload holds (S3 minimum is 5 MB) */
+    private int partSizeBytes = 8 * 1024 * 1024;
+    private long maxUploadBytes = 100L * 1024 * 1024;
+    private int uploadThreads = 4;
+    private int uploadQueueCapacity = 50;
+    /** Lifetime of presigned upload/download URLs */
+    private int presignTtlSeconds = 900;
+    /**
+     * Sign the declared SHA-256 into presigned PUTs so the store rejects other content (R2 and S3
+     * do). Turn off for stores without checksum support; uploads are then hashed on completion.
+     */
+    private boolean presignChecksums = true;
+    /** Bytes of the next document fetched ahead while the current one is zipped into a bundle */
+    private int bundleReadAheadBytes = 1024 * 1024;
+    private int bundleReadAheadThreads = 4;
+    private Gc gc = new Gc();
+
+    /** Collector for deduplicated blobs no document references any more. */
+    @Data
+    public static class Gc {
+        private boolean enabled = true;
+        private String cron = "0 15 3 * * *";
+        /** How long a blob stays unreferenced before it is deleted, so a re-upload can revive it. */
+        private int graceHours = 24;
+        private int batchSize = 100;
+        private int maxBatchesPerRun = 100;
+    }
+}
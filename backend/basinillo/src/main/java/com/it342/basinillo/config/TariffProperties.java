@@ -0,0 +1,16 @@
+package com.it342.basinillo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "tariff")
+public class TariffProperties {
+    private String scheduleFile = "classpath:tariff/ahtn-2022.csv";
+    private BigDecimal vatRate = new BigDecimal("0.12");
+    private int maxSuggestions = 50;
+}
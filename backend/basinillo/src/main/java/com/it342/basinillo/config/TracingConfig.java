@@ -0,0 +1,138 @@
+package com.it342.basinillo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Spans below the HTTP server span that Boot creates for each request: one per service method,
+ * repository call and JSON response body, so a slow trace shows which layer the time went to
+ * (the JWT filter adds its own). They are only created inside a trace that was sampled at its
+ * head ({@code management.tracing.sampling.probability}); otherwise each hook costs one
+ * thread-local read. Finished spans go to a local JSON-lines file unless {@code tracing.file.enabled=false}.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.file.enabled", havingValue = "true", matchIfMissing = true)
+    public SpanExporter fileSpanExporter(TracingProperties properties, ObjectMapper objectMapper) {
+        return new FileSpanExporter(properties.getFile(), objectMapper);
+    }
+
+    @Bean
+    public ServiceSpanAspect serviceSpanAspect(Tracer tracer, TracingProperties properties) {
+        return new ServiceSpanAspect(tracer, properties);
+    }
+
+    /** Advises each Spring Data repository proxy as it is created, so spans carry the repository interface name. */
+    @Bean
+    public static BeanPostProcessor repositorySpans(ObjectProvider<Tracer> tracer,
+                                                    ObjectProvider<TracingProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repository) -> proxyFactory.addAdvice(repositorySpanInterceptor(
+                                    repository.getRepositoryInterface().getSimpleName(), tracer, properties))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /** Replaces Boot's default Jackson converter; writing the body includes any lazy loading it triggers. */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(
+            ObjectMapper objectMapper, Tracer tracer, TracingProperties properties) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(@NonNull Object object, @Nullable Type type,
+                                         @NonNull HttpOutputMessage outputMessage) throws IOException {
+                if (!properties.isLayerSpans()) {
+                    super.writeInternal(object, type, outputMessage);
+                    return;
+                }
+                inChildSpan(tracer, "serialize " + object.getClass().getSimpleName(), "serialization", () -> {
+                    super.writeInternal(object, type, outputMessage);
+                    return null;
+                });
+            }
+        };
+    }
+
+    @Aspect
+    public static class ServiceSpanAspect {
+
+        private final Tracer tracer;
+        private final TracingProperties properties;
+
+        ServiceSpanAspect(Tracer tracer, TracingProperties properties) {
+            this.tracer = tracer;
+            this.properties = properties;
+        }
+
+        /** The statement monitor runs once per JDBC statement, inside the repository spans already. */
+        @Around("execution(public * com.it342.basinillo.service..*.*(..))"
+                + " && !within(com.it342.basinillo.service.SqlStatementMonitor)")
+        public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+            if (!properties.isLayerSpans()) {
+                return joinPoint.proceed();
+            }
+            String name = joinPoint.getTarget().getClass().getSimpleName() + "." + joinPoint.getSignature().getName();
+            return inChildSpan(tracer, name, "service", joinPoint::proceed);
+        }
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    private static MethodInterceptor repositorySpanInterceptor(String repositoryName, ObjectProvider<Tracer> tracer,
+                                                               ObjectProvider<TracingProperties> properties) {
+        return invocation -> properties.getObject().isLayerSpans()
+                ? inChildSpan(tracer.getObject(), repositoryName + "." + invocation.getMethod().getName(),
+                        "repository", invocation::proceed)
+                : invocation.proceed();
+    }
+
+    @FunctionalInterface
+    private interface Work<T, E extends Throwable> {
+        T run() throws E;
+    }
+
+    /** Runs {@code work} in a child of the current span if that span is sampled, otherwise just runs it. */
+    private static <T, E extends Throwable> T inChildSpan(Tracer tracer, String name, String layer,
+                                                          Work<T, E> work) throws E {
+        Span parent = tracer.currentSpan();
+        if (parent == null || !Boolean.TRUE.equals(parent.context().sampled())) {
+            return work.run();
+        }
+        Span span = tracer.nextSpan(parent).name(name).tag("layer", layer).start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return work.run();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
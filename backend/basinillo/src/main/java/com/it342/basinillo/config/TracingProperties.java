@@ -0,0 +1,22 @@
+package com.it342.basinillo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "tracing")
+public class TracingProperties {
+    /** Child spans for service methods, repository calls and response serialization */
+    private boolean layerSpans = true;
+    private File file = new File();
+
+    /** Finished spans appended as JSON lines; the file is rolled to {@code <path>.1} at {@code maxBytes}. */
+    @Data
+    public static class File {
+        private boolean enabled = true;
+        private String path = "./data/traces/spans.jsonl";
+        private long maxBytes = 52428800;
+    }
+}
@@ -2,10 +2,19 @@ package com.it342.basinillo.controller;
 
 import com.it342.basinillo.dto.*;
 import com.it342.basinillo.service.AdminService;
+import com.it342.basinillo.service.DocumentBlobService;
+import com.it342.basinillo.service.DocumentPreviewService;
+import com.it342.basinillo.service.FxBackfillService;
+import com.it342.basinillo.service.FxRateService;
+import com.it342.basinillo.service.LaneEscalationService;
+import com.it342.basinillo.service.ShipmentArchivalService;
 import com.it342.basinillo.service.ShipmentAnalysisService;
+import com.it342.basinillo.service.SqlStatementMonitor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
@@ -20,6 +29,13 @@ public class AdminController {
 
     private final AdminService adminService;
     private final ShipmentAnalysisService analysisService;
+    private final LaneEscalationService laneEscalationService;
+    private final ShipmentArchivalService archivalService;
+    private final FxRateService fxRateService;
+    private final FxBackfillService fxBackfillService;
+    private final DocumentBlobService documentBlobService;
+    private final DocumentPreviewService documentPreviewService;
+    private final SqlStatementMonitor sqlStatementMonitor;
 
     @GetMapping("/shipments")
     public ResponseEntity<ApiResponse<List<ShipmentResponse>>> getAllShipments() {
@@ -44,4 +60,80 @@ public class AdminController {
         ShipmentAnalysisResponse data = analysisService.getGlobalAnalysis();
         return ResponseEntity.ok(ApiResponse.success(data));
     }
+
+    /** Runs the lane escalation rules now and reports rows touched per rule. */
+    @PostMapping("/lanes/escalate")
+    public ResponseEntity<ApiResponse<LaneEscalationResult>> escalateLanes() {
+        LaneEscalationResult data = laneEscalationService.escalate();
+        return ResponseEntity.ok(ApiResponse.success(data));
+    }
+
+    /** Runs the archiver now (same throttled batches as the nightly job). */
+    @PostMapping("/archive/run")
+    public ResponseEntity<ApiResponse<ArchiveRunResult>> runArchive() {
+        ArchiveRunResult data = archivalService.archive();
+        return ResponseEntity.ok(ApiResponse.success(data));
+    }
+
+    // ── Document storage ─────────────────────────────────────
+
+    /** Deduplication totals: logical vs physical bytes, ratio and bytes saved. */
+    @GetMapping("/storage/dedup")
+    public ResponseEntity<ApiResponse<DedupStatsResponse>> getDedupStats() {
+        DedupStatsResponse data = documentBlobService.refreshStats();
+        return ResponseEntity.ok(ApiResponse.success(data));
+    }
+
+    /** Runs the unreferenced-blob collector now. */
+    @PostMapping("/storage/gc")
+    public ResponseEntity<ApiResponse<BlobGcResult>> collectBlobs() {
+        BlobGcResult data = documentBlobService.collectGarbage();
+        return ResponseEntity.ok(ApiResponse.success(data));
+    }
+
+    /** Thumbnail/preview generation backlog and p95 generation time. */
+    @GetMapping("/storage/previews")
+    public ResponseEntity<ApiResponse<PreviewQueueStatsResponse>> getPreviewStats() {
+        PreviewQueueStatsResponse data = documentPreviewService.stats();
+        return ResponseEntity.ok(ApiResponse.success(data));
+    }
+
+    // ── FX rates ─────────────────────────────────────────────
+
+    /** Latest loaded rate per currency (PHP per unit). */
+    @GetMapping("/fx/rates")
+    public ResponseEntity<ApiResponse<List<FxRateResponse>>> getFxRates() {
+        List<FxRateResponse> data = fxRateService.getLatestRates();
+        return ResponseEntity.ok(ApiResponse.success(data));
+    }
+
+    /** Uploads dated rates (CSV: currency, effective_date, php_per_unit) and reloads the rate snapshot. */
+    @PostMapping(value = "/fx/rates", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<FxRateImportResult>> uploadFxRates(@RequestParam("file") MultipartFile file) {
+        FxRateImportResult data = fxRateService.importRates(file);
+        return ResponseEntity.ok(ApiResponse.success(data));
+    }
+
+    /** Converts items that have no PHP value yet (same batches as the nightly job). */
+    @PostMapping("/fx/backfill")
+    public ResponseEntity<ApiResponse<FxBackfillResult>> runFxBackfill() {
+        FxBackfillResult data = fxBackfillService.backfill();
+        return ResponseEntity.ok(ApiResponse.success(data));
+    }
+
+    // ── SQL monitoring ───────────────────────────────────────
+
+    /** Per-statement-shape aggregates since startup or the last reset, highest total time first. */
+    @GetMapping("/sql/statements")
+    public ResponseEntity<ApiResponse<List<SqlStatementStatsResponse>>> getSqlStatements(
+            @RequestParam(defaultValue = "50") int limit) {
+        List<SqlStatementStatsResponse> data = sqlStatementMonitor.topStatements(limit);
+        return ResponseEntity.ok(ApiResponse.success(data));
+    }
+
+    @DeleteMapping("/sql/statements")
+    public ResponseEntity<ApiResponse<Void>> resetSqlStatements() {
+        sqlStatementMonitor.reset();
+        return ResponseEntity.ok(ApiResponse.success(null));
+    }
 }
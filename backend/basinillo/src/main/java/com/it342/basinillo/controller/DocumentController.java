@@ -1,58 +1,269 @@
 package com.it342.basinillo.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.it342.basinillo.dto.ApiResponse;
+import com.it342.basinillo.dto.CompleteUploadRequest;
+import com.it342.basinillo.dto.DocumentResponse;
+import com.it342.basinillo.dto.PresignedUploadRequest;
+import com.it342.basinillo.dto.PresignedUrlResponse;
 import com.it342.basinillo.entity.Document;
+import com.it342.basinillo.entity.DocumentPreview;
 import com.it342.basinillo.entity.User;
 import com.it342.basinillo.enums.DocumentType;
+import com.it342.basinillo.exception.ResourceNotFoundException;
+import com.it342.basinillo.service.DocumentBundleService;
+import com.it342.basinillo.service.DocumentDownloadService;
+import com.it342.basinillo.service.DocumentPreviewService;
 import com.it342.basinillo.service.DocumentService;
-import lombok.RequiredArgsConstructor;
+import com.it342.basinillo.service.IdempotencyService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 @RestController
 @RequestMapping("/api/v1/shipments/{shipmentId}/documents")
-@RequiredArgsConstructor
 public class DocumentController {
 
     private final DocumentService documentService;
+    private final IdempotencyService idempotencyService;
+    private final DocumentDownloadService downloadService;
+    private final DocumentBundleService bundleService;
+    private final DocumentPreviewService previewService;
+    private final TaskExecutor uploadExecutor;
+
+    public DocumentController(DocumentService documentService,
+                              IdempotencyService idempotencyService,
+                              DocumentDownloadService downloadService,
+                              DocumentBundleService bundleService,
+                              DocumentPreviewService previewService,
+                              @Qualifier("documentUploadExecutor") TaskExecutor uploadExecutor) {
+        this.documentService = documentService;
+        this.idempotencyService = idempotencyService;
+        this.downloadService = downloadService;
+        this.bundleService = bundleService;
+        this.previewService = previewService;
+        this.uploadExecutor = uploadExecutor;
+    }
 
     /**
-     * Upload a document for a shipment.
-     * NOTE: Actual R2 storage is a placeholder — the file URL is stubbed.
-     * In production, upload to Cloudflare R2 first, then save the returned URL.
+     * Upload a document for a shipment as multipart/form-data.
+     * The file is streamed to storage on the upload executor, not the request thread.
+     * A retry carrying the same Idempotency-Key gets the original response and stores nothing.
      */
-    @PostMapping
-    public ResponseEntity<ApiResponse<Document>> upload(
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public CompletableFuture<ResponseEntity<ApiResponse<DocumentResponse>>> upload(
             @PathVariable Long shipmentId,
             @RequestParam("file") MultipartFile file,
             @RequestParam("documentType") DocumentType documentType,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal User user) {
 
-        // Placeholder: in production, upload to R2 and get the real URL
-        String fileUrl = "https://r2.placeholder.com/" + file.getOriginalFilename();
+        return CompletableFuture.supplyAsync(() -> storeAndRecord(
+                shipmentId, String.valueOf(file.getOriginalFilename()), file.getContentType(), file.getSize(),
+                documentType, idempotencyKey, user, file::getInputStream), uploadExecutor);
+    }
+
+    /**
+     * Upload a document as the raw request body, e.g.
+     * {@code POST ...?fileName=invoice.pdf&documentType=CI} with {@code Content-Type: application/pdf}.
+     * Unlike multipart, the body is never spooled by the servlet container: it is piped
+     * straight from the socket to storage.
+     */
+    @PostMapping(consumes = "!" + MediaType.MULTIPART_FORM_DATA_VALUE)
+    public CompletableFuture<ResponseEntity<ApiResponse<DocumentResponse>>> uploadStream(
+            @PathVariable Long shipmentId,
+            @RequestParam("fileName") String fileName,
+            @RequestParam("documentType") DocumentType documentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @AuthenticationPrincipal User user,
+            HttpServletRequest request) {
+
+        return CompletableFuture.supplyAsync(() -> storeAndRecord(
+                shipmentId, fileName, contentType, request.getContentLengthLong(),
+                documentType, idempotencyKey, user, request::getInputStream), uploadExecutor);
+    }
+
+    /**
+     * Step 1 of a direct upload: returns a short-lived URL the client PUTs the file to, bypassing
+     * this server. Requires a storage backend that can presign (R2); 501 otherwise.
+     * If the user already stored identical content the response is marked {@code deduplicated}
+     * and carries no URL: skip the PUT and go straight to completion.
+     */
+    @PostMapping("/presigned-uploads")
+    public ResponseEntity<ApiResponse<PresignedUrlResponse>> presignUpload(
+            @PathVariable Long shipmentId,
+            @Valid @RequestBody PresignedUploadRequest request,
+            @AuthenticationPrincipal User user) {
+        PresignedUrlResponse presigned = documentService.presignUpload(shipmentId, request, user);
+        return ResponseEntity.ok(ApiResponse.success(presigned));
+    }
+
+    /**
+     * Step 2: once the PUT succeeded, records the document after checking the object exists.
+     * Calling it again for the same key returns the already recorded document.
+     */
+    @PostMapping("/presigned-uploads/complete")
+    public ResponseEntity<ApiResponse<DocumentResponse>> completeUpload(
+            @PathVariable Long shipmentId,
+            @Valid @RequestBody CompleteUploadRequest request,
+            @AuthenticationPrincipal User user) {
+        Optional<Document> recorded = documentService.findRecordedUpload(shipmentId, request, user);
+        if (recorded.isPresent()) {
+            return ResponseEntity.ok(ApiResponse.success(DocumentResponse.fromEntity(recorded.get())));
+        }
+        DocumentService.StoredContent content = documentService.verifyUpload(shipmentId, request, user);
+        Document document = documentService.saveDocumentMetadata(shipmentId, content, request.getDocumentType(), user);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(DocumentResponse.fromEntity(document)));
+    }
+
+    /**
+     * Download the document. Supports {@code Range} (single range, 206), {@code If-Range},
+     * {@code ETag}/{@code If-None-Match} and {@code Last-Modified}/{@code If-Modified-Since}.
+     */
+    @GetMapping("/{documentId}/content")
+    public void content(
+            @PathVariable Long shipmentId,
+            @PathVariable Long documentId,
+            @AuthenticationPrincipal User user,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Document document = documentService.getStoredDocument(shipmentId, documentId, user);
+        downloadService.serve(document, request, response);
+    }
+
+    /** First-page thumbnail (small JPEG); 404 until it has been generated. */
+    @GetMapping("/{documentId}/thumbnail")
+    public void thumbnail(
+            @PathVariable Long shipmentId,
+            @PathVariable Long documentId,
+            @AuthenticationPrincipal User user,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Document document = documentService.getStoredDocument(shipmentId, documentId, user);
+        DocumentPreview preview = findPreview(documentId);
+        downloadService.serveRendition(document, preview.getThumbnailKey(), preview.getThumbnailBytes(),
+                "thumb", request, response);
+    }
 
-        Document document = documentService.saveDocumentMetadata(
-                shipmentId,
-                file.getOriginalFilename(),
-                fileUrl,
-                documentType,
-                file.getSize(),
-                user
-        );
+    /** Low-resolution first-page preview (JPEG); 404 until it has been generated. */
+    @GetMapping("/{documentId}/preview")
+    public void preview(
+            @PathVariable Long shipmentId,
+            @PathVariable Long documentId,
+            @AuthenticationPrincipal User user,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Document document = documentService.getStoredDocument(shipmentId, documentId, user);
+        DocumentPreview preview = findPreview(documentId);
+        downloadService.serveRendition(document, preview.getPreviewKey(), preview.getPreviewBytes(),
+                "preview", request, response);
+    }
+
+    /**
+     * Every document of the shipment in one ZIP, one folder per document type, streamed as it
+     * is built. Only the document types listed are included when {@code types} is given.
+     */
+    @GetMapping("/bundle")
+    public void bundle(
+            @PathVariable Long shipmentId,
+            @RequestParam(value = "types", required = false) List<DocumentType> types,
+            @AuthenticationPrincipal User user,
+            HttpServletResponse response) throws IOException {
+        List<Document> documents = documentService.getDocumentsByShipment(shipmentId, user).stream()
+                .filter(d -> types == null || types.isEmpty() || types.contains(d.getType()))
+                .toList();
+        bundleService.writeBundle(documents, "shipment-" + shipmentId + "-documents.zip", response);
+    }
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(document));
+    /** Short-lived URL to download the document straight from storage. */
+    @GetMapping("/{documentId}/download-url")
+    public ResponseEntity<ApiResponse<PresignedUrlResponse>> downloadUrl(
+            @PathVariable Long shipmentId,
+            @PathVariable Long documentId,
+            @AuthenticationPrincipal User user) {
+        PresignedUrlResponse presigned = documentService.presignDownload(shipmentId, documentId, user);
+        return ResponseEntity.ok(ApiResponse.success(presigned));
+    }
+
+    @DeleteMapping("/{documentId}")
+    public ResponseEntity<ApiResponse<Void>> delete(
+            @PathVariable Long shipmentId,
+            @PathVariable Long documentId,
+            @AuthenticationPrincipal User user) {
+        documentService.deleteDocument(shipmentId, documentId, user);
+        return ResponseEntity.ok(ApiResponse.success(null));
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Document>>> list(
+    public ResponseEntity<ApiResponse<List<DocumentResponse>>> list(
             @PathVariable Long shipmentId,
             @AuthenticationPrincipal User user) {
-        List<Document> documents = documentService.getDocumentsByShipment(shipmentId, user);
+        List<DocumentResponse> documents = documentService.listDocuments(shipmentId, user);
         return ResponseEntity.ok(ApiResponse.success(documents));
     }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    private DocumentPreview findPreview(Long documentId) {
+        return previewService.findReady(documentId)
+                .orElseThrow(() -> new ResourceNotFoundException("No preview for document " + documentId));
+    }
+
+    private interface ContentSource {
+        InputStream open() throws IOException;
+    }
+
+    /** What an upload's Idempotency-Key is bound to; a record serializes in a fixed field order. */
+    private record UploadFingerprint(Long shipmentId, String fileName, long size, DocumentType documentType) {
+    }
+
+    /** Streams the content to storage (no transaction), then records it; the object is deleted if recording fails. */
+    private ResponseEntity<ApiResponse<DocumentResponse>> storeAndRecord(
+            Long shipmentId, String fileName, String contentType, long size, DocumentType documentType,
+            String idempotencyKey, User user, ContentSource source) {
+
+        UploadFingerprint fingerprint = new UploadFingerprint(shipmentId, fileName, size, documentType);
+
+        AtomicReference<DocumentService.StoredContent> stored = new AtomicReference<>();
+        try {
+            return idempotencyService.execute(idempotencyKey, user, "POST /documents", fingerprint,
+                    new TypeReference<>() { },
+                    () -> {
+                        try (InputStream in = source.open()) {
+                            stored.set(documentService.store(shipmentId, fileName, contentType, in, size, user));
+                            return stored.get();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException("Could not read upload: " + e.getMessage(), e);
+                        }
+                    },
+                    content -> {
+                        Document document = documentService.saveDocumentMetadata(shipmentId, content, documentType, user);
+                        return ResponseEntity.status(HttpStatus.CREATED)
+                                .body(ApiResponse.success(DocumentResponse.fromEntity(document)));
+                    });
+        } catch (RuntimeException e) {
+            if (stored.get() != null) {
+                documentService.discard(stored.get());
+            }
+            throw e;
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package com.it342.basinillo.controller;
+
+import com.it342.basinillo.dto.ApiResponse;
+import com.it342.basinillo.dto.DocumentSearchResult;
+import com.it342.basinillo.entity.User;
+import com.it342.basinillo.service.DocumentTextService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/documents")
+@RequiredArgsConstructor
+public class DocumentSearchController {
+
+    private final DocumentTextService documentTextService;
+
+    /**
+     * Full-text search over the text extracted from the broker's documents, across all of
+     * their shipments. Documents still being extracted are not found yet.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<DocumentSearchResult>>> search(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit,
+            @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(ApiResponse.success(documentTextService.search(query, limit, user)));
+    }
+}
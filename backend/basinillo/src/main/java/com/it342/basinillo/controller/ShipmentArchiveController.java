@@ -0,0 +1,41 @@
+package com.it342.basinillo.controller;
+
+import com.it342.basinillo.dto.ApiResponse;
+import com.it342.basinillo.dto.ArchivedShipmentResponse;
+import com.it342.basinillo.entity.User;
+import com.it342.basinillo.service.ShipmentArchivalService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/** Read-only access to a broker's archived (cold) shipments. */
+@RestController
+@RequestMapping("/api/v1/shipments/archive")
+@RequiredArgsConstructor
+public class ShipmentArchiveController {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final ShipmentArchivalService archivalService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<ArchivedShipmentResponse>>> list(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        List<ArchivedShipmentResponse> data = archivalService.getArchivedForUser(
+                user, Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        return ResponseEntity.ok(ApiResponse.success(data));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<ArchivedShipmentResponse>> getById(
+            @PathVariable Long id,
+            @AuthenticationPrincipal User user) {
+        ArchivedShipmentResponse data = archivalService.getArchivedById(id, user);
+        return ResponseEntity.ok(ApiResponse.success(data));
+    }
+}
@@ -1,17 +1,25 @@
 package com.it342.basinillo.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.it342.basinillo.dto.*;
 import com.it342.basinillo.entity.User;
 import com.it342.basinillo.enums.ShipmentLane;
 import com.it342.basinillo.enums.ShipmentStatus;
+import com.it342.basinillo.exception.PreconditionFailedException;
+import com.it342.basinillo.service.IdempotencyService;
+import com.it342.basinillo.service.ManifestImportService;
 import com.it342.basinillo.service.ShipmentAnalysisService;
 import com.it342.basinillo.service.ShipmentService;
+import com.it342.basinillo.service.TariffService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
@@ -22,14 +30,31 @@ public class ShipmentController {
 
     private final ShipmentService shipmentService;
     private final ShipmentAnalysisService analysisService;
+    private final ManifestImportService manifestImportService;
+    private final IdempotencyService idempotencyService;
+    private final TariffService tariffService;
 
     // ── CRUD ─────────────────────────────────────────────────
 
+    /** A retry carrying the same Idempotency-Key gets the original response back. */
     @PostMapping
     public ResponseEntity<ApiResponse<ShipmentResponse>> create(
             @Valid @RequestBody CreateShipmentRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal User user) {
-        ShipmentResponse data = shipmentService.createShipment(request, user);
+        return idempotencyService.execute(idempotencyKey, user, "POST /shipments", request,
+                new TypeReference<>() { }, () -> {
+                    ShipmentResponse data = shipmentService.createShipment(request, user);
+                    return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(data));
+                });
+    }
+
+    /** Bulk-creates shipments from a vessel manifest (CSV or XLSX). All-or-nothing. */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<ManifestImportResponse>> importManifest(
+            @RequestParam("file") MultipartFile file,
+            @AuthenticationPrincipal User user) {
+        ManifestImportResponse data = manifestImportService.importManifest(file, user);
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(data));
     }
 
@@ -60,23 +85,48 @@ public class ShipmentController {
             @PathVariable Long id,
             @AuthenticationPrincipal User user) {
         ShipmentResponse data = shipmentService.getById(id, user);
-        return ResponseEntity.ok(ApiResponse.success(data));
+        return ResponseEntity.ok().eTag(toETag(data)).body(ApiResponse.success(data));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<ShipmentResponse>> update(
             @PathVariable Long id,
             @RequestBody UpdateShipmentRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @AuthenticationPrincipal User user) {
-        ShipmentResponse data = shipmentService.updateShipment(id, request, user);
-        return ResponseEntity.ok(ApiResponse.success(data));
+        ShipmentResponse data = shipmentService.updateShipment(id, request, parseIfMatch(ifMatch), user);
+        return ResponseEntity.ok().eTag(toETag(data)).body(ApiResponse.success(data));
     }
 
+    /**
+     * Advances one step. Passing {@code fromStatus} (and If-Match) makes this a single
+     * conditional UPDATE with no prior read.
+     */
     @PatchMapping("/{id}/status")
     public ResponseEntity<ApiResponse<ShipmentResponse>> advanceStatus(
             @PathVariable Long id,
+            @RequestParam(required = false) ShipmentStatus fromStatus,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @AuthenticationPrincipal User user) {
+        ShipmentResponse data = shipmentService.advanceStatus(id, fromStatus, parseIfMatch(ifMatch), user);
+        return ResponseEntity.ok().eTag(toETag(data)).body(ApiResponse.success(data));
+    }
+
+    // ── Bulk ─────────────────────────────────────────────────
+
+    @PatchMapping("/bulk/status")
+    public ResponseEntity<ApiResponse<BulkOperationResponse>> bulkAdvanceStatus(
+            @Valid @RequestBody BulkStatusRequest request,
+            @AuthenticationPrincipal User user) {
+        BulkOperationResponse data = shipmentService.bulkAdvanceStatus(request, user);
+        return ResponseEntity.ok(ApiResponse.success(data));
+    }
+
+    @PatchMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkOperationResponse>> bulkUpdate(
+            @Valid @RequestBody BulkUpdateRequest request,
             @AuthenticationPrincipal User user) {
-        ShipmentResponse data = shipmentService.advanceStatus(id, user);
+        BulkOperationResponse data = shipmentService.bulkUpdate(request, user);
         return ResponseEntity.ok(ApiResponse.success(data));
     }
 
@@ -96,4 +146,36 @@ public class ShipmentController {
         ShipmentAnalysisResponse data = analysisService.getAnalysisForUser(user.getId());
         return ResponseEntity.ok(ApiResponse.success(data));
     }
+
+    /** Estimated duty and import VAT per item, from the HS tariff schedule and PHP values. */
+    @GetMapping("/{id}/duties")
+    public ResponseEntity<ApiResponse<DutyEstimateResponse>> estimateDuties(
+            @PathVariable Long id,
+            @AuthenticationPrincipal User user) {
+        DutyEstimateResponse data = tariffService.estimateDuties(shipmentService.getById(id, user));
+        return ResponseEntity.ok(ApiResponse.success(data));
+    }
+
+    // ── ETag helpers ─────────────────────────────────────────
+
+    private static String toETag(ShipmentResponse shipment) {
+        return "\"" + shipment.getVersion() + "\"";
+    }
+
+    /** Accepts "3", W/"3" or 3; "*" or no header means no version check. */
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Unrecognized If-Match value: " + ifMatch);
+        }
+    }
 }
@@ -0,0 +1,31 @@
+package com.it342.basinillo.controller;
+
+import com.it342.basinillo.dto.ApiResponse;
+import com.it342.basinillo.dto.HsCodeSuggestion;
+import com.it342.basinillo.service.TariffService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/tariff")
+@RequiredArgsConstructor
+public class TariffController {
+
+    private final TariffService tariffService;
+
+    /** HS code autocomplete by prefix, answered from memory. The schedule only changes on deploy. */
+    @GetMapping("/hs-codes")
+    public ResponseEntity<ApiResponse<List<HsCodeSuggestion>>> suggest(
+            @RequestParam("q") String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<HsCodeSuggestion> data = tariffService.suggest(prefix, limit);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofHours(1)).cachePrivate())
+                .body(ApiResponse.success(data));
+    }
+}
@@ -0,0 +1,20 @@
+package com.it342.basinillo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveRunResult {
+
+    private LocalDateTime ranAt;
+    private int batches;
+    private int shipmentsArchived;
+    private long durationMs;
+}
@@ -0,0 +1,103 @@
+package com.it342.basinillo.dto;
+
+import com.it342.basinillo.entity.ArchivedShipment;
+import com.it342.basinillo.enums.DocumentType;
+import com.it342.basinillo.enums.ShipmentLane;
+import com.it342.basinillo.enums.ShipmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedShipmentResponse {
+
+    private Long id;
+    private String vesselName;
+    private String voyageNumber;
+    private LocalDate arrivalDate;
+    private String portOfDischarge;
+    private String clientName;
+    private String containerNumbers;
+    private String descriptionOfGoods;
+    private Integer freeDays;
+    private LocalDate doomsdayDate;
+    private ShipmentStatus status;
+    private ShipmentLane lane;
+    private String entryNumber;
+    private String orNumber;
+    private List<ShipmentItemResponse> items;
+    private List<ArchivedDocumentSummary> documents;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime deletedAt;
+    private LocalDateTime archivedAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ArchivedDocumentSummary {
+        private Long id;
+        private String fileName;
+        private DocumentType type;
+        private Long sizeBytes;
+        private LocalDateTime uploadedAt;
+    }
+
+    /** Converts an archived shipment → response DTO. Pass withDetails=false for list views. */
+    public static ArchivedShipmentResponse fromEntity(ArchivedShipment shipment, boolean withDetails) {
+        List<ShipmentItemResponse> itemDtos = !withDetails ? null : shipment.getItems().stream()
+                .map(item -> ShipmentItemResponse.builder()
+                        .id(item.getId())
+                        .description(item.getDescription())
+                        .hsCode(item.getHsCode())
+                        .quantity(item.getQuantity())
+                        .declaredValue(item.getDeclaredValue())
+                        .currency(item.getCurrency())
+                        .phpConvertedValue(item.getPhpConvertedValue())
+                        .exchangeRate(item.getExchangeRate())
+                        .build())
+                .toList();
+
+        List<ArchivedDocumentSummary> documentDtos = !withDetails ? null : shipment.getDocuments().stream()
+                .map(doc -> ArchivedDocumentSummary.builder()
+                        .id(doc.getId())
+                        .fileName(doc.getFileName())
+                        .type(doc.getType())
+                        .sizeBytes(doc.getSizeBytes())
+                        .uploadedAt(doc.getUploadedAt())
+                        .build())
+                .toList();
+
+        return ArchivedShipmentResponse.builder()
+                .id(shipment.getId())
+                .vesselName(shipment.getVesselName())
+                .voyageNumber(shipment.getVoyageNumber())
+                .arrivalDate(shipment.getArrivalDate())
+                .portOfDischarge(shipment.getPortOfDischarge())
+                .clientName(shipment.getClientName())
+                .containerNumbers(shipment.getContainerNumbers())
+                .descriptionOfGoods(shipment.getDescriptionOfGoods())
+                .freeDays(shipment.getFreeDays())
+                .doomsdayDate(shipment.getDoomsdayDate())
+                .status(shipment.getStatus())
+                .lane(shipment.getLane())
+                .entryNumber(shipment.getEntryNumber())
+                .orNumber(shipment.getOrNumber())
+                .items(itemDtos)
+                .documents(documentDtos)
+                .createdAt(shipment.getCreatedAt())
+                .updatedAt(shipment.getUpdatedAt())
+                .deletedAt(shipment.getDeletedAt())
+                .archivedAt(shipment.getArchivedAt())
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.it342.basinillo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlobGcResult {
+
+    private LocalDateTime ranAt;
+    private int batches;
+    private int blobsDeleted;
+    private long bytesFreed;
+    /** Rows removed whose object could not be deleted from storage (left orphaned) */
+    private int deleteFailures;
+    private long durationMs;
+}
@@ -0,0 +1,21 @@
+package com.it342.basinillo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.it342.basinillo.enums.ShipmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult {
+
+    private Long id;
+    private boolean success;
+    private ShipmentStatus status;
+    private String error;
+}
@@ -0,0 +1,19 @@
+package com.it342.basinillo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperationResponse {
+
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResult> results;
+}
@@ -0,0 +1,39 @@
+package com.it342.basinillo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.it342.basinillo.enums.ShipmentStatus;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Advances many shipments one step from {@code fromStatus}.
+ * Targets either an explicit id list or every shipment on a vessel (and optionally voyage).
+ * Only shipments still in {@code fromStatus} move, so retrying the same request is harmless.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusRequest {
+
+    @Size(max = 1000, message = "At most 1000 ids per request")
+    private List<Long> ids;
+
+    private String vesselName;
+
+    private String voyageNumber;
+
+    @NotNull(message = "fromStatus is required")
+    private ShipmentStatus fromStatus;
+
+    @JsonIgnore
+    @AssertTrue(message = "Provide either ids or vesselName, not both")
+    public boolean isTargetValid() {
+        return (ids != null && !ids.isEmpty()) != (vesselName != null && !vesselName.isBlank());
+    }
+}
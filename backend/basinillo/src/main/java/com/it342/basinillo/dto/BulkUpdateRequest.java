@@ -0,0 +1,49 @@
+package com.it342.basinillo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.it342.basinillo.enums.ShipmentLane;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Applies the same field changes to many shipments (e.g. a vessel's revised arrival date).
+ * Null fields are left untouched; the doomsday date is recomputed from arrival date + free days.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateRequest {
+
+    @Size(max = 1000, message = "At most 1000 ids per request")
+    private List<Long> ids;
+
+    private String vesselName;
+
+    private String voyageNumber;
+
+    private LocalDate arrivalDate;
+
+    private String portOfDischarge;
+
+    private Integer freeDays;
+
+    private ShipmentLane lane;
+
+    @JsonIgnore
+    @AssertTrue(message = "Provide either ids or vesselName, not both")
+    public boolean isTargetValid() {
+        return (ids != null && !ids.isEmpty()) != (vesselName != null && !vesselName.isBlank());
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Nothing to update")
+    public boolean isAnyFieldSet() {
+        return arrivalDate != null || portOfDischarge != null || freeDays != null || lane != null;
+    }
+}
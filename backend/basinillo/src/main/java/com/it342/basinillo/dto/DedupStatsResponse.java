@@ -0,0 +1,28 @@
+package com.it342.basinillo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DedupStatsResponse {
+
+    /** Distinct stored bodies */
+    private long blobs;
+    /** Documents pointing at them */
+    private long references;
+    /** What storage would hold without deduplication */
+    private long logicalBytes;
+    /** What it actually holds */
+    private long physicalBytes;
+    private long bytesSaved;
+    /** logicalBytes / physicalBytes; 1.0 means nothing was deduplicated */
+    private double dedupRatio;
+    private LocalDateTime computedAt;
+}
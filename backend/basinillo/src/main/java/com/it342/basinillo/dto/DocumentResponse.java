@@ -0,0 +1,63 @@
+package com.it342.basinillo.dto;
+
+import com.it342.basinillo.entity.Document;
+import com.it342.basinillo.entity.DocumentPreview;
+import com.it342.basinillo.enums.DocumentType;
+import com.it342.basinillo.enums.PreviewStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentResponse {
+
+    private Long id;
+    private Long shipmentId;
+    private String fileName;
+    private String fileUrl;
+    private DocumentType type;
+    private String contentType;
+    private Long sizeBytes;
+    private String checksumSha256;
+    private LocalDateTime uploadedAt;
+    /** Null until the document has been queued for preview generation */
+    private PreviewStatus previewStatus;
+    /** API path of the first-page thumbnail, once generated */
+    private String thumbnailUrl;
+    private String previewUrl;
+
+    /** Reads only the shipment's id, so a lazy shipment is never initialized. */
+    public static DocumentResponse fromEntity(Document document) {
+        return fromEntity(document, null);
+    }
+
+    public static DocumentResponse fromEntity(Document document, DocumentPreview preview) {
+        Long shipmentId = document.getShipment() != null ? document.getShipment().getId() : null;
+        DocumentResponse response = DocumentResponse.builder()
+                .id(document.getId())
+                .shipmentId(shipmentId)
+                .fileName(document.getFileName())
+                .fileUrl(document.getFileUrl())
+                .type(document.getType())
+                .contentType(document.getContentType())
+                .sizeBytes(document.getSizeBytes())
+                .checksumSha256(document.getChecksumSha256())
+                .uploadedAt(document.getUploadedAt())
+                .build();
+        if (preview != null) {
+            response.setPreviewStatus(preview.getStatus());
+            if (preview.getStatus() == PreviewStatus.READY) {
+                String base = "/api/v1/shipments/" + shipmentId + "/documents/" + document.getId();
+                response.setThumbnailUrl(base + "/thumbnail");
+                response.setPreviewUrl(base + "/preview");
+            }
+        }
+        return response;
+    }
+}
@@ -0,0 +1,42 @@
+package com.it342.basinillo.dto;
+
+import com.it342.basinillo.enums.DocumentType;
+import com.it342.basinillo.repository.DocumentTextRepository;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.web.util.HtmlUtils;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentSearchResult {
+
+    private Long documentId;
+    private Long shipmentId;
+    private String fileName;
+    private DocumentType type;
+    private LocalDateTime uploadedAt;
+    /** Relevance; only meaningful relative to the other results of the same query */
+    private double rank;
+    /** Matching passages, HTML-escaped, with the matched terms wrapped in {@code <b>…</b>} */
+    private String snippet;
+
+    public static DocumentSearchResult fromHit(DocumentTextRepository.SearchHit hit) {
+        return DocumentSearchResult.builder()
+                .documentId(hit.getDocumentId())
+                .shipmentId(hit.getShipmentId())
+                .fileName(hit.getFileName())
+                .type(DocumentType.valueOf(hit.getType()))
+                .uploadedAt(hit.getUploadedAt())
+                .rank(hit.getRank())
+                .snippet(hit.getSnippet() == null ? null : HtmlUtils.htmlEscape(hit.getSnippet())
+                        .replace("&lt;b&gt;", "<b>")
+                        .replace("&lt;/b&gt;", "</b>"))
+                .build();
+    }
+}
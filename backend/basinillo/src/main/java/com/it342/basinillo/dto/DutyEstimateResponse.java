@@ -0,0 +1,47 @@
+package com.it342.basinillo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Estimated customs duty and import VAT for a shipment, in PHP.
+ * Items without a PHP value or a declarable HS code are listed with a note and left out of the totals.
+ * Codes the loaded schedule does not list as a tariff line are flagged {@code unknownHsCode}: the
+ * schedule may be an excerpt, so the code is not necessarily wrong.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DutyEstimateResponse {
+
+    private Long shipmentId;
+    private BigDecimal vatRate;
+    private BigDecimal totalDutiableValue;
+    private BigDecimal totalDuty;
+    private BigDecimal totalVat;
+    private BigDecimal totalTaxes;
+    private boolean complete;
+    private List<ItemEstimate> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemEstimate {
+        private Long itemId;
+        private String hsCode;
+        private String tariffDescription;
+        private BigDecimal dutiableValue;
+        private BigDecimal dutyRate;
+        private BigDecimal duty;
+        private BigDecimal vat;
+        private String note;
+        private boolean unknownHsCode;
+    }
+}
@@ -0,0 +1,21 @@
+package com.it342.basinillo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FxBackfillResult {
+
+    private LocalDateTime ranAt;
+    private int batches;
+    private int itemsScanned;
+    private int itemsConverted;
+    private long durationMs;
+}
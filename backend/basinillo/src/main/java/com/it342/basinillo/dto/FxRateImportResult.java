@@ -0,0 +1,21 @@
+package com.it342.basinillo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FxRateImportResult {
+
+    private int ratesRead;
+    private List<String> currencies;
+    private int ratesLoaded;
+    private LocalDateTime loadedAt;
+}
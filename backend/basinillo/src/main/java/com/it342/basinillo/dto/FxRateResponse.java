@@ -0,0 +1,29 @@
+package com.it342.basinillo.dto;
+
+import com.it342.basinillo.entity.ExchangeRate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FxRateResponse {
+
+    private String currency;
+    private LocalDate effectiveDate;
+    private BigDecimal phpPerUnit;
+
+    public static FxRateResponse fromEntity(ExchangeRate rate) {
+        return FxRateResponse.builder()
+                .currency(rate.getCurrency())
+                .effectiveDate(rate.getEffectiveDate())
+                .phpPerUnit(rate.getPhpPerUnit())
+                .build();
+    }
+}
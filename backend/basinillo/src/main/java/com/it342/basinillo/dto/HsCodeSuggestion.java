@@ -0,0 +1,30 @@
+package com.it342.basinillo.dto;
+
+import com.it342.basinillo.service.TariffSchedule;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HsCodeSuggestion {
+
+    private String code;
+    private String description;
+    private BigDecimal dutyRate;
+    private boolean declarable;
+
+    public static HsCodeSuggestion fromLine(TariffSchedule.TariffLine line) {
+        return HsCodeSuggestion.builder()
+                .code(line.code())
+                .description(line.description())
+                .dutyRate(line.dutyRate())
+                .declarable(line.isDeclarable())
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.it342.basinillo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LaneEscalationResult {
+
+    private LocalDateTime ranAt;
+    private Map<String, Integer> rowsByRule;
+    private int totalRows;
+    private long durationMs;
+}
@@ -0,0 +1,21 @@
+package com.it342.basinillo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ManifestImportResponse {
+
+    private int rowsRead;
+    private int shipmentsCreated;
+    private int itemsCreated;
+    private long durationMs;
+    private List<Long> shipmentIds;
+}
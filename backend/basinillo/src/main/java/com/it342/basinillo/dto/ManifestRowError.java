@@ -0,0 +1,18 @@
+package com.it342.basinillo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** A single validation problem in an uploaded manifest. Row numbers are 1-based and include the header. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ManifestRowError {
+
+    private int row;
+    private String field;
+    private String message;
+}
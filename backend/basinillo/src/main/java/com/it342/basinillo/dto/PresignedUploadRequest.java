@@ -0,0 +1,32 @@
+package com.it342.basinillo.dto;
+
+import com.it342.basinillo.enums.DocumentType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresignedUploadRequest {
+
+    @NotBlank(message = "File name is required")
+    private String fileName;
+
+    @NotNull(message = "Document type is required")
+    private DocumentType documentType;
+
+    private String contentType;
+
+    @NotNull(message = "File size is required")
+    @Positive(message = "File size must be positive")
+    private Long sizeBytes;
+
+    @NotBlank(message = "SHA-256 checksum is required")
+    @Pattern(regexp = "[0-9a-fA-F]{64}", message = "Checksum must be a hex SHA-256")
+    private String checksumSha256;
+}
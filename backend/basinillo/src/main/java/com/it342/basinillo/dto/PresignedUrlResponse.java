@@ -0,0 +1,32 @@
+package com.it342.basinillo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+/** A short-lived URL for moving document bytes directly between the client and storage. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PresignedUrlResponse {
+
+    /** Set on uploads; pass it back to the completion endpoint. */
+    private String storageKey;
+    private String method;
+    private String url;
+    /** Headers the request must carry exactly as given (they are part of the signature). */
+    private Map<String, String> headers;
+    private Instant expiresAt;
+    /**
+     * True when the user already has this content stored: there is nothing to upload, so
+     * {@code url} is absent and the client goes straight to completion with {@code storageKey}.
+     */
+    private Boolean deduplicated;
+}
@@ -0,0 +1,24 @@
+package com.it342.basinillo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PreviewQueueStatsResponse {
+
+    /** Documents waiting in the table, not yet claimed by a worker */
+    private long pendingDocuments;
+    /** Claimed and waiting in the executor queue */
+    private int queuedTasks;
+    private int activeWorkers;
+    /** Documents generated since startup */
+    private long generated;
+    /** 95th percentile generation time over the last few minutes */
+    private double p95Millis;
+    private long memoryBudgetBytes;
+}
@@ -16,6 +16,7 @@ public class ShipmentItemRequest {
     @NotBlank(message = "Item description is required")
     private String description;
 
+    @ValidHsCode
     private String hsCode;
 
     @NotNull(message = "Quantity is required")
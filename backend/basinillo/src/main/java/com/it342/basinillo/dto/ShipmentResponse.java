@@ -1,6 +1,7 @@
 package com.it342.basinillo.dto;
 
 import com.it342.basinillo.entity.Shipment;
+import com.it342.basinillo.enums.DocumentType;
 import com.it342.basinillo.enums.ShipmentLane;
 import com.it342.basinillo.enums.ShipmentStatus;
 import lombok.AllArgsConstructor;
@@ -11,6 +12,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @Builder
@@ -33,6 +35,10 @@ public class ShipmentResponse {
     private String entryNumber;
     private String orNumber;
     private List<ShipmentItemResponse> items;
+    /** Filled on reads only: total documents, and documents per type (types with none are omitted) */
+    private Long documentCount;
+    private Map<DocumentType, Long> documentCounts;
+    private Long version;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -67,6 +73,7 @@ public class ShipmentResponse {
                 .entryNumber(shipment.getEntryNumber())
                 .orNumber(shipment.getOrNumber())
                 .items(itemDtos)
+                .version(shipment.getVersion())
                 .createdAt(shipment.getCreatedAt())
                 .updatedAt(shipment.getUpdatedAt())
                 .build();
@@ -0,0 +1,26 @@
+package com.it342.basinillo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SqlStatementStatsResponse {
+
+    /** SQL with literals and IN lists collapsed to placeholders */
+    private String shape;
+    private long count;
+    private double totalMillis;
+    private double meanMillis;
+    /** Upper bound of the histogram bucket holding the 99th percentile (within 25%) */
+    private double p99Millis;
+    private double maxMillis;
+    /** Rows read or affected, over all executions */
+    private long rows;
+    /** Executions at or above the slow threshold */
+    private long slowCount;
+}
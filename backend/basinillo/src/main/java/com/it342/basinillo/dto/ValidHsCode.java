@@ -0,0 +1,23 @@
+package com.it342.basinillo.dto;
+
+import com.it342.basinillo.service.HsCodeValidator;
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/** Null, or a 4-, 6- or 8-digit HS/AHTN code (dots and spaces allowed). Not checked against the schedule. */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = HsCodeValidator.class)
+public @interface ValidHsCode {
+
+    String message() default "HS code must have 4, 6 or 8 digits";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,45 @@
+package com.it342.basinillo.entity;
+
+import com.it342.basinillo.enums.DocumentType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/** Metadata of a document whose shipment was archived. The stored file itself is left in place. */
+@Entity
+@Table(name = "documents_archive", indexes = {
+        @Index(name = "idx_documents_archive_shipment", columnList = "shipment_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedDocument {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "shipment_id", nullable = false)
+    private ArchivedShipment shipment;
+
+    private String fileName;
+
+    private String fileUrl;
+
+    private String storageKey;
+
+    private String contentType;
+
+    @Column(length = 64)
+    private String checksumSha256;
+
+    @Enumerated(EnumType.STRING)
+    private DocumentType type;
+
+    private Long sizeBytes;
+
+    private LocalDateTime uploadedAt;
+}
@@ -0,0 +1,80 @@
+package com.it342.basinillo.entity;
+
+import com.it342.basinillo.enums.ShipmentLane;
+import com.it342.basinillo.enums.ShipmentStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cold copy of a shipment moved out of the hot {@code shipments} table by
+ * {@code ShipmentArchivalService}. Keeps the original id; read-only from the API.
+ */
+@Entity
+@Table(name = "shipments_archive", indexes = {
+        @Index(name = "idx_shipments_archive_user", columnList = "user_id, archived_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedShipment {
+
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    private String vesselName;
+
+    private String voyageNumber;
+
+    private LocalDate arrivalDate;
+
+    private String portOfDischarge;
+
+    private String clientName;
+
+    private String containerNumbers;
+
+    private String descriptionOfGoods;
+
+    private Integer freeDays;
+
+    private LocalDate doomsdayDate;
+
+    @Enumerated(EnumType.STRING)
+    private ShipmentStatus status;
+
+    @Enumerated(EnumType.STRING)
+    private ShipmentLane lane;
+
+    private String entryNumber;
+
+    private String orNumber;
+
+    private Long version;
+
+    @OneToMany(mappedBy = "shipment")
+    @Builder.Default
+    private List<ArchivedShipmentItem> items = new ArrayList<>();
+
+    @OneToMany(mappedBy = "shipment")
+    @Builder.Default
+    private List<ArchivedDocument> documents = new ArrayList<>();
+
+    private LocalDateTime deletedAt;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
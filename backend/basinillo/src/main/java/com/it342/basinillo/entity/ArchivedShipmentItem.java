@@ -0,0 +1,44 @@
+package com.it342.basinillo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "shipment_items_archive", indexes = {
+        @Index(name = "idx_shipment_items_archive_shipment", columnList = "shipment_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedShipmentItem {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "shipment_id", nullable = false)
+    private ArchivedShipment shipment;
+
+    private String description;
+
+    private String hsCode;
+
+    private Integer quantity;
+
+    private BigDecimal declaredValue;
+
+    @Column(length = 3)
+    private String currency;
+
+    private BigDecimal phpConvertedValue;
+
+    @Column(precision = 19, scale = 8)
+    private BigDecimal exchangeRate;
+
+    private LocalDateTime createdAt;
+}
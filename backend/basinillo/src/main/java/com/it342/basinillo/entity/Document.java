@@ -1,5 +1,6 @@
 package com.it342.basinillo.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.it342.basinillo.enums.DocumentType;
 import jakarta.persistence.*;
 import lombok.*;
@@ -19,6 +20,7 @@ public class Document {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "shipment_id", nullable = false)
     private Shipment shipment;
@@ -29,6 +31,16 @@ public class Document {
     @Column(nullable = false)
     private String fileUrl;
 
+    /** Object key in the active {@code DocumentStorage}; null for records created before real storage. */
+    @JsonIgnore
+    private String storageKey;
+
+    private String contentType;
+
+    /** Hex SHA-256 of the content, when known. */
+    @Column(length = 64)
+    private String checksumSha256;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private DocumentType type;
@@ -38,4 +50,5 @@ public class Document {
     @Column(nullable = false, updatable = false)
     @Builder.Default
     private LocalDateTime uploadedAt = LocalDateTime.now();
+
 }
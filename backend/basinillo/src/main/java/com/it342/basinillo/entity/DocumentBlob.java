@@ -0,0 +1,45 @@
+package com.it342.basinillo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One stored document body, addressed by the SHA-256 of its content. Every {@link Document}
+ * with that checksum points at the same object, counted in {@code refCount}; once the count
+ * drops to zero {@code releasedAt} is set and the blob becomes garbage after a grace period.
+ */
+@Entity
+@Table(name = "document_blobs",
+       uniqueConstraints = @UniqueConstraint(name = "uk_document_blobs_sha256", columnNames = "sha256"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentBlob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private String storageKey;
+
+    @Column(nullable = false)
+    private Long sizeBytes;
+
+    private String contentType;
+
+    @Column(nullable = false)
+    private Integer refCount;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime releasedAt;
+}
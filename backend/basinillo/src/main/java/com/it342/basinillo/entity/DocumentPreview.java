@@ -0,0 +1,68 @@
+package com.it342.basinillo.entity;
+
+import com.it342.basinillo.enums.PreviewStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * First-page thumbnail and preview of one document, and the queue entry that generates them.
+ * Queued as PENDING in the upload's transaction and claimed by {@code DocumentPreviewService}
+ * like {@link DocumentText}. The images are stored next to the original
+ * ({@code <storageKey>.thumb.jpg}, {@code <storageKey>.preview.jpg}), so documents that share a
+ * deduplicated body share them too.
+ */
+@Entity
+@Table(name = "document_previews")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentPreview {
+
+    @Id
+    private Long documentId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "document_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Document document;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private PreviewStatus status;
+
+    private String thumbnailKey;
+
+    private Long thumbnailBytes;
+
+    private String previewKey;
+
+    private Long previewBytes;
+
+    private LocalDateTime generatedAt;
+
+    // ── Worker bookkeeping ───────────────────────────────────
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(columnDefinition = "text")
+    private String lastError;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private LocalDateTime availableAt = LocalDateTime.now();
+
+    private LocalDateTime claimedUntil;
+
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
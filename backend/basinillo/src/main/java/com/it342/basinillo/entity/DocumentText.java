@@ -0,0 +1,63 @@
+package com.it342.basinillo.entity;
+
+import com.it342.basinillo.enums.TextExtractionStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Extracted text of one document, and the queue entry that produces it. The row is written in
+ * the upload's transaction as PENDING and claimed later by {@code DocumentTextService} with
+ * FOR UPDATE SKIP LOCKED, so a slow or failing extraction never holds up the upload.
+ * The full-text {@code search_vector} column is generated by Postgres (db/schema-patches.sql).
+ * Rows go away with their document (ON DELETE CASCADE), including when it is archived.
+ */
+@Entity
+@Table(name = "document_texts")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentText {
+
+    @Id
+    private Long documentId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "document_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Document document;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private TextExtractionStatus status;
+
+    @Column(columnDefinition = "text")
+    private String content;
+
+    private LocalDateTime extractedAt;
+
+    // ── Worker bookkeeping ───────────────────────────────────
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(columnDefinition = "text")
+    private String lastError;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private LocalDateTime availableAt = LocalDateTime.now();
+
+    private LocalDateTime claimedUntil;
+
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,44 @@
+package com.it342.basinillo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * PHP value of one unit of a foreign currency, in effect from {@code effectiveDate}
+ * until the next dated rate for the same currency.
+ */
+@Entity
+@Table(name = "exchange_rates",
+       uniqueConstraints = @UniqueConstraint(name = "uk_exchange_rates_currency_date",
+                                             columnNames = {"currency", "effective_date"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExchangeRate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "effective_date", nullable = false)
+    private LocalDate effectiveDate;
+
+    @Column(nullable = false, precision = 19, scale = 8)
+    private BigDecimal phpPerUnit;
+
+    /** Where the rate came from, e.g. "file:rates.csv" or "upload:boc-week-12.csv" */
+    private String source;
+
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
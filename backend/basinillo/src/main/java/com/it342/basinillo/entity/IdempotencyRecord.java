@@ -0,0 +1,56 @@
+package com.it342.basinillo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored outcome of a request sent with an {@code Idempotency-Key} header.
+ * While {@code completedAt} is null the key is in flight, locked until {@code lockedUntil}.
+ */
+@Entity
+@Table(name = "idempotency_keys",
+       uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_user_key",
+                                             columnNames = {"user_id", "idempotency_key"}),
+       indexes = @Index(name = "idx_idempotency_expires", columnList = "expires_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    /** SHA-256 of the endpoint and request payload; a reused key must match it */
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    private Integer responseStatus;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    /** Identifies the request holding the in-flight lock; cleared on completion */
+    @Column(length = 36)
+    private String lockToken;
+
+    private LocalDateTime lockedUntil;
+
+    private LocalDateTime completedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
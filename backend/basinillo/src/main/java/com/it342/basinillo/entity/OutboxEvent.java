@@ -0,0 +1,69 @@
+package com.it342.basinillo.entity;
+
+import com.it342.basinillo.enums.OutboxEventType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A pending side effect of a domain change (notification, cache invalidation, webhook).
+ * Rows are claimed by {@code OutboxRelay} with FOR UPDATE SKIP LOCKED, so several
+ * app instances can relay concurrently without double-claiming.
+ * A processed row with a non-null lastError was given up after max attempts.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_pending", columnList = "processed_at, available_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String aggregateType;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    /** Converted rather than @Enumerated so new event types don't trip an enum CHECK constraint. */
+    @Convert(converter = OutboxEventTypeConverter.class)
+    @Column(nullable = false, length = 64)
+    private OutboxEventType eventType;
+
+    @Column(columnDefinition = "text")
+    private String payload;
+
+    // ── Relay bookkeeping ────────────────────────────────────
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(columnDefinition = "text")
+    private String lastError;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private LocalDateTime availableAt = LocalDateTime.now();
+
+    private String claimedBy;
+
+    private LocalDateTime claimedUntil;
+
+    private LocalDateTime processedAt;
+
+    // ── Timestamps ───────────────────────────────────────────
+
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,23 @@
+package com.it342.basinillo.entity;
+
+import com.it342.basinillo.enums.OutboxEventType;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link OutboxEventType} by name. Hibernate adds a CHECK constraint for
+ * {@code @Enumerated} columns that ddl-auto=update never widens; a converter avoids it.
+ */
+@Converter
+public class OutboxEventTypeConverter implements AttributeConverter<OutboxEventType, String> {
+
+    @Override
+    public String convertToDatabaseColumn(OutboxEventType type) {
+        return type != null ? type.name() : null;
+    }
+
+    @Override
+    public OutboxEventType convertToEntityAttribute(String value) {
+        return value != null ? OutboxEventType.valueOf(value) : null;
+    }
+}
@@ -4,6 +4,7 @@ import com.it342.basinillo.enums.ShipmentLane;
 import com.it342.basinillo.enums.ShipmentStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -11,7 +12,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "shipments")
+@Table(name = "shipments") // partial indexes on live rows: db/schema-patches.sql
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,7 +22,8 @@ import java.util.List;
 public class Shipment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shipments_seq")
+    @SequenceGenerator(name = "shipments_seq", sequenceName = "shipments_seq", allocationSize = 50)
     private Long id;
 
     // ── Ownership ────────────────────────────────────────────
@@ -84,6 +87,16 @@ public class Shipment {
     @Builder.Default
     private List<Document> documents = new ArrayList<>();
 
+    // ── Optimistic locking ───────────────────────────────────
+
+    /**
+     * Exposed as the ETag; clients send it back in If-Match. Null until first persisted.
+     * Mapped nullable so ddl-auto can add it to a populated table; db/schema-patches.sql
+     * backfills it and then sets the default and NOT NULL.
+     */
+    @Version
+    private Long version;
+
     // ── Soft delete ──────────────────────────────────────────
 
     private LocalDateTime deletedAt;
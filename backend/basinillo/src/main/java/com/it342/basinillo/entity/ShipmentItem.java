@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class ShipmentItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shipment_items_seq")
+    @SequenceGenerator(name = "shipment_items_seq", sequenceName = "shipment_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -37,6 +38,7 @@ public class ShipmentItem {
 
     private BigDecimal phpConvertedValue;
 
+    @Column(precision = 19, scale = 8)
     private BigDecimal exchangeRate;
 
     @Column(nullable = false, updatable = false)
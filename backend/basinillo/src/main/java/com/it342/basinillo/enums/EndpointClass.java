@@ -0,0 +1,15 @@
+package com.it342.basinillo.enums;
+
+/** Request classes that get their own concurrency bulkhead, so one cannot starve the others of DB connections. */
+public enum EndpointClass {
+    /** Login, registration, token refresh */
+    AUTH,
+    /** Broker GET requests: shipment lists, documents, search */
+    READ,
+    /** Broker POST/PUT/PATCH/DELETE */
+    WRITE,
+    /** Everything under /api/v1/admin */
+    ADMIN,
+    /** Bulk downloads streamed to brokers, such as document bundles */
+    EXPORT
+}
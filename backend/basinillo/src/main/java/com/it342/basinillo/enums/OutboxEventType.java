@@ -0,0 +1,13 @@
+package com.it342.basinillo.enums;
+
+/**
+ * Side-effect events recorded in the transactional outbox.
+ * Written in the same transaction as the shipment mutation and dispatched later by the relay.
+ */
+public enum OutboxEventType {
+    SHIPMENT_CREATED,
+    SHIPMENT_UPDATED,
+    SHIPMENT_STATUS_CHANGED,
+    SHIPMENT_LANE_ESCALATED,
+    SHIPMENT_DELETED
+}
@@ -0,0 +1,11 @@
+package com.it342.basinillo.enums;
+
+/** Progress of a document's thumbnail and preview images. */
+public enum PreviewStatus {
+    PENDING,
+    READY,
+    /** Not a PDF or a format the JDK can decode (e.g. spreadsheets, HEIC) */
+    UNSUPPORTED,
+    /** Gave up: unreadable file, over the memory budget, or out of attempts; see lastError */
+    FAILED
+}
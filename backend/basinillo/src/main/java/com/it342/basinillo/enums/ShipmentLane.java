@@ -3,6 +3,7 @@ package com.it342.basinillo.enums;
 /**
  * Customs processing lane indicating urgency/risk level.
  * GREEN = normal, YELLOW = needs attention, RED = critical/delayed.
+ * Declared in ascending severity — lane escalation relies on this order.
  */
 public enum ShipmentLane {
     GREEN,
@@ -0,0 +1,14 @@
+package com.it342.basinillo.enums;
+
+/**
+ * Progress of a document through the background text extraction pipeline.
+ * Only EXTRACTED documents are searchable.
+ */
+public enum TextExtractionStatus {
+    PENDING,
+    EXTRACTED,
+    /** No extractor handles the content type (e.g. images until an OCR extractor is added) */
+    UNSUPPORTED,
+    /** Gave up after the maximum number of attempts; see lastError */
+    FAILED
+}
@@ -0,0 +1,9 @@
+package com.it342.basinillo.exception;
+
+/** Stored document content does not match what the client declared (e.g. its SHA-256). */
+public class DocumentIntegrityException extends RuntimeException {
+
+    public DocumentIntegrityException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,7 @@
 package com.it342.basinillo.exception;
 
 import com.it342.basinillo.dto.ApiResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -30,6 +31,18 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error("VALID-001", "Validation failed", fieldErrors));
     }
 
+    @ExceptionHandler(ManifestValidationException.class)
+    public ResponseEntity<ApiResponse<Void>> handleManifestValidation(ManifestValidationException ex) {
+        return ResponseEntity.badRequest()
+                .body(ApiResponse.error("VALID-002", ex.getMessage(), ex.getErrors()));
+    }
+
+    @ExceptionHandler(RateFileValidationException.class)
+    public ResponseEntity<ApiResponse<Void>> handleRateFileValidation(RateFileValidationException ex) {
+        return ResponseEntity.badRequest()
+                .body(ApiResponse.error("VALID-004", ex.getMessage(), ex.getErrors()));
+    }
+
     @ExceptionHandler(DuplicateResourceException.class)
     public ResponseEntity<ApiResponse<Void>> handleDuplicate(DuplicateResourceException ex) {
         return ResponseEntity.status(HttpStatus.CONFLICT)
@@ -60,6 +73,54 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error("AUTH-003", "Insufficient permissions", ex.getMessage()));
     }
 
+    @ExceptionHandler(InvalidStateTransitionException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidTransition(InvalidStateTransitionException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error("STATE-001", "Invalid state transition", ex.getMessage()));
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiResponse<Void>> handlePreconditionFailed(PreconditionFailedException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(ApiResponse.error("STATE-002", "Resource was modified", ex.getMessage()));
+    }
+
+    @ExceptionHandler(IdempotencyKeyException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIdempotencyKey(IdempotencyKeyException ex) {
+        return ResponseEntity.status(ex.getStatus())
+                .body(ApiResponse.error(ex.getCode(), "Idempotency key rejected", ex.getMessage()));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOptimisticLock(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error("STATE-003", "Concurrent modification", "Reload and retry the update"));
+    }
+
+    @ExceptionHandler(PayloadTooLargeException.class)
+    public ResponseEntity<ApiResponse<Void>> handlePayloadTooLarge(PayloadTooLargeException ex) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(ApiResponse.error("VALID-003", "File too large", ex.getMessage()));
+    }
+
+    @ExceptionHandler(StorageException.class)
+    public ResponseEntity<ApiResponse<Void>> handleStorage(StorageException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .body(ApiResponse.error("STORAGE-001", "Document storage unavailable", ex.getMessage()));
+    }
+
+    @ExceptionHandler(DocumentIntegrityException.class)
+    public ResponseEntity<ApiResponse<Void>> handleDocumentIntegrity(DocumentIntegrityException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(ApiResponse.error("STORAGE-003", "Checksum mismatch", ex.getMessage()));
+    }
+
+    @ExceptionHandler(UnsupportedOperationException.class)
+    public ResponseEntity<ApiResponse<Void>> handleUnsupported(UnsupportedOperationException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED)
+                .body(ApiResponse.error("STORAGE-002", "Not supported", ex.getMessage()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Void>> handleGeneral(Exception ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,18 @@
+package com.it342.basinillo.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/** A request's Idempotency-Key is malformed, still in flight, or was used for a different payload. */
+@Getter
+public class IdempotencyKeyException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final String code;
+
+    public IdempotencyKeyException(HttpStatus status, String code, String message) {
+        super(message);
+        this.status = status;
+        this.code = code;
+    }
+}
@@ -0,0 +1,17 @@
+package com.it342.basinillo.exception;
+
+import com.it342.basinillo.dto.ManifestRowError;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class ManifestValidationException extends RuntimeException {
+
+    private final List<ManifestRowError> errors;
+
+    public ManifestValidationException(List<ManifestRowError> errors) {
+        super("Manifest has " + errors.size() + " invalid row(s)");
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,8 @@
+package com.it342.basinillo.exception;
+
+public class PayloadTooLargeException extends RuntimeException {
+
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.it342.basinillo.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.it342.basinillo.exception;
+
+import com.it342.basinillo.dto.ManifestRowError;
+import lombok.Getter;
+
+import java.util.List;
+
+/** An uploaded FX rate file with invalid rows; reported row by row like a manifest. */
+@Getter
+public class RateFileValidationException extends RuntimeException {
+
+    private final List<ManifestRowError> errors;
+
+    public RateFileValidationException(List<ManifestRowError> errors) {
+        super("Rate file has " + errors.size() + " invalid row(s)");
+        this.errors = errors;
+    }
+}
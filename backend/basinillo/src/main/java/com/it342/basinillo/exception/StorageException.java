@@ -0,0 +1,9 @@
+package com.it342.basinillo.exception;
+
+/** The document storage backend (R2 or local disk) failed to read or write an object. */
+public class StorageException extends RuntimeException {
+
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
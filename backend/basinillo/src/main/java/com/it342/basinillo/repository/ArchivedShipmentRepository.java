@@ -0,0 +1,62 @@
+package com.it342.basinillo.repository;
+
+import com.it342.basinillo.entity.ArchivedShipment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedShipmentRepository extends JpaRepository<ArchivedShipment, Long> {
+
+    /** Broker-scoped archive listing, most recently archived first */
+    List<ArchivedShipment> findByUserIdOrderByArchivedAtDesc(Long userId, Pageable pageable);
+
+    /**
+     * Moves one batch of cold shipments (soft-deleted before :deletedBefore, or RELEASED and
+     * untouched since :releasedBefore) with their items and document metadata into the archive
+     * tables, in a single statement. SKIP LOCKED keeps concurrent archivers on disjoint rows.
+     * Returns the number of shipments moved.
+     */
+    @Modifying
+    @Query(value = "WITH picked AS (" +
+                   "  SELECT id FROM shipments " +
+                   "  WHERE deleted_at < :deletedBefore " +
+                   "     OR (deleted_at IS NULL AND status = 'RELEASED' AND updated_at < :releasedBefore) " +
+                   "  ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED), " +
+                   "moved AS (" +
+                   "  INSERT INTO shipments_archive (id, user_id, vessel_name, voyage_number, arrival_date, " +
+                   "    port_of_discharge, client_name, container_numbers, description_of_goods, free_days, " +
+                   "    doomsday_date, status, lane, entry_number, or_number, version, deleted_at, " +
+                   "    created_at, updated_at, archived_at) " +
+                   "  SELECT s.id, s.user_id, s.vessel_name, s.voyage_number, s.arrival_date, " +
+                   "    s.port_of_discharge, s.client_name, s.container_numbers, s.description_of_goods, s.free_days, " +
+                   "    s.doomsday_date, s.status, s.lane, s.entry_number, s.or_number, s.version, s.deleted_at, " +
+                   "    s.created_at, s.updated_at, :now " +
+                   "  FROM shipments s JOIN picked p ON p.id = s.id " +
+                   "  RETURNING id), " +
+                   "moved_items AS (" +
+                   "  INSERT INTO shipment_items_archive (id, shipment_id, description, hs_code, quantity, " +
+                   "    declared_value, currency, php_converted_value, exchange_rate, created_at) " +
+                   "  SELECT i.id, i.shipment_id, i.description, i.hs_code, i.quantity, " +
+                   "    i.declared_value, i.currency, i.php_converted_value, i.exchange_rate, i.created_at " +
+                   "  FROM shipment_items i JOIN picked p ON p.id = i.shipment_id), " +
+                   "moved_documents AS (" +
+                   "  INSERT INTO documents_archive (id, shipment_id, file_name, file_url, storage_key, content_type, " +
+                   "    checksum_sha256, type, size_bytes, uploaded_at) " +
+                   "  SELECT d.id, d.shipment_id, d.file_name, d.file_url, d.storage_key, d.content_type, " +
+                   "    d.checksum_sha256, d.type, d.size_bytes, d.uploaded_at " +
+                   "  FROM documents d JOIN picked p ON p.id = d.shipment_id), " +
+                   "deleted_items AS (DELETE FROM shipment_items WHERE shipment_id IN (SELECT id FROM picked)), " +
+                   "deleted_documents AS (DELETE FROM documents WHERE shipment_id IN (SELECT id FROM picked)) " +
+                   "DELETE FROM shipments WHERE id IN (SELECT id FROM moved)", nativeQuery = true)
+    int archiveBatch(@Param("deletedBefore") LocalDateTime deletedBefore,
+                     @Param("releasedBefore") LocalDateTime releasedBefore,
+                     @Param("batchSize") int batchSize,
+                     @Param("now") LocalDateTime now);
+}
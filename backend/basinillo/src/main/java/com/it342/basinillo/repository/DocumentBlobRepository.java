@@ -0,0 +1,69 @@
+package com.it342.basinillo.repository;
+
+import com.it342.basinillo.entity.DocumentBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DocumentBlobRepository extends JpaRepository<DocumentBlob, Long> {
+
+    Optional<DocumentBlob> findBySha256(String sha256);
+
+    boolean existsByStorageKey(String storageKey);
+
+    /**
+     * Adds a reference to the blob with this checksum, creating it (pointing at
+     * {@code storageKey}) if it does not exist yet. Concurrent callers with the same checksum
+     * serialize on the row; read the winner's key back with {@link #findBySha256}.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO document_blobs (sha256, storage_key, size_bytes, content_type, ref_count, created_at) " +
+                   "VALUES (:sha256, :storageKey, :sizeBytes, :contentType, 1, :now) " +
+                   "ON CONFLICT (sha256) DO UPDATE SET " +
+                   "  ref_count = document_blobs.ref_count + 1, released_at = NULL",
+           nativeQuery = true)
+    int acquire(@Param("sha256") String sha256,
+                @Param("storageKey") String storageKey,
+                @Param("sizeBytes") long sizeBytes,
+                @Param("contentType") String contentType,
+                @Param("now") LocalDateTime now);
+
+    /** Drops one reference; returns 0 if no blob is stored under this checksum and key. */
+    @Modifying
+    @Query(value = "UPDATE document_blobs SET ref_count = ref_count - 1, " +
+                   "  released_at = CASE WHEN ref_count <= 1 THEN CAST(:now AS timestamp) ELSE NULL END " +
+                   "WHERE sha256 = :sha256 AND storage_key = :storageKey AND ref_count > 0",
+           nativeQuery = true)
+    int release(@Param("sha256") String sha256,
+                @Param("storageKey") String storageKey,
+                @Param("now") LocalDateTime now);
+
+    /** Unreferenced since before {@code cutoff}; rows are locked so a concurrent upload cannot revive them mid-collection. */
+    @Query(value = "SELECT * FROM document_blobs " +
+                   "WHERE ref_count <= 0 AND released_at < :cutoff " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<DocumentBlob> lockGarbage(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /** Totals over live blobs: {@code logicalBytes} counts every reference, {@code physicalBytes} each blob once. */
+    @Query(value = "SELECT COUNT(*) AS blobs, COALESCE(SUM(ref_count), 0) AS referenceCount, " +
+                   "  COALESCE(SUM(size_bytes * ref_count), 0) AS logicalBytes, " +
+                   "  COALESCE(SUM(size_bytes), 0) AS physicalBytes " +
+                   "FROM document_blobs WHERE ref_count > 0",
+           nativeQuery = true)
+    DedupTotals dedupTotals();
+
+    interface DedupTotals {
+        long getBlobs();
+        long getReferenceCount();
+        long getLogicalBytes();
+        long getPhysicalBytes();
+    }
+}
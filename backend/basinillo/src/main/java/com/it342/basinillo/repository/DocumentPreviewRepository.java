@@ -0,0 +1,62 @@
+package com.it342.basinillo.repository;
+
+import com.it342.basinillo.entity.DocumentPreview;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DocumentPreviewRepository extends JpaRepository<DocumentPreview, Long> {
+
+    List<DocumentPreview> findByDocumentIdIn(Collection<Long> documentIds);
+
+    /** Same claim protocol as {@link DocumentTextRepository#claimBatch}. */
+    @Query(value = "UPDATE document_previews SET claimed_until = :leaseUntil, attempts = attempts + 1 " +
+                   "WHERE document_id IN (SELECT document_id FROM document_previews " +
+                   "  WHERE status = 'PENDING' AND available_at <= :now " +
+                   "    AND (claimed_until IS NULL OR claimed_until < :now) " +
+                   "  ORDER BY available_at LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING document_id AS documentId, attempts",
+           nativeQuery = true)
+    List<Claim> claimBatch(@Param("now") LocalDateTime now,
+                           @Param("leaseUntil") LocalDateTime leaseUntil,
+                           @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE document_previews SET status = 'READY', thumbnail_key = :thumbnailKey, " +
+                   "  thumbnail_bytes = :thumbnailBytes, preview_key = :previewKey, preview_bytes = :previewBytes, " +
+                   "  generated_at = :now, last_error = NULL, claimed_until = NULL " +
+                   "WHERE document_id = :documentId",
+           nativeQuery = true)
+    int markReady(@Param("documentId") Long documentId,
+                  @Param("thumbnailKey") String thumbnailKey,
+                  @Param("thumbnailBytes") long thumbnailBytes,
+                  @Param("previewKey") String previewKey,
+                  @Param("previewBytes") long previewBytes,
+                  @Param("now") LocalDateTime now);
+
+    /** UNSUPPORTED or FAILED for good, or back to PENDING after {@code retryAt}. */
+    @Modifying
+    @Query(value = "UPDATE document_previews SET status = :status, last_error = :error, available_at = :retryAt, " +
+                   "  claimed_until = NULL " +
+                   "WHERE document_id = :documentId",
+           nativeQuery = true)
+    int markNotReady(@Param("documentId") Long documentId,
+                     @Param("status") String status,
+                     @Param("error") String error,
+                     @Param("retryAt") LocalDateTime retryAt);
+
+    @Query(value = "SELECT COUNT(*) FROM document_previews WHERE status = 'PENDING'", nativeQuery = true)
+    long countPending();
+
+    interface Claim {
+        Long getDocumentId();
+        int getAttempts();
+    }
+}
@@ -1,13 +1,35 @@
 package com.it342.basinillo.repository;
 
 import com.it342.basinillo.entity.Document;
+import com.it342.basinillo.enums.DocumentType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
 
     List<Document> findByShipmentId(Long shipmentId);
+
+    Optional<Document> findByIdAndShipmentId(Long id, Long shipmentId);
+
+    Optional<Document> findFirstByShipmentIdAndStorageKeyAndFileName(Long shipmentId, String storageKey, String fileName);
+
+    boolean existsByChecksumSha256AndShipmentUserId(String checksumSha256, Long userId);
+
+    /** Documents per shipment and type, for the given shipments; combinations with none are absent. */
+    @Query("SELECT d.shipment.id AS shipmentId, d.type AS type, COUNT(d) AS total FROM Document d " +
+           "WHERE d.shipment.id IN :shipmentIds GROUP BY d.shipment.id, d.type")
+    List<TypeCount> countByShipmentIdInGroupByType(@Param("shipmentIds") Collection<Long> shipmentIds);
+
+    interface TypeCount {
+        Long getShipmentId();
+        DocumentType getType();
+        long getTotal();
+    }
 }
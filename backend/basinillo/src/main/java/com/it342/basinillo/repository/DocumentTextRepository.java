@@ -0,0 +1,92 @@
+package com.it342.basinillo.repository;
+
+import com.it342.basinillo.entity.DocumentText;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DocumentTextRepository extends JpaRepository<DocumentText, Long> {
+
+    /**
+     * Claims up to {@code limit} due documents, oldest first. SKIP LOCKED lets several instances
+     * take disjoint sets; the lease hands a document to another worker if this one dies.
+     */
+    @Query(value = "UPDATE document_texts SET claimed_until = :leaseUntil, attempts = attempts + 1 " +
+                   "WHERE document_id IN (SELECT document_id FROM document_texts " +
+                   "  WHERE status = 'PENDING' AND available_at <= :now " +
+                   "    AND (claimed_until IS NULL OR claimed_until < :now) " +
+                   "  ORDER BY available_at LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING document_id AS documentId, attempts",
+           nativeQuery = true)
+    List<Claim> claimBatch(@Param("now") LocalDateTime now,
+                           @Param("leaseUntil") LocalDateTime leaseUntil,
+                           @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE document_texts SET status = :status, content = :content, extracted_at = :now, " +
+                   "  last_error = NULL, claimed_until = NULL " +
+                   "WHERE document_id = :documentId",
+           nativeQuery = true)
+    int markDone(@Param("documentId") Long documentId,
+                 @Param("status") String status,
+                 @Param("content") String content,
+                 @Param("now") LocalDateTime now);
+
+    /** Back to PENDING after {@code retryAt}, or FAILED for good when {@code status} says so. */
+    @Modifying
+    @Query(value = "UPDATE document_texts SET status = :status, last_error = :error, available_at = :retryAt, " +
+                   "  claimed_until = NULL " +
+                   "WHERE document_id = :documentId",
+           nativeQuery = true)
+    int markFailed(@Param("documentId") Long documentId,
+                   @Param("status") String status,
+                   @Param("error") String error,
+                   @Param("retryAt") LocalDateTime retryAt);
+
+    @Query(value = "SELECT COUNT(*) FROM document_texts WHERE status = 'PENDING'", nativeQuery = true)
+    long countPending();
+
+    /**
+     * Best matches among the user's live shipments, ranked by {@code ts_rank}. Snippets are
+     * built only for the rows returned, since {@code ts_headline} re-parses the whole text.
+     */
+    @Query(value = "SELECT h.document_id AS documentId, d.shipment_id AS shipmentId, d.file_name AS fileName, " +
+                   "  d.type AS type, d.uploaded_at AS uploadedAt, h.rank AS rank, " +
+                   "  ts_headline('english', t.content, websearch_to_tsquery('english', :query), " +
+                   "    'MaxFragments=2, MaxWords=20, MinWords=5, FragmentDelimiter=\" … \"') AS snippet " +
+                   "FROM (SELECT t.document_id, ts_rank(t.search_vector, q) AS rank " +
+                   "      FROM document_texts t " +
+                   "      JOIN documents d ON d.id = t.document_id " +
+                   "      JOIN shipments s ON s.id = d.shipment_id, " +
+                   "      websearch_to_tsquery('english', :query) q " +
+                   "      WHERE t.search_vector @@ q AND s.user_id = :userId AND s.deleted_at IS NULL " +
+                   "      ORDER BY rank DESC, t.document_id DESC LIMIT :limit) h " +
+                   "JOIN document_texts t ON t.document_id = h.document_id " +
+                   "JOIN documents d ON d.id = h.document_id " +
+                   "ORDER BY h.rank DESC, h.document_id DESC",
+           nativeQuery = true)
+    List<SearchHit> search(@Param("userId") Long userId,
+                           @Param("query") String query,
+                           @Param("limit") int limit);
+
+    interface Claim {
+        Long getDocumentId();
+        int getAttempts();
+    }
+
+    interface SearchHit {
+        Long getDocumentId();
+        Long getShipmentId();
+        String getFileName();
+        String getType();
+        LocalDateTime getUploadedAt();
+        double getRank();
+        String getSnippet();
+    }
+}
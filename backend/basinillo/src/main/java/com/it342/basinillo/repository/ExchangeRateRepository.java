@@ -0,0 +1,41 @@
+package com.it342.basinillo.repository;
+
+import com.it342.basinillo.entity.ExchangeRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Repository
+public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, Long> {
+
+    /** Admin uploads: a new rate for an existing (currency, date) replaces the old one */
+    @Modifying
+    @Query(value = "INSERT INTO exchange_rates (currency, effective_date, php_per_unit, source, created_at) " +
+                   "VALUES (:currency, :effectiveDate, :phpPerUnit, :source, :now) " +
+                   "ON CONFLICT (currency, effective_date) DO UPDATE " +
+                   "SET php_per_unit = EXCLUDED.php_per_unit, source = EXCLUDED.source",
+           nativeQuery = true)
+    int upsert(@Param("currency") String currency,
+               @Param("effectiveDate") LocalDate effectiveDate,
+               @Param("phpPerUnit") BigDecimal phpPerUnit,
+               @Param("source") String source,
+               @Param("now") LocalDateTime now);
+
+    /** Startup file load: never overwrites rates already in the table (e.g. admin corrections) */
+    @Modifying
+    @Query(value = "INSERT INTO exchange_rates (currency, effective_date, php_per_unit, source, created_at) " +
+                   "VALUES (:currency, :effectiveDate, :phpPerUnit, :source, :now) " +
+                   "ON CONFLICT (currency, effective_date) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("currency") String currency,
+                       @Param("effectiveDate") LocalDate effectiveDate,
+                       @Param("phpPerUnit") BigDecimal phpPerUnit,
+                       @Param("source") String source,
+                       @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,77 @@
+package com.it342.basinillo.repository;
+
+import com.it342.basinillo.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    /**
+     * Takes the in-flight lock on a key in one statement: inserts a new key, or reclaims one
+     * that has expired or whose previous holder died mid-request (lock lapsed, never completed).
+     * Returns 1 if the caller now owns the key, 0 if someone else does or it already completed.
+     * {@code lockToken} identifies this holder: a later holder that reclaims the key replaces it.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (user_id, idempotency_key, request_hash, lock_token, locked_until, " +
+                   "  created_at, expires_at) " +
+                   "VALUES (:userId, :key, :requestHash, :lockToken, :lockedUntil, :now, :expiresAt) " +
+                   "ON CONFLICT (user_id, idempotency_key) DO UPDATE SET " +
+                   "  request_hash = EXCLUDED.request_hash, lock_token = EXCLUDED.lock_token, " +
+                   "  locked_until = EXCLUDED.locked_until, " +
+                   "  response_status = NULL, response_body = NULL, completed_at = NULL, " +
+                   "  created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at " +
+                   "WHERE idempotency_keys.expires_at < :now " +
+                   "   OR (idempotency_keys.completed_at IS NULL AND idempotency_keys.locked_until < :now)",
+           nativeQuery = true)
+    int tryLock(@Param("userId") Long userId,
+                @Param("key") String key,
+                @Param("requestHash") String requestHash,
+                @Param("lockToken") String lockToken,
+                @Param("lockedUntil") LocalDateTime lockedUntil,
+                @Param("now") LocalDateTime now,
+                @Param("expiresAt") LocalDateTime expiresAt);
+
+    /** Pushes the lock of a key still held by {@code lockToken} forward; 0 if the lock was lost */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.lockedUntil = :lockedUntil " +
+           "WHERE r.userId = :userId AND r.idempotencyKey = :key AND r.lockToken = :lockToken " +
+           "AND r.completedAt IS NULL")
+    int renew(@Param("userId") Long userId,
+              @Param("key") String key,
+              @Param("lockToken") String lockToken,
+              @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /** Stores the response if {@code lockToken} still holds the key; 0 if another request reclaimed it */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.responseStatus = :status, r.responseBody = :body, " +
+           "r.completedAt = :now, r.lockedUntil = NULL, r.lockToken = NULL " +
+           "WHERE r.userId = :userId AND r.idempotencyKey = :key AND r.lockToken = :lockToken " +
+           "AND r.completedAt IS NULL")
+    int complete(@Param("userId") Long userId,
+                 @Param("key") String key,
+                 @Param("lockToken") String lockToken,
+                 @Param("status") int status,
+                 @Param("body") String body,
+                 @Param("now") LocalDateTime now);
+
+    /** Drops an in-flight key whose request failed, so the client can retry it */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r " +
+           "WHERE r.userId = :userId AND r.idempotencyKey = :key AND r.lockToken = :lockToken " +
+           "AND r.completedAt IS NULL")
+    int release(@Param("userId") Long userId, @Param("key") String key, @Param("lockToken") String lockToken);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,80 @@
+package com.it342.basinillo.repository;
+
+import com.it342.basinillo.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Claims up to {@code batchSize} due events of the given types in a single statement.
+     * SKIP LOCKED lets concurrent relays take disjoint batches; the lease lets another
+     * instance reclaim the rows if this one dies before acknowledging them.
+     */
+    @Query(value = "UPDATE outbox_events SET claimed_by = :instance, claimed_until = :leaseUntil, " +
+                   "attempts = attempts + 1 " +
+                   "WHERE id IN (SELECT id FROM outbox_events " +
+                   "  WHERE processed_at IS NULL AND available_at <= :now AND event_type IN (:types) " +
+                   "    AND (claimed_until IS NULL OR claimed_until < :now) " +
+                   "  ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING *", nativeQuery = true)
+    List<OutboxEvent> claimBatch(@Param("instance") String instance,
+                                 @Param("now") LocalDateTime now,
+                                 @Param("leaseUntil") LocalDateTime leaseUntil,
+                                 @Param("batchSize") int batchSize,
+                                 @Param("types") Collection<String> types);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.processedAt = :now, e.claimedBy = NULL, e.claimedUntil = NULL " +
+           "WHERE e.id IN :ids AND e.claimedBy = :instance")
+    int markProcessed(@Param("ids") Collection<Long> ids,
+                      @Param("instance") String instance,
+                      @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.lastError = :error, e.availableAt = :retryAt, " +
+           "e.claimedBy = NULL, e.claimedUntil = NULL " +
+           "WHERE e.id = :id AND e.claimedBy = :instance")
+    int markFailed(@Param("id") Long id,
+                   @Param("instance") String instance,
+                   @Param("error") String error,
+                   @Param("retryAt") LocalDateTime retryAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.lastError = :error, e.processedAt = :now, " +
+           "e.claimedBy = NULL, e.claimedUntil = NULL " +
+           "WHERE e.id = :id AND e.claimedBy = :instance")
+    int markAbandoned(@Param("id") Long id,
+                      @Param("instance") String instance,
+                      @Param("error") String error,
+                      @Param("now") LocalDateTime now);
+
+    /** Creation time of the oldest undispatched event of the given types (relay lag). */
+    @Query(value = "SELECT created_at FROM outbox_events WHERE processed_at IS NULL AND event_type IN (:types) " +
+                   "ORDER BY id LIMIT 1", nativeQuery = true)
+    Optional<LocalDateTime> findOldestPendingCreatedAt(@Param("types") Collection<String> types);
+
+    /** Number of undispatched events of the given types (the backlog of types no handler supports). */
+    @Query(value = "SELECT COUNT(*) FROM outbox_events WHERE processed_at IS NULL AND event_type IN (:types)",
+           nativeQuery = true)
+    long countPending(@Param("types") Collection<String> types);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /** Deletes undispatched events of the given types created before {@code cutoff}. */
+    @Modifying
+    @Query(value = "DELETE FROM outbox_events WHERE processed_at IS NULL AND event_type IN (:types) " +
+                   "AND created_at < :cutoff", nativeQuery = true)
+    int deletePendingBefore(@Param("types") Collection<String> types, @Param("cutoff") LocalDateTime cutoff);
+}
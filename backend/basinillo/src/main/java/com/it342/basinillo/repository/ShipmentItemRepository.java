@@ -1,7 +1,10 @@
 package com.it342.basinillo.repository;
 
 import com.it342.basinillo.entity.ShipmentItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +13,10 @@ import java.util.List;
 public interface ShipmentItemRepository extends JpaRepository<ShipmentItem, Long> {
 
     List<ShipmentItem> findByShipmentId(Long shipmentId);
+
+    /** FX backfill: next page (keyset on id) of items with a value and currency but no conversion yet */
+    @Query("SELECT i FROM ShipmentItem i JOIN FETCH i.shipment " +
+           "WHERE i.exchangeRate IS NULL AND i.declaredValue IS NOT NULL AND i.currency IS NOT NULL " +
+           "AND i.id > :afterId ORDER BY i.id")
+    List<ShipmentItem> findUnconvertedAfter(@Param("afterId") long afterId, Pageable pageable);
 }
@@ -3,27 +3,42 @@ package com.it342.basinillo.repository;
 import com.it342.basinillo.entity.Shipment;
 import com.it342.basinillo.enums.ShipmentLane;
 import com.it342.basinillo.enums.ShipmentStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
 
+    // List reads fetch items in the same query: ShipmentResponse maps every item, and a lazy
+    // load per shipment grows the statement count with the list (see SqlStatementCountTests).
+
     /** Broker-scoped: find all non-deleted shipments for a specific user */
+    @EntityGraph(attributePaths = "items")
     List<Shipment> findByUserIdAndDeletedAtIsNullOrderByDoomsdayDateAsc(Long userId);
 
     /** Admin-scoped: find all non-deleted shipments globally */
+    @EntityGraph(attributePaths = "items")
     List<Shipment> findByDeletedAtIsNullOrderByDoomsdayDateAsc();
 
+    /** Shipments with their items, e.g. to re-convert item values after a bulk arrival-date change */
+    @EntityGraph(attributePaths = "items")
+    List<Shipment> findByIdIn(Collection<Long> ids);
+
     /** Single shipment by ID, only if not soft-deleted */
     Optional<Shipment> findByIdAndDeletedAtIsNull(Long id);
 
     /** Search by vessel name OR client name, broker-scoped */
+    @EntityGraph(attributePaths = "items")
     @Query("SELECT s FROM Shipment s WHERE s.user.id = :userId AND s.deletedAt IS NULL " +
            "AND (LOWER(s.vesselName) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
            "  OR LOWER(s.clientName) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
@@ -32,9 +47,11 @@ public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
     List<Shipment> searchByKeyword(@Param("userId") Long userId, @Param("keyword") String keyword);
 
     /** Filter by status, broker-scoped */
+    @EntityGraph(attributePaths = "items")
     List<Shipment> findByUserIdAndStatusAndDeletedAtIsNullOrderByDoomsdayDateAsc(Long userId, ShipmentStatus status);
 
     /** Filter by lane, broker-scoped */
+    @EntityGraph(attributePaths = "items")
     List<Shipment> findByUserIdAndLaneAndDeletedAtIsNullOrderByDoomsdayDateAsc(Long userId, ShipmentLane lane);
 
     /** Counting helpers for analysis */
@@ -46,4 +63,121 @@ public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
     long countByDeletedAtIsNull();
 
     long countByStatusAndDeletedAtIsNull(ShipmentStatus status);
+
+    /**
+     * Single-statement status transition: moves the shipment only if it is still owned by :userId,
+     * live, in :fromStatus and (when :version is given) at that version. Empty when any check fails.
+     */
+    @Query(value = "UPDATE shipments SET status = :toStatus, version = version + 1, updated_at = :now " +
+                   "WHERE id = :id AND user_id = :userId AND deleted_at IS NULL AND status = :fromStatus " +
+                   "  AND (CAST(:version AS bigint) IS NULL OR version = CAST(:version AS bigint)) " +
+                   "RETURNING *", nativeQuery = true)
+    Optional<Shipment> transitionStatus(@Param("id") Long id,
+                                        @Param("userId") Long userId,
+                                        @Param("fromStatus") String fromStatus,
+                                        @Param("toStatus") String toStatus,
+                                        @Param("version") Long version,
+                                        @Param("now") LocalDateTime now);
+
+    // ── Set-based writes ─────────────────────────────────────
+    // All of them bump version so concurrent If-Match updates see the change.
+    // Each statement updates rows in a CTE named "changed" (RETURNING id, user_id, status, lane)
+    // and writes one outbox row per changed shipment in the same statement.
+
+    String OUTBOX_INSERT_HEAD =
+            "INSERT INTO outbox_events (id, aggregate_type, aggregate_id, event_type, payload, " +
+            "  attempts, available_at, created_at) " +
+            "SELECT nextval('outbox_events_seq'), 'Shipment', id, ";
+
+    String OUTBOX_INSERT_TAIL =
+            ", json_build_object('shipmentId', id, 'userId', user_id, 'status', status, 'lane', lane)::text, " +
+            "  0, :now, :now FROM changed";
+
+    String CHANGED_RETURNING = " RETURNING id, user_id, status, lane) ";
+
+    /**
+     * Lane escalation: raises every matching live shipment to :targetLane.
+     * Returns the number of shipments escalated.
+     */
+    @Modifying
+    @Query(value = "WITH changed AS (" +
+                   "  UPDATE shipments SET lane = :targetLane, version = version + 1, updated_at = :now " +
+                   "  WHERE deleted_at IS NULL AND status <> 'RELEASED' AND doomsday_date <= :cutoff " +
+                   "    AND status IN (:statuses) AND lane IN (:fromLanes)" +
+                   CHANGED_RETURNING +
+                   OUTBOX_INSERT_HEAD + "'SHIPMENT_LANE_ESCALATED'" + OUTBOX_INSERT_TAIL, nativeQuery = true)
+    int escalateLanes(@Param("targetLane") String targetLane,
+                      @Param("fromLanes") Collection<String> fromLanes,
+                      @Param("statuses") Collection<String> statuses,
+                      @Param("cutoff") LocalDate cutoff,
+                      @Param("now") LocalDateTime now);
+
+    /** Bulk status transition by id list, owner-scoped. Returns the ids that moved. */
+    @Query(value = "WITH changed AS (" +
+                   "  UPDATE shipments SET status = :toStatus, version = version + 1, updated_at = :now " +
+                   "  WHERE id IN (:ids) AND user_id = :userId AND deleted_at IS NULL AND status = :fromStatus" +
+                   CHANGED_RETURNING +
+                   ", events AS (" + OUTBOX_INSERT_HEAD + "'SHIPMENT_STATUS_CHANGED'" + OUTBOX_INSERT_TAIL + ") " +
+                   "SELECT id FROM changed", nativeQuery = true)
+    List<Long> advanceStatusByIds(@Param("ids") Collection<Long> ids,
+                                  @Param("userId") Long userId,
+                                  @Param("fromStatus") String fromStatus,
+                                  @Param("toStatus") String toStatus,
+                                  @Param("now") LocalDateTime now);
+
+    /** Bulk status transition for a whole vessel (optionally one voyage), owner-scoped. */
+    @Query(value = "WITH changed AS (" +
+                   "  UPDATE shipments SET status = :toStatus, version = version + 1, updated_at = :now " +
+                   "  WHERE user_id = :userId AND deleted_at IS NULL AND status = :fromStatus " +
+                   "    AND vessel_name = :vesselName " +
+                   "    AND (CAST(:voyageNumber AS text) IS NULL OR voyage_number = CAST(:voyageNumber AS text))" +
+                   CHANGED_RETURNING +
+                   ", events AS (" + OUTBOX_INSERT_HEAD + "'SHIPMENT_STATUS_CHANGED'" + OUTBOX_INSERT_TAIL + ") " +
+                   "SELECT id FROM changed", nativeQuery = true)
+    List<Long> advanceStatusByVessel(@Param("userId") Long userId,
+                                     @Param("vesselName") String vesselName,
+                                     @Param("voyageNumber") String voyageNumber,
+                                     @Param("fromStatus") String fromStatus,
+                                     @Param("toStatus") String toStatus,
+                                     @Param("now") LocalDateTime now);
+
+    String BULK_UPDATE_SET =
+            "  UPDATE shipments SET " +
+            "    arrival_date = COALESCE(CAST(:arrivalDate AS date), arrival_date), " +
+            "    port_of_discharge = COALESCE(CAST(:portOfDischarge AS text), port_of_discharge), " +
+            "    free_days = COALESCE(CAST(:freeDays AS integer), free_days), " +
+            "    doomsday_date = COALESCE(CAST(:arrivalDate AS date), arrival_date) " +
+            "                    + COALESCE(CAST(:freeDays AS integer), free_days), " +
+            "    lane = COALESCE(CAST(:lane AS text), lane), " +
+            "    version = version + 1, updated_at = :now ";
+
+    /** Bulk field update by id list, owner-scoped. Null parameters leave the column unchanged. */
+    @Query(value = "WITH changed AS (" + BULK_UPDATE_SET +
+                   "  WHERE id IN (:ids) AND user_id = :userId AND deleted_at IS NULL" +
+                   CHANGED_RETURNING +
+                   ", events AS (" + OUTBOX_INSERT_HEAD + "'SHIPMENT_UPDATED'" + OUTBOX_INSERT_TAIL + ") " +
+                   "SELECT id FROM changed", nativeQuery = true)
+    List<Long> bulkUpdateByIds(@Param("ids") Collection<Long> ids,
+                               @Param("userId") Long userId,
+                               @Param("arrivalDate") LocalDate arrivalDate,
+                               @Param("portOfDischarge") String portOfDischarge,
+                               @Param("freeDays") Integer freeDays,
+                               @Param("lane") String lane,
+                               @Param("now") LocalDateTime now);
+
+    /** Bulk field update for a whole vessel (optionally one voyage), owner-scoped. */
+    @Query(value = "WITH changed AS (" + BULK_UPDATE_SET +
+                   "  WHERE user_id = :userId AND deleted_at IS NULL AND vessel_name = :vesselName " +
+                   "    AND (CAST(:voyageNumber AS text) IS NULL OR voyage_number = CAST(:voyageNumber AS text))" +
+                   CHANGED_RETURNING +
+                   ", events AS (" + OUTBOX_INSERT_HEAD + "'SHIPMENT_UPDATED'" + OUTBOX_INSERT_TAIL + ") " +
+                   "SELECT id FROM changed", nativeQuery = true)
+    List<Long> bulkUpdateByVessel(@Param("userId") Long userId,
+                                  @Param("vesselName") String vesselName,
+                                  @Param("voyageNumber") String voyageNumber,
+                                  @Param("arrivalDate") LocalDate arrivalDate,
+                                  @Param("portOfDischarge") String portOfDischarge,
+                                  @Param("freeDays") Integer freeDays,
+                                  @Param("lane") String lane,
+                                  @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,207 @@
+package com.it342.basinillo.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.it342.basinillo.config.BulkheadProperties;
+import com.it342.basinillo.dto.ApiResponse;
+import com.it342.basinillo.enums.EndpointClass;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control in front of the (small) connection pool. Each {@link EndpointClass} has its
+ * own bulkhead: a fixed number of concurrent requests and a short, bounded wait queue. A request
+ * that finds both full is answered 503 with Retry-After at once, so an export or a search burst
+ * only exhausts its own share. Connections are capped separately, at checkout: requests outside
+ * AUTH never get the pool's last {@code bulkhead.reserved-connections}, so logins keep getting through.
+ * <p>
+ * Runs inside the security chain after CORS (rejections stay readable by the browser) but before
+ * the JWT filter, whose user lookup already needs a connection. Async requests (uploads) hold
+ * their slot until the async work completes.
+ */
+@Component
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final ThreadLocal<EndpointClass> CURRENT = new ThreadLocal<>();
+
+    private final BulkheadProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Map<EndpointClass, Bulkhead> bulkheads = new EnumMap<>(EndpointClass.class);
+
+    public BulkheadFilter(BulkheadProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            bulkheads.put(endpointClass, new Bulkhead(endpointClass, properties.limitFor(endpointClass), meterRegistry));
+        }
+    }
+
+    /** Bulkhead of the request the calling thread is serving, or null outside one (background work). */
+    public static EndpointClass current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        EndpointClass endpointClass = properties.isEnabled() ? classify(request) : null;
+        if (endpointClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Bulkhead bulkhead = bulkheads.get(endpointClass);
+        if (!bulkhead.tryEnter()) {
+            reject(endpointClass, response);
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.leave();
+            }
+        };
+        CURRENT.set(endpointClass);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            CURRENT.remove();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    /** Null for requests outside the API (health checks, actuator, error pages) and CORS preflights. */
+    private static EndpointClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        if (!path.startsWith("/api/") || "OPTIONS".equals(method)) {
+            return null;
+        }
+        if (path.startsWith("/api/v1/auth/")) {
+            return EndpointClass.AUTH;
+        }
+        if (path.startsWith("/api/v1/admin/")) {
+            return EndpointClass.ADMIN;
+        }
+        if (path.endsWith("/bundle")) {
+            return EndpointClass.EXPORT;
+        }
+        return "GET".equals(method) || "HEAD".equals(method) ? EndpointClass.READ : EndpointClass.WRITE;
+    }
+
+    private void reject(EndpointClass endpointClass, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(properties.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("SYSTEM-002", "Server busy",
+                "Too many concurrent " + endpointClass.name().toLowerCase(Locale.ROOT) + " requests; retry shortly"));
+    }
+
+    private static final class Bulkhead {
+
+        private final BulkheadProperties.Limit limit;
+        private final Semaphore permits;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final Timer waitTimer;
+        private final Counter rejected;
+
+        private Bulkhead(EndpointClass endpointClass, BulkheadProperties.Limit limit, MeterRegistry meterRegistry) {
+            this.limit = limit;
+            this.permits = new Semaphore(limit.getMaxConcurrent(), true);
+            String tag = endpointClass.name().toLowerCase(Locale.ROOT);
+            this.waitTimer = Timer.builder("http.bulkhead.wait")
+                    .tag("bulkhead", tag).register(meterRegistry);
+            this.rejected = Counter.builder("http.bulkhead.rejected")
+                    .tag("bulkhead", tag).register(meterRegistry);
+            Gauge.builder("http.bulkhead.active", permits, p -> limit.getMaxConcurrent() - p.availablePermits())
+                    .tag("bulkhead", tag).register(meterRegistry);
+            Gauge.builder("http.bulkhead.queued", queued, AtomicInteger::get)
+                    .tag("bulkhead", tag).register(meterRegistry);
+        }
+
+        private boolean tryEnter() {
+            if (permits.tryAcquire()) {
+                waitTimer.record(0, TimeUnit.NANOSECONDS);
+                return true;
+            }
+            if (queued.incrementAndGet() > limit.getMaxQueued()) {
+                queued.decrementAndGet();
+                rejected.increment();
+                return false;
+            }
+            long start = System.nanoTime();
+            try {
+                if (permits.tryAcquire(limit.getMaxWaitMs(), TimeUnit.MILLISECONDS)) {
+                    waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                queued.decrementAndGet();
+            }
+            rejected.increment();
+            return false;
+        }
+
+        private void leave() {
+            permits.release();
+        }
+    }
+
+    private record ReleaseOnComplete(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
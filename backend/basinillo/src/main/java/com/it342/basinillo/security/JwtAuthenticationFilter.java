@@ -1,5 +1,7 @@
 package com.it342.basinillo.security;
 
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,10 +16,16 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * Intercepts every request, extracts the JWT from the Authorization header,
  * validates it, and sets the SecurityContext so downstream @PreAuthorize works.
+ * Token parsing and the user lookup are traced as {@code jwt.authenticate}; the rest of the
+ * chain is not part of that span.
+ * <p>
+ * HS code autocomplete fires on every keystroke and serves the same schedule to everyone, so it
+ * is authenticated from the verified token alone, without loading the user.
  */
 @Component
 @RequiredArgsConstructor
@@ -25,8 +33,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final Tracer tracer;
 
     private static final String BEARER_PREFIX = "Bearer ";
+    private static final String TOKEN_ONLY_PATH = "/api/v1/tariff/hs-codes";
 
     @Override
     protected void doFilterInternal(
@@ -43,19 +53,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String token = authHeader.substring(BEARER_PREFIX.length());
+        Span span = tracer.nextSpan().name("jwt.authenticate").start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            authenticate(token, request);
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(String token, HttpServletRequest request) {
         String email = jwtService.extractEmail(token);
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (email == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+            return;
+        }
+        UsernamePasswordAuthenticationToken authToken;
+        if (isTokenOnly(request)) {
+            // parsing the subject already checked the signature and expiry
+            authToken = new UsernamePasswordAuthenticationToken(email, null, List.of());
+        } else {
             UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-
-            if (jwtService.isTokenValid(token, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+            if (!jwtService.isTokenValid(token, userDetails)) {
+                return;
             }
+            authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
         }
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 
-        filterChain.doFilter(request, response);
+    private static boolean isTokenOnly(HttpServletRequest request) {
+        return TOKEN_ONLY_PATH.equals(request.getRequestURI().substring(request.getContextPath().length()));
     }
 }
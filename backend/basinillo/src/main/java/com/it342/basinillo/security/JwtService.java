@@ -4,6 +4,8 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -29,6 +31,13 @@ public class JwtService {
     @Value("${jwt.refresh-token-expiration-ms}")
     private long refreshTokenExpirationMs;
 
+    /** Signature check + claims parse, once per authenticated request */
+    private final Timer verifyTimer;
+
+    public JwtService(MeterRegistry meterRegistry) {
+        this.verifyTimer = Timer.builder("auth.jwt.verify").register(meterRegistry);
+    }
+
     // ── Token generation ─────────────────────────────────────
 
     public String generateAccessToken(UserDetails userDetails) {
@@ -52,25 +61,24 @@ public class JwtService {
     // ── Token validation ─────────────────────────────────────
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        String email = extractEmail(token);
-        return email.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        Claims claims = parseClaims(token);
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 
     public String extractEmail(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
+    private <T> T extractClaim(String token, Function<Claims, T> resolver) {
+        return resolver.apply(parseClaims(token));
     }
 
-    private <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        Claims claims = Jwts.parser()
+    private Claims parseClaims(String token) {
+        return verifyTimer.record(() -> Jwts.parser()
                 .verifyWith(getSigningKey())
                 .build()
                 .parseSignedClaims(token)
-                .getPayload();
-        return resolver.apply(claims);
+                .getPayload());
     }
 
     // ── Key ──────────────────────────────────────────────────
@@ -1,5 +1,8 @@
 package com.it342.basinillo.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -21,6 +24,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.filter.CorsFilter;
 
 import java.util.Arrays;
 import java.util.List;
@@ -31,6 +35,7 @@ import java.util.List;
  * - Public routes: /api/v1/auth/**
  * - Protected routes: everything else
  * - CORS: only allowed origins from config
+ * - Per-endpoint-class bulkheads right after CORS, before any DB work
  * - BCrypt password encoder with cost factor 12
  */
 @Configuration
@@ -40,6 +45,8 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final BulkheadFilter bulkheadFilter;
+    private final MeterRegistry meterRegistry;
     private final CustomUserDetailsService userDetailsService;
 
     @Value("${cors.allowed-origins}")
@@ -52,12 +59,17 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // async uploads re-dispatch to write the response; the original request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/v1/auth/**").permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider())
+                .addFilterAfter(bulkheadFilter, CorsFilter.class)
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
@@ -68,7 +80,8 @@ public class SecurityConfig {
         CorsConfiguration config = new CorsConfiguration();
         config.setAllowedOrigins(Arrays.asList(allowedOrigins.split(",")));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        config.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+        config.setAllowedHeaders(List.of("Authorization", "Content-Type", "If-Match", "If-None-Match", "If-Range", "Range", "Idempotency-Key"));
+        config.setExposedHeaders(List.of("ETag", "Idempotent-Replayed", "Accept-Ranges", "Content-Range", "Content-Disposition"));
         config.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -89,8 +102,27 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    /** BCrypt cost 12, with every hash and check timed as {@code auth.bcrypt} (operation=encode|matches). */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(12);
+        Timer encodeTimer = Timer.builder("auth.bcrypt").tag("operation", "encode").register(meterRegistry);
+        Timer matchesTimer = Timer.builder("auth.bcrypt").tag("operation", "matches").register(meterRegistry);
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return encodeTimer.record(() -> bcrypt.encode(rawPassword));
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return Boolean.TRUE.equals(matchesTimer.record(() -> bcrypt.matches(rawPassword, encodedPassword)));
+            }
+
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                return bcrypt.upgradeEncoding(encodedPassword);
+            }
+        };
     }
 }
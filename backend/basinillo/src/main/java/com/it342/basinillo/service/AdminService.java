@@ -1,5 +1,6 @@
 package com.it342.basinillo.service;
 
+import com.it342.basinillo.config.ReplicaRead;
 import com.it342.basinillo.dto.ShipmentResponse;
 import com.it342.basinillo.dto.UserDto;
 import com.it342.basinillo.entity.User;
@@ -8,6 +9,7 @@ import com.it342.basinillo.repository.ShipmentRepository;
 import com.it342.basinillo.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -22,6 +24,8 @@ public class AdminService {
     private final ShipmentRepository shipmentRepository;
     private final UserRepository userRepository;
 
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public List<ShipmentResponse> getAllShipments() {
         return shipmentRepository.findByDeletedAtIsNullOrderByDoomsdayDateAsc()
                 .stream()
@@ -29,6 +33,8 @@ public class AdminService {
                 .toList();
     }
 
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public List<UserDto> getAllUsers() {
         return userRepository.findAll()
                 .stream()
@@ -36,6 +42,8 @@ public class AdminService {
                 .toList();
     }
 
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public UserDto getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + id));
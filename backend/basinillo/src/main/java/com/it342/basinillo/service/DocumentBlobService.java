@@ -0,0 +1,231 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.config.StorageProperties;
+import com.it342.basinillo.dto.BlobGcResult;
+import com.it342.basinillo.dto.DedupStatsResponse;
+import com.it342.basinillo.entity.DocumentBlob;
+import com.it342.basinillo.entity.User;
+import com.it342.basinillo.repository.DocumentBlobRepository;
+import com.it342.basinillo.repository.DocumentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Content-addressed document bodies. Documents with the same SHA-256 share one stored object
+ * tracked by a {@link DocumentBlob} row; the row's reference count moves in the same
+ * transaction as the document rows, and objects are only deleted from storage after commit
+ * (for a duplicate upload) or by the collector once a blob has been unreferenced for
+ * {@code storage.gc.grace-hours}.
+ */
+@Slf4j
+@Service
+public class DocumentBlobService {
+
+    private final DocumentBlobRepository blobRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentStorage storage;
+    private final StorageProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter dedupHits;
+    private final Counter bytesAvoided;
+    private final AtomicReference<DedupStatsResponse> lastStats = new AtomicReference<>();
+
+    public DocumentBlobService(DocumentBlobRepository blobRepository,
+                               DocumentRepository documentRepository,
+                               DocumentStorage storage,
+                               StorageProperties properties,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.blobRepository = blobRepository;
+        this.documentRepository = documentRepository;
+        this.storage = storage;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dedupHits = Counter.builder("storage.dedup.hits")
+                .description("Uploads that matched an existing blob").register(meterRegistry);
+        this.bytesAvoided = Counter.builder("storage.dedup.bytes.avoided")
+                .baseUnit("bytes").description("Bytes not stored thanks to deduplication").register(meterRegistry);
+        Gauge.builder("storage.dedup.ratio", lastStats, s -> s.get() == null ? Double.NaN : s.get().getDedupRatio())
+                .register(meterRegistry);
+        Gauge.builder("storage.dedup.bytes.saved", lastStats, s -> s.get() == null ? Double.NaN : s.get().getBytesSaved())
+                .baseUnit("bytes").register(meterRegistry);
+    }
+
+    // ── References ───────────────────────────────────────────
+
+    /**
+     * Records one more document referencing content with this checksum, just stored under
+     * {@code storageKey}, and returns the key the document must point at. If the content was
+     * already stored elsewhere that existing key is returned and the new copy is deleted once
+     * the caller's transaction commits.
+     */
+    @Transactional
+    public String acquire(String sha256, String storageKey, long sizeBytes, String contentType) {
+        blobRepository.acquire(sha256, storageKey, sizeBytes, contentType, LocalDateTime.now());
+        String canonicalKey = blobRepository.findBySha256(sha256)
+                .map(DocumentBlob::getStorageKey)
+                .orElseThrow(() -> new IllegalStateException("Blob vanished after upsert: " + sha256));
+        if (!canonicalKey.equals(storageKey)) {
+            dedupHits.increment();
+            bytesAvoided.increment(sizeBytes);
+            afterCommit(() -> deleteObject(storageKey));
+        }
+        return canonicalKey;
+    }
+
+    /**
+     * Drops a document's reference. Objects stored before deduplication have no blob and
+     * belong to that document alone, so they are deleted directly after commit.
+     */
+    @Transactional
+    public void release(String sha256, String storageKey) {
+        if (storageKey == null) {
+            return;
+        }
+        int released = sha256 == null ? 0 : blobRepository.release(sha256, storageKey, LocalDateTime.now());
+        if (released == 0) {
+            afterCommit(() -> deleteObject(storageKey));
+        }
+    }
+
+    /**
+     * A live blob the user may attach without uploading it again. Knowing a checksum is not
+     * enough: the user must already hold a document with that content, otherwise a guessed
+     * hash would grant access to someone else's file.
+     */
+    public Optional<DocumentBlob> findReusable(String sha256, User user) {
+        return blobRepository.findBySha256(sha256)
+                .filter(blob -> blob.getRefCount() > 0)
+                .filter(blob -> documentRepository.existsByChecksumSha256AndShipmentUserId(sha256, user.getId()));
+    }
+
+    /** True while a blob points at this key, i.e. the object must not be deleted directly. */
+    public boolean isBlob(String storageKey) {
+        return blobRepository.existsByStorageKey(storageKey);
+    }
+
+    // ── Garbage collection ───────────────────────────────────
+
+    @Scheduled(cron = "${storage.gc.cron:0 15 3 * * *}")
+    public void scheduledCollect() {
+        if (properties.getGc().isEnabled()) {
+            collectGarbage();
+        }
+    }
+
+    /**
+     * Deletes blobs unreferenced for longer than the grace period, in batches: each batch
+     * removes its rows in one short transaction, then deletes the objects from storage.
+     */
+    public BlobGcResult collectGarbage() {
+        StorageProperties.Gc gc = properties.getGc();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusHours(gc.getGraceHours());
+        long start = System.nanoTime();
+        int batches = 0;
+        int deleted = 0;
+        int failures = 0;
+        long bytesFreed = 0;
+
+        while (batches < gc.getMaxBatchesPerRun()) {
+            List<DocumentBlob> garbage = transactionTemplate.execute(tx -> {
+                List<DocumentBlob> locked = blobRepository.lockGarbage(cutoff, gc.getBatchSize());
+                blobRepository.deleteAllInBatch(locked);
+                return locked;
+            });
+            batches++;
+            if (garbage == null || garbage.isEmpty()) {
+                break;
+            }
+            for (DocumentBlob blob : garbage) {
+                if (deleteObject(blob.getStorageKey())) {
+                    deleted++;
+                    bytesFreed += blob.getSizeBytes();
+                } else {
+                    failures++;
+                }
+            }
+            if (garbage.size() < gc.getBatchSize()) {
+                break;
+            }
+        }
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        if (deleted + failures > 0) {
+            log.info("Blob GC deleted {} blobs ({} bytes, {} failures) in {} ms", deleted, bytesFreed, failures, durationMs);
+        }
+        refreshStats();
+        return BlobGcResult.builder()
+                .ranAt(now)
+                .batches(batches)
+                .blobsDeleted(deleted)
+                .bytesFreed(bytesFreed)
+                .deleteFailures(failures)
+                .durationMs(durationMs)
+                .build();
+    }
+
+    // ── Stats ────────────────────────────────────────────────
+
+    @Scheduled(fixedDelayString = "${storage.dedup-stats-interval-ms:300000}")
+    public DedupStatsResponse refreshStats() {
+        DocumentBlobRepository.DedupTotals totals = blobRepository.dedupTotals();
+        long logical = totals.getLogicalBytes();
+        long physical = totals.getPhysicalBytes();
+        DedupStatsResponse stats = DedupStatsResponse.builder()
+                .blobs(totals.getBlobs())
+                .references(totals.getReferenceCount())
+                .logicalBytes(logical)
+                .physicalBytes(physical)
+                .bytesSaved(logical - physical)
+                .dedupRatio(physical == 0 ? 1.0 : (double) logical / physical)
+                .computedAt(LocalDateTime.now())
+                .build();
+        lastStats.set(stats);
+        return stats;
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    /** Deletes the object and any thumbnail/preview generated next to it. */
+    private boolean deleteObject(String storageKey) {
+        try {
+            storage.delete(storageKey);
+            for (String rendition : DocumentPreviewService.renditionKeys(storageKey)) {
+                storage.delete(rendition);
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not delete stored object {}: {}", storageKey, e.getMessage());
+            return false;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
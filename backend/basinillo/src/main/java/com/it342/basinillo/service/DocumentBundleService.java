@@ -0,0 +1,214 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.config.StorageProperties;
+import com.it342.basinillo.entity.Document;
+import com.it342.basinillo.exception.StorageException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams all documents of a shipment as one ZIP, built while it is sent: entries are written
+ * one after another straight to the response, so nothing is assembled in memory or on disk and
+ * the first bytes leave as soon as the first object is open. While one remote object is copied
+ * the next one is opened and its first {@code storage.bundle-read-ahead-bytes} fetched in the
+ * background, which hides per-object latency and caps the heap at two read-ahead buffers.
+ */
+@Slf4j
+@Service
+public class DocumentBundleService {
+
+    /** Already compressed formats; deflating them again costs CPU and saves nothing. */
+    private static final Set<String> COMPRESSED_TYPES = Set.of(
+            "application/pdf", "application/zip", "image/jpeg", "image/png", "image/webp", "image/heic");
+
+    private final DocumentStorage storage;
+    private final StorageProperties properties;
+    private final TaskExecutor readAheadExecutor;
+    private final MeterRegistry meterRegistry;
+
+    public DocumentBundleService(DocumentStorage storage,
+                                 StorageProperties properties,
+                                 @Qualifier("documentReadAheadExecutor") TaskExecutor readAheadExecutor,
+                                 MeterRegistry meterRegistry) {
+        this.storage = storage;
+        this.properties = properties;
+        this.readAheadExecutor = readAheadExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Writes the ZIP to the response, grouped in one folder per document type
+     * ({@code BL/bill-of-lading.pdf}). Documents without stored content are left out.
+     * A storage failure before the first byte is an ordinary error response; after that the
+     * archive is cut off without its central directory, which every unzip tool reports.
+     */
+    public void writeBundle(List<Document> documents, String archiveName, HttpServletResponse response) throws IOException {
+        List<Document> stored = documents.stream()
+                .filter(d -> d.getStorageKey() != null)
+                .sorted(Comparator.comparing(Document::getType).thenComparing(Document::getUploadedAt))
+                .toList();
+        for (Document document : stored) {
+            Optional<Path> local = storage.localPath(document.getStorageKey());
+            if (local.isPresent() && !Files.isRegularFile(local.get())) {
+                throw new StorageException("Stored file is missing for document " + document.getId(), null);
+            }
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        long bytes = 0;
+        CompletableFuture<InputStream> next = null;
+        InputStream current = null;
+        try {
+            // the first object is opened (not read ahead) before any header goes out, so a
+            // storage failure still gets a JSON error without delaying the first byte
+            current = stored.isEmpty() ? null : storage.open(stored.get(0).getStorageKey());
+
+            response.setContentType("application/zip");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.attachment().filename(archiveName).build().toString());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-store");
+
+            OutputStream out = response.getOutputStream();
+            ZipOutputStream zip = new ZipOutputStream(out);
+            Set<String> names = new HashSet<>();
+            byte[] buffer = new byte[64 * 1024];
+            for (int i = 0; i < stored.size(); i++) {
+                Document document = stored.get(i);
+                next = i + 1 < stored.size() ? open(stored.get(i + 1)) : null;
+                try (InputStream in = current) {
+                    zip.setLevel(isCompressed(document) ? Deflater.NO_COMPRESSION : Deflater.BEST_SPEED);
+                    ZipEntry entry = new ZipEntry(entryName(document, names));
+                    entry.setLastModifiedTime(FileTime.from(
+                            document.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant()));
+                    zip.putNextEntry(entry);
+                    if (i == 0) {
+                        // commit the headers now rather than once Tomcat's buffer fills
+                        zip.flush();
+                        response.flushBuffer();
+                    }
+                    for (int n; (n = in.read(buffer)) >= 0; ) {
+                        zip.write(buffer, 0, n);
+                        bytes += n;
+                    }
+                    zip.closeEntry();
+                }
+                current = next == null ? null : await(next);
+                next = null;
+            }
+            zip.finish();
+            outcome = "success";
+        } finally {
+            if (current != null) {
+                closeQuietly(current);
+            }
+            if (next != null) {
+                next.thenAccept(DocumentBundleService::closeQuietly);
+            }
+            sample.stop(meterRegistry.timer("storage.bundle", "backend", storage.name(), "outcome", outcome));
+            meterRegistry.summary("storage.bundle.bytes", "backend", storage.name()).record(bytes);
+            if (!"success".equals(outcome) && response.isCommitted()) {
+                log.warn("Document bundle {} cut off after {} bytes", archiveName, bytes);
+            }
+        }
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    /**
+     * Local files are opened in place; reading ahead would only copy page cache into heap.
+     * Remote objects are opened on the read-ahead executor and their first bytes fetched there.
+     */
+    private CompletableFuture<InputStream> open(Document document) throws IOException {
+        if (storage.localPath(document.getStorageKey()).isPresent()) {
+            return CompletableFuture.completedFuture(storage.open(document.getStorageKey()));
+        }
+        int readAhead = properties.getBundleReadAheadBytes();
+        return CompletableFuture.supplyAsync(() -> {
+            InputStream in = null;
+            try {
+                in = storage.open(document.getStorageKey());
+                byte[] head = in.readNBytes(readAhead);
+                if (head.length < readAhead) {
+                    in.close();
+                    return new ByteArrayInputStream(head);
+                }
+                return new SequenceInputStream(new ByteArrayInputStream(head), in);
+            } catch (IOException e) {
+                if (in != null) {
+                    closeQuietly(in);
+                }
+                throw new UncheckedIOException(e);
+            }
+        }, readAheadExecutor);
+    }
+
+    private static InputStream await(CompletableFuture<InputStream> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    /** {@code TYPE/fileName}, made unique within the archive and stripped of path separators. */
+    private static String entryName(Document document, Set<String> used) {
+        String fileName = document.getFileName().replaceAll("[\\\\/:]", "_").replaceAll("^\\.+", "_");
+        String name = document.getType() + "/" + fileName;
+        int dot = fileName.lastIndexOf('.');
+        String base = dot > 0 ? fileName.substring(0, dot) : fileName;
+        String extension = dot > 0 ? fileName.substring(dot) : "";
+        for (int copy = 2; !used.add(name.toLowerCase(Locale.ROOT)); copy++) {
+            name = document.getType() + "/" + base + " (" + copy + ")" + extension;
+        }
+        return name;
+    }
+
+    private static boolean isCompressed(Document document) {
+        return document.getContentType() != null
+                && COMPRESSED_TYPES.contains(document.getContentType().toLowerCase(Locale.ROOT));
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException ignored) {
+            // abandoned read-ahead; nothing left to do with it
+        }
+    }
+}
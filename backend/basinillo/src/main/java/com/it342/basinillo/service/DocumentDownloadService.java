@@ -0,0 +1,208 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.entity.Document;
+import com.it342.basinillo.exception.StorageException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serves stored document bytes with HTTP caching and byte ranges, so a large scan can be
+ * resumed instead of re-downloaded. Nothing is buffered whole: local files go out through
+ * Tomcat's sendfile (or {@link FileChannel#transferTo} when sendfile is unavailable), remote
+ * objects are piped through a fixed-size buffer, requesting only the range asked for.
+ */
+@Service
+@RequiredArgsConstructor
+public class DocumentDownloadService {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final DocumentStorage storage;
+    private final MeterRegistry meterRegistry;
+
+    /** Strong validator: content never changes under a document id, so the checksum (or id and size) identifies it. */
+    public static String etagOf(Document document) {
+        String tag = document.getChecksumSha256() != null
+                ? document.getChecksumSha256()
+                : document.getId() + "-" + document.getSizeBytes();
+        return "\"" + tag + "\"";
+    }
+
+    public void serve(Document document, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String etag = etagOf(document);
+        long lastModified = document.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        // sets 304 (If-None-Match / If-Modified-Since) or 412 (If-Match / If-Unmodified-Since) itself
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        long size = document.getSizeBytes();
+        long start = 0;
+        long length = size;
+        boolean partial = false;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && rangeApplies(request, etag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // multiple ranges would need a multipart/byteranges body; a full 200 is also valid
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(size);
+                    length = ranges.get(0).getRangeEnd(size) - start + 1;
+                } catch (IllegalArgumentException e) {
+                    length = 0;
+                }
+                if (length <= 0 || start >= size) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                partial = true;
+            }
+        }
+
+        boolean head = "HEAD".equals(request.getMethod());
+        Optional<Path> local = storage.localPath(document.getStorageKey());
+        if (local.isPresent() && !Files.isRegularFile(local.get())) {
+            throw new StorageException("Stored file is missing for document " + document.getId(), null);
+        }
+        // open a remote object before any header goes out, so a storage failure still gets a JSON error
+        try (InputStream remote = local.isPresent() || head || length == 0
+                ? null : storage.open(document.getStorageKey(), start, length)) {
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=3600");
+            response.setContentType(document.getContentType() != null
+                    ? document.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, inline(document.getFileName()));
+            if (partial) {
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + start + "-" + (start + length - 1) + "/" + size);
+            }
+            response.setContentLengthLong(length);
+            if (head || length == 0) {
+                return;
+            }
+
+            String mode;
+            if (remote != null) {
+                copyRange(remote, length, response.getOutputStream());
+                mode = "stream";
+            } else if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                // Tomcat writes the file straight from the page cache once this request returns
+                request.setAttribute(SENDFILE_FILENAME, local.get().toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, start + length);
+                mode = "sendfile";
+            } else {
+                transferFile(local.get(), start, length, response.getOutputStream());
+                mode = "transfer";
+            }
+            meterRegistry.counter("storage.download", "backend", storage.name(), "mode", mode).increment();
+            meterRegistry.summary("storage.download.bytes", "backend", storage.name()).record(length);
+        }
+    }
+
+    /**
+     * Serves a generated image of the document (thumbnail or preview). These are small and
+     * never change for a given body, so they are sent whole with a long private cache lifetime.
+     */
+    public void serveRendition(Document document, String key, long size, String kind,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String etag = "\"" + etagOf(document).replace("\"", "") + "-" + kind + "\"";
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+        try (InputStream in = storage.open(key)) {
+            response.setContentType(MediaType.IMAGE_JPEG_VALUE);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=86400");
+            response.setContentLengthLong(size);
+            if (!"HEAD".equals(request.getMethod())) {
+                copyRange(in, size, response.getOutputStream());
+            }
+        }
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    /** {@code If-Range}: serve the range only if the client's copy is still current, else the whole file. */
+    private static boolean rangeApplies(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String inline(String fileName) {
+        ContentDisposition.Builder disposition = ContentDisposition.inline();
+        boolean ascii = StandardCharsets.US_ASCII.newEncoder().canEncode(fileName);
+        return (ascii ? disposition.filename(fileName) : disposition.filename(fileName, StandardCharsets.UTF_8))
+                .build().toString();
+    }
+
+    private static void transferFile(Path path, long start, long length, OutputStream out) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = file.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    throw new StorageException("Stored file is shorter than recorded: " + path.getFileName(), null);
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static void copyRange(InputStream in, long length, OutputStream out) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long remaining = length;
+        while (remaining > 0) {
+            int n = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (n < 0) {
+                throw new StorageException("Stored object ended " + remaining + " bytes early", null);
+            }
+            out.write(buffer, 0, n);
+            remaining -= n;
+        }
+    }
+}
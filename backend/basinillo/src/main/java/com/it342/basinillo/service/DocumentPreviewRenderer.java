@@ -0,0 +1,213 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.config.DocumentPreviewProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Renders the first page of a PDF, or an image, to a JPEG thumbnail and preview.
+ * Every render first reserves its estimated pixel memory from a budget shared by all workers
+ * ({@code documents.preview.memory-budget-bytes}), so concurrent large scans wait for each
+ * other instead of exhausting the heap. Pixels are never decoded at full resolution: PDF pages
+ * are rasterised straight at preview size with image subsampling, images are subsampled on read.
+ */
+@Component
+public class DocumentPreviewRenderer {
+
+    /** Preview and thumbnail JPEG bytes. */
+    public record Renditions(byte[] thumbnail, byte[] preview) { }
+
+    /** Rendering could not start or failed for this file; retrying will not help. */
+    public static class UnrenderableException extends IOException {
+        public UnrenderableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private static final int BYTES_PER_PIXEL = 4;
+    private static final int KB = 1024;
+
+    private final DocumentPreviewProperties properties;
+    private final Semaphore budget;
+    private final int budgetKb;
+
+    public DocumentPreviewRenderer(DocumentPreviewProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.budgetKb = (int) Math.min(Integer.MAX_VALUE, properties.getMemoryBudgetBytes() / KB);
+        this.budget = new Semaphore(budgetKb, true);
+        Gauge.builder("documents.preview.memory.reserved", budget, b -> (double) (budgetKb - b.availablePermits()) * KB)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean supports(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.equals("application/pdf")
+                || type.startsWith("image/") && ImageIO.getImageReadersByMIMEType(type).hasNext();
+    }
+
+    public Renditions render(Path file, String contentType) throws IOException {
+        return "application/pdf".equalsIgnoreCase(contentType) ? renderPdf(file) : renderImage(file);
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    private Renditions renderPdf(Path file) throws IOException {
+        try (PDDocument pdf = Loader.loadPDF(file.toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+            if (pdf.getNumberOfPages() == 0) {
+                throw new UnrenderableException("PDF has no pages", null);
+            }
+            PDRectangle box = pdf.getPage(0).getCropBox();
+            boolean rotated = pdf.getPage(0).getRotation() % 180 != 0;
+            float width = rotated ? box.getHeight() : box.getWidth();
+            float height = rotated ? box.getWidth() : box.getHeight();
+            float scale = properties.getPreviewSize() / Math.max(width, height);
+            // embedded scans are subsampled, but allow for one decoded image beside the page raster
+            long estimate = 2L * Math.round(width * scale) * Math.round(height * scale) * BYTES_PER_PIXEL;
+
+            return withBudget(estimate, () -> {
+                PDFRenderer renderer = new PDFRenderer(pdf);
+                renderer.setSubsamplingAllowed(true);
+                BufferedImage page = renderer.renderImage(0, scale, ImageType.RGB);
+                return encode(page);
+            });
+        } catch (UnrenderableException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new UnrenderableException("Unreadable PDF: " + e.getMessage(), e);
+        }
+    }
+
+    private Renditions renderImage(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new UnrenderableException("Unrecognised image format", null);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int subsampling = Math.max(1, Math.max(width, height) / properties.getPreviewSize());
+                long decoded = (long) (width / subsampling + 1) * (height / subsampling + 1) * BYTES_PER_PIXEL;
+                long preview = (long) properties.getPreviewSize() * properties.getPreviewSize() * BYTES_PER_PIXEL;
+
+                return withBudget(decoded + preview, () -> {
+                    ImageReadParam param = reader.getDefaultReadParam();
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                    return encode(reader.read(0, param));
+                });
+            } catch (UnrenderableException e) {
+                throw e;
+            } catch (IOException | RuntimeException e) {
+                throw new UnrenderableException("Unreadable image: " + e.getMessage(), e);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private interface Render {
+        Renditions run() throws IOException;
+    }
+
+    private Renditions withBudget(long estimateBytes, Render render) throws IOException {
+        int permits = (int) Math.min(Integer.MAX_VALUE, Math.max(1, estimateBytes / KB));
+        if (permits > budgetKb) {
+            throw new UnrenderableException("Rendering needs ~" + estimateBytes / (KB * KB)
+                    + " MB, more than the whole preview memory budget", null);
+        }
+        try {
+            budget.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for preview memory", e);
+        }
+        try {
+            return render.run();
+        } finally {
+            budget.release(permits);
+        }
+    }
+
+    private Renditions encode(BufferedImage source) throws IOException {
+        BufferedImage preview = fit(source, properties.getPreviewSize());
+        BufferedImage thumbnail = fit(preview, properties.getThumbnailSize());
+        return new Renditions(jpeg(thumbnail), jpeg(preview));
+    }
+
+    /**
+     * Scales down to fit {@code size} on the longest edge, onto white (JPEG has no alpha).
+     * Halves repeatedly first, since one bilinear step over a large factor aliases badly.
+     */
+    private static BufferedImage fit(BufferedImage source, int size) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) size / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = source;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, width, height);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private byte[] jpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(properties.getJpegQuality());
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
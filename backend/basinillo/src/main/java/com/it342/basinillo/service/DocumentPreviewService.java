@@ -0,0 +1,208 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.config.DocumentPreviewProperties;
+import com.it342.basinillo.dto.PreviewQueueStatsResponse;
+import com.it342.basinillo.entity.Document;
+import com.it342.basinillo.entity.DocumentPreview;
+import com.it342.basinillo.enums.PreviewStatus;
+import com.it342.basinillo.repository.DocumentPreviewRepository;
+import com.it342.basinillo.repository.DocumentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Generates first-page thumbnails and previews in the background, queued and claimed the same
+ * way as {@link DocumentTextService}: the poller only takes as many documents as the bounded
+ * preview executor can hold, and {@link DocumentPreviewRenderer} bounds the memory they use.
+ */
+@Slf4j
+@Service
+public class DocumentPreviewService {
+
+    public static final String THUMBNAIL_SUFFIX = ".thumb.jpg";
+    public static final String PREVIEW_SUFFIX = ".preview.jpg";
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final DocumentPreviewRepository previewRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentStorage storage;
+    private final DocumentPreviewRenderer renderer;
+    private final DocumentPreviewProperties properties;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Timer generationTimer;
+    private final AtomicLong pending = new AtomicLong();
+
+    public DocumentPreviewService(DocumentPreviewRepository previewRepository,
+                                  DocumentRepository documentRepository,
+                                  DocumentStorage storage,
+                                  DocumentPreviewRenderer renderer,
+                                  DocumentPreviewProperties properties,
+                                  @Qualifier("documentPreviewExecutor") ThreadPoolTaskExecutor executor,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry) {
+        this.previewRepository = previewRepository;
+        this.documentRepository = documentRepository;
+        this.storage = storage;
+        this.renderer = renderer;
+        this.properties = properties;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.generationTimer = Timer.builder("documents.preview.generation")
+                .description("Time to render and store one document's thumbnail and preview")
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+        Gauge.builder("documents.preview.pending", pending, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("documents.preview.queued", executor, e -> e.getQueueSize() + e.getActiveCount())
+                .register(meterRegistry);
+    }
+
+    /** Keys of the images generated for a stored object; deleted together with it. */
+    public static List<String> renditionKeys(String storageKey) {
+        return List.of(storageKey + THUMBNAIL_SUFFIX, storageKey + PREVIEW_SUFFIX);
+    }
+
+    // ── Queueing ─────────────────────────────────────────────
+
+    /** Queues the document for preview generation, in the same transaction that records it. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Document document) {
+        previewRepository.save(DocumentPreview.builder()
+                .document(document)
+                .status(PreviewStatus.PENDING)
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${documents.preview.poll-interval-ms:2000}")
+    public void poll() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int free = properties.getWorkerThreads() + properties.getQueueCapacity()
+                - executor.getActiveCount() - executor.getQueueSize();
+        if (free > 0) {
+            LocalDateTime now = LocalDateTime.now();
+            List<DocumentPreviewRepository.Claim> claims = transactionTemplate.execute(tx ->
+                    previewRepository.claimBatch(now, now.plusSeconds(properties.getLeaseSeconds()), free));
+            for (DocumentPreviewRepository.Claim claim : claims == null ? List.<DocumentPreviewRepository.Claim>of() : claims) {
+                try {
+                    executor.execute(() -> process(claim.getDocumentId(), claim.getAttempts()));
+                } catch (TaskRejectedException e) {
+                    transactionTemplate.executeWithoutResult(tx -> previewRepository.markNotReady(
+                            claim.getDocumentId(), PreviewStatus.PENDING.name(), null, now));
+                }
+            }
+        }
+        pending.set(previewRepository.countPending());
+    }
+
+    /** Preview state of these documents, by document id; documents never queued are absent. */
+    public Map<Long, DocumentPreview> findPreviews(List<Document> documents) {
+        if (documents.isEmpty()) {
+            return Map.of();
+        }
+        return previewRepository.findByDocumentIdIn(documents.stream().map(Document::getId).toList()).stream()
+                .collect(Collectors.toMap(DocumentPreview::getDocumentId, Function.identity()));
+    }
+
+    public Optional<DocumentPreview> findReady(Long documentId) {
+        return previewRepository.findById(documentId).filter(p -> p.getStatus() == PreviewStatus.READY);
+    }
+
+    public PreviewQueueStatsResponse stats() {
+        double p95 = 0;
+        for (ValueAtPercentile percentile : generationTimer.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == 0.95) {
+                p95 = percentile.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return PreviewQueueStatsResponse.builder()
+                .pendingDocuments(previewRepository.countPending())
+                .queuedTasks(executor.getQueueSize())
+                .activeWorkers(executor.getActiveCount())
+                .generated(generationTimer.count())
+                .p95Millis(p95)
+                .memoryBudgetBytes(properties.getMemoryBudgetBytes())
+                .build();
+    }
+
+    // ── Generation ───────────────────────────────────────────
+
+    void process(Long documentId, int attempt) {
+        Document document = documentRepository.findById(documentId).orElse(null);
+        if (document == null || document.getStorageKey() == null || !renderer.supports(document.getContentType())) {
+            transactionTemplate.executeWithoutResult(tx -> previewRepository.markNotReady(
+                    documentId, PreviewStatus.UNSUPPORTED.name(), null, LocalDateTime.now()));
+            meterRegistry.counter("documents.preview.skipped").increment();
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            generate(document);
+            generationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            boolean giveUp = e instanceof DocumentPreviewRenderer.UnrenderableException
+                    || attempt >= properties.getMaxAttempts();
+            log.warn("Preview generation for document {} failed on attempt {}{}: {}", documentId, attempt,
+                    giveUp ? "; giving up" : "", e.toString());
+            LocalDateTime retryAt = LocalDateTime.now().plusSeconds(properties.getRetryBackoffSeconds() * attempt);
+            transactionTemplate.executeWithoutResult(tx -> previewRepository.markNotReady(documentId,
+                    (giveUp ? PreviewStatus.FAILED : PreviewStatus.PENDING).name(), truncate(e.toString()), retryAt));
+            meterRegistry.counter("documents.preview.failed").increment();
+        }
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    /** Renders and stores both images, unless another document with the same body already did. */
+    private void generate(Document document) throws IOException {
+        String thumbnailKey = document.getStorageKey() + THUMBNAIL_SUFFIX;
+        String previewKey = document.getStorageKey() + PREVIEW_SUFFIX;
+        Optional<DocumentStorage.StoredObject> thumbnail = storage.stat(thumbnailKey);
+        Optional<DocumentStorage.StoredObject> preview = storage.stat(previewKey);
+        long thumbnailBytes;
+        long previewBytes;
+        if (thumbnail.isPresent() && preview.isPresent()) {
+            thumbnailBytes = thumbnail.get().size();
+            previewBytes = preview.get().size();
+        } else {
+            DocumentPreviewRenderer.Renditions images = storage.withFile(document.getStorageKey(),
+                    file -> renderer.render(file, document.getContentType()));
+            storage.put(previewKey, new ByteArrayInputStream(images.preview()), images.preview().length, "image/jpeg");
+            storage.put(thumbnailKey, new ByteArrayInputStream(images.thumbnail()), images.thumbnail().length, "image/jpeg");
+            thumbnailBytes = images.thumbnail().length;
+            previewBytes = images.preview().length;
+        }
+        transactionTemplate.executeWithoutResult(tx -> previewRepository.markReady(document.getId(),
+                thumbnailKey, thumbnailBytes, previewKey, previewBytes, LocalDateTime.now()));
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
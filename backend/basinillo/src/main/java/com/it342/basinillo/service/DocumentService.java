@@ -1,46 +1,299 @@
 package com.it342.basinillo.service;
 
+import com.it342.basinillo.config.StorageProperties;
+import com.it342.basinillo.dto.CompleteUploadRequest;
+import com.it342.basinillo.dto.DocumentResponse;
+import com.it342.basinillo.dto.PresignedUploadRequest;
+import com.it342.basinillo.dto.PresignedUrlResponse;
 import com.it342.basinillo.entity.Document;
+import com.it342.basinillo.entity.DocumentBlob;
+import com.it342.basinillo.entity.DocumentPreview;
 import com.it342.basinillo.entity.Shipment;
 import com.it342.basinillo.entity.User;
 import com.it342.basinillo.enums.DocumentType;
+import com.it342.basinillo.exception.DocumentIntegrityException;
+import com.it342.basinillo.exception.PayloadTooLargeException;
 import com.it342.basinillo.exception.ResourceNotFoundException;
+import com.it342.basinillo.exception.StorageException;
 import com.it342.basinillo.repository.DocumentRepository;
 import com.it342.basinillo.repository.ShipmentRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Document service — manages document metadata for the Document Vault.
- * Actual file storage (Cloudflare R2) is a placeholder; this service
- * handles the database record and ownership checks.
+ * Document service — manages the Document Vault. File bytes go to the configured
+ * {@link DocumentStorage} backend (R2 or local disk), either streamed through this service or
+ * sent by the client to a presigned URL; this service records the metadata and enforces ownership.
  */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class DocumentService {
 
+    /** Bytes written to storage but not yet recorded as a {@link Document}; {@code sha256} is hex. */
+    public record StoredContent(String storageKey, String fileName, String contentType, long sizeBytes, String sha256) { }
+
     private final DocumentRepository documentRepository;
     private final ShipmentRepository shipmentRepository;
+    private final DocumentStorage storage;
+    private final DocumentBlobService blobService;
+    private final DocumentTextService textService;
+    private final DocumentPreviewService previewService;
+    private final StorageProperties storageProperties;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary uploadBytes;
+    private final DistributionSummary uploadThroughput;
+    private final AtomicInteger uploadsInFlight = new AtomicInteger();
+
+    public DocumentService(DocumentRepository documentRepository,
+                           ShipmentRepository shipmentRepository,
+                           DocumentStorage storage,
+                           DocumentBlobService blobService,
+                           DocumentTextService textService,
+                           DocumentPreviewService previewService,
+                           StorageProperties storageProperties,
+                           MeterRegistry meterRegistry) {
+        this.documentRepository = documentRepository;
+        this.shipmentRepository = shipmentRepository;
+        this.storage = storage;
+        this.blobService = blobService;
+        this.textService = textService;
+        this.previewService = previewService;
+        this.storageProperties = storageProperties;
+        this.meterRegistry = meterRegistry;
+        this.uploadBytes = DistributionSummary.builder("storage.upload.bytes")
+                .baseUnit("bytes").tag("backend", storage.name()).register(meterRegistry);
+        this.uploadThroughput = DistributionSummary.builder("storage.upload.throughput")
+                .baseUnit("bytes_per_second").tag("backend", storage.name()).register(meterRegistry);
+        Gauge.builder("storage.uploads.active", uploadsInFlight, AtomicInteger::get)
+                .tag("backend", storage.name()).register(meterRegistry);
+    }
 
+    // ── Upload ───────────────────────────────────────────────
+
+    /**
+     * Streams {@code content} to storage under a fresh key. Runs without a transaction, and with
+     * open-in-view off the ownership check's connection is back in the pool before the first byte
+     * is copied. {@code contentLength} is -1 when unknown;
+     * either way the stream is cut off at {@code storage.max-upload-bytes}.
+     */
+    public StoredContent store(Long shipmentId, String fileName, String contentType,
+                               InputStream content, long contentLength, User currentUser) {
+        Shipment shipment = findShipmentOrThrow(shipmentId);
+        verifyOwnership(shipment, currentUser);
+
+        long maxBytes = storageProperties.getMaxUploadBytes();
+        if (contentLength > maxBytes) {
+            throw new PayloadTooLargeException("File exceeds the " + maxBytes + " byte upload limit");
+        }
+
+        String key = newStorageKey(shipmentId, fileName);
+        MessageDigest sha256 = sha256();
+        String outcome = "failure";
+        uploadsInFlight.incrementAndGet();
+        long start = System.nanoTime();
+        try (InputStream limited = new DigestInputStream(new SizeLimitedInputStream(content, maxBytes), sha256)) {
+            DocumentStorage.StoredObject stored = storage.put(key, limited, contentLength, contentType);
+            long elapsed = System.nanoTime() - start;
+            uploadBytes.record(stored.size());
+            if (elapsed > 0) {
+                uploadThroughput.record(stored.size() * 1e9 / elapsed);
+            }
+            outcome = "success";
+            return new StoredContent(key, fileName, contentType, stored.size(), HexFormat.of().formatHex(sha256.digest()));
+        } catch (IOException e) {
+            throw new StorageException("Could not store " + fileName + " in " + storage.name(), e);
+        } finally {
+            uploadsInFlight.decrementAndGet();
+            Timer.builder("storage.upload")
+                    .tag("backend", storage.name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Records stored content as a document of the shipment. Content whose checksum is already
+     * stored is deduplicated: the document points at the existing blob and the new copy is dropped.
+     */
     @Transactional
-    public Document saveDocumentMetadata(Long shipmentId, String fileName, String fileUrl,
-                                         DocumentType type, Long sizeBytes, User currentUser) {
+    public Document saveDocumentMetadata(Long shipmentId, StoredContent content,
+                                         DocumentType type, User currentUser) {
         Shipment shipment = findShipmentOrThrow(shipmentId);
         verifyOwnership(shipment, currentUser);
 
+        String storageKey = content.sha256() == null ? content.storageKey()
+                : blobService.acquire(content.sha256(), content.storageKey(), content.sizeBytes(), content.contentType());
         Document document = Document.builder()
                 .shipment(shipment)
-                .fileName(fileName)
-                .fileUrl(fileUrl)
+                .fileName(content.fileName())
+                .fileUrl(storage.locationOf(storageKey))
+                .storageKey(storageKey)
+                .contentType(content.contentType())
+                .checksumSha256(content.sha256())
                 .type(type)
-                .sizeBytes(sizeBytes)
+                .sizeBytes(content.sizeBytes())
                 .build();
 
-        return documentRepository.save(document);
+        Document saved = documentRepository.save(document);
+        textService.enqueue(saved);
+        previewService.enqueue(saved);
+        return saved;
+    }
+
+    // ── Presigned uploads/downloads ──────────────────────────
+
+    /**
+     * Issues a URL for the client to PUT the file straight to storage. The size (and, with
+     * {@code storage.presign-checksums}, the SHA-256) is signed into the URL, so the store itself
+     * rejects a body that does not match.
+     */
+    public PresignedUrlResponse presignUpload(Long shipmentId, PresignedUploadRequest request, User currentUser) {
+        Shipment shipment = findShipmentOrThrow(shipmentId);
+        verifyOwnership(shipment, currentUser);
+        if (request.getSizeBytes() > storageProperties.getMaxUploadBytes()) {
+            throw new PayloadTooLargeException("File exceeds the " + storageProperties.getMaxUploadBytes() + " byte upload limit");
+        }
+
+        String expected = request.getChecksumSha256().toLowerCase(Locale.ROOT);
+        Optional<DocumentBlob> reusable = blobService.findReusable(expected, currentUser);
+        if (reusable.isPresent()) {
+            return PresignedUrlResponse.builder()
+                    .storageKey(reusable.get().getStorageKey())
+                    .deduplicated(true)
+                    .build();
+        }
+
+        String key = newStorageKey(shipmentId, request.getFileName());
+        String contentType = request.getContentType() != null ? request.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        String checksum = !storageProperties.isPresignChecksums() ? null
+                : Base64.getEncoder().encodeToString(HexFormat.of().parseHex(request.getChecksumSha256()));
+        DocumentStorage.PresignedRequest presigned = storage.presignPut(
+                key, contentType, request.getSizeBytes(), checksum, presignTtl());
+        return toResponse(key, presigned);
+    }
+
+    /**
+     * Checks that a presigned upload actually landed in storage and returns what to record.
+     * Runs without a transaction; the caller saves the result with {@link #saveDocumentMetadata}.
+     */
+    public StoredContent verifyUpload(Long shipmentId, CompleteUploadRequest request, User currentUser) {
+        Shipment shipment = findShipmentOrThrow(shipmentId);
+        verifyOwnership(shipment, currentUser);
+
+        String key = request.getStorageKey();
+        String expected = request.getChecksumSha256().toLowerCase(Locale.ROOT);
+        Optional<DocumentBlob> reusable = blobService.findReusable(expected, currentUser)
+                .filter(blob -> blob.getStorageKey().equals(key));
+        if (reusable.isPresent()) {
+            DocumentBlob blob = reusable.get();
+            return new StoredContent(key, request.getFileName(), blob.getContentType(), blob.getSizeBytes(), expected);
+        }
+        if (!key.startsWith(keyPrefix(shipmentId)) || key.contains("..")) {
+            throw new ResourceNotFoundException("Upload not found: " + key);
+        }
+        DocumentStorage.StoredObject stored;
+        String actual;
+        try {
+            stored = storage.stat(key)
+                    .orElseThrow(() -> new ResourceNotFoundException("Upload not found: " + key));
+            actual = stored.sha256();
+            if (actual == null && !storageProperties.isPresignChecksums()
+                    && stored.size() <= storageProperties.getMaxUploadBytes()) {
+                actual = hashOf(key);
+            }
+        } catch (IOException e) {
+            throw new StorageException("Could not check upload " + key + " in " + storage.name(), e);
+        }
+
+        StoredContent content = new StoredContent(key, request.getFileName(), stored.contentType(), stored.size(), expected);
+        if (stored.size() > storageProperties.getMaxUploadBytes()) {
+            discard(content);
+            throw new PayloadTooLargeException("File exceeds the " + storageProperties.getMaxUploadBytes() + " byte upload limit");
+        }
+        if (actual != null && !actual.equals(expected)) {
+            discard(content);
+            throw new DocumentIntegrityException("Uploaded content does not match checksum " + expected);
+        }
+        return content;
+    }
+
+    /** An upload already recorded for this key and name, so repeated completion calls return the same document. */
+    public Optional<Document> findRecordedUpload(Long shipmentId, CompleteUploadRequest request, User currentUser) {
+        Shipment shipment = findShipmentOrThrow(shipmentId);
+        verifyOwnership(shipment, currentUser);
+        return documentRepository.findFirstByShipmentIdAndStorageKeyAndFileName(
+                shipmentId, request.getStorageKey(), request.getFileName());
+    }
+
+    public PresignedUrlResponse presignDownload(Long shipmentId, Long documentId, User currentUser) {
+        Document document = getStoredDocument(shipmentId, documentId, currentUser);
+        DocumentStorage.PresignedRequest presigned = storage.presignGet(
+                document.getStorageKey(), document.getFileName(), document.getContentType(), presignTtl());
+        return toResponse(null, presigned);
+    }
+
+    /**
+     * Best-effort removal of stored content whose metadata could not be saved. Leaves the
+     * object alone if a committed blob already points at it.
+     */
+    public void discard(StoredContent content) {
+        try {
+            if (blobService.isBlob(content.storageKey())) {
+                return;
+            }
+            storage.delete(content.storageKey());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not delete orphaned object {}: {}", content.storageKey(), e.getMessage());
+        }
+    }
+
+    /** A document of the user's shipment that has content in storage (not a pre-storage placeholder). */
+    public Document getStoredDocument(Long shipmentId, Long documentId, User currentUser) {
+        Shipment shipment = findShipmentOrThrow(shipmentId);
+        verifyOwnership(shipment, currentUser);
+        Document document = documentRepository.findByIdAndShipmentId(documentId, shipmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Document not found: " + documentId));
+        if (document.getStorageKey() == null) {
+            throw new ResourceNotFoundException("Document " + documentId + " has no stored content");
+        }
+        return document;
+    }
+
+    /** Deletes the document; its stored body goes once no other document references it. */
+    @Transactional
+    public void deleteDocument(Long shipmentId, Long documentId, User currentUser) {
+        Shipment shipment = findShipmentOrThrow(shipmentId);
+        verifyOwnership(shipment, currentUser);
+        Document document = documentRepository.findByIdAndShipmentId(documentId, shipmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Document not found: " + documentId));
+        documentRepository.delete(document);
+        blobService.release(document.getChecksumSha256(), document.getStorageKey());
     }
 
     public List<Document> getDocumentsByShipment(Long shipmentId, User currentUser) {
@@ -49,6 +302,15 @@ public class DocumentService {
         return documentRepository.findByShipmentId(shipmentId);
     }
 
+    /** The shipment's documents as API responses, with preview status and rendition links. */
+    public List<DocumentResponse> listDocuments(Long shipmentId, User currentUser) {
+        List<Document> documents = getDocumentsByShipment(shipmentId, currentUser);
+        Map<Long, DocumentPreview> previews = previewService.findPreviews(documents);
+        return documents.stream()
+                .map(d -> DocumentResponse.fromEntity(d, previews.get(d.getId())))
+                .toList();
+    }
+
     // ── Private helpers (reused from ShipmentService pattern) ─
 
     private Shipment findShipmentOrThrow(Long shipmentId) {
@@ -61,4 +323,91 @@ public class DocumentService {
             throw new AccessDeniedException("You do not have access to this shipment's documents");
         }
     }
+
+    private String newStorageKey(Long shipmentId, String fileName) {
+        return keyPrefix(shipmentId) + UUID.randomUUID() + "/" + safeFileName(fileName);
+    }
+
+    private static String keyPrefix(Long shipmentId) {
+        return "shipments/" + shipmentId + "/";
+    }
+
+    private Duration presignTtl() {
+        return Duration.ofSeconds(storageProperties.getPresignTtlSeconds());
+    }
+
+    private static PresignedUrlResponse toResponse(String key, DocumentStorage.PresignedRequest presigned) {
+        return PresignedUrlResponse.builder()
+                .storageKey(key)
+                .method(presigned.method())
+                .url(presigned.url().toString())
+                .headers(presigned.headers())
+                .expiresAt(presigned.expiresAt())
+                .build();
+    }
+
+    /** Reads the stored object back to hash it; used only when the store did not verify the checksum. */
+    private String hashOf(String key) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(storage.open(key), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Last path segment with anything outside [A-Za-z0-9._-] replaced, so keys stay URL- and path-safe. */
+    private static String safeFileName(String fileName) {
+        String name = fileName == null ? "" : fileName.substring(
+                Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1);
+        name = name.replaceAll("[^A-Za-z0-9._-]", "_");
+        if (name.isEmpty() || name.chars().allMatch(c -> c == '.')) {
+            return "file";
+        }
+        return name.length() > 120 ? name.substring(name.length() - 120) : name;
+    }
+
+    /** Fails the upload as soon as more than {@code limit} bytes have been read. */
+    private static final class SizeLimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+
+        private SizeLimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                checkLimit(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                checkLimit(n);
+            }
+            return n;
+        }
+
+        private void checkLimit(int read) {
+            count += read;
+            if (count > limit) {
+                throw new PayloadTooLargeException("File exceeds the " + limit + " byte upload limit");
+            }
+        }
+    }
 }
@@ -0,0 +1,106 @@
+package com.it342.basinillo.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Where document bytes live. Exactly one implementation is active, chosen by
+ * {@code storage.backend}. Keys are opaque, server-generated paths such as
+ * {@code shipments/42/5f0c.../invoice.pdf}.
+ */
+public interface DocumentStorage {
+
+    /**
+     * Metadata of a stored object. {@code contentType} may be null where the backend does not keep
+     * it; {@code sha256} (hex) is null unless the backend verified and reported a checksum.
+     */
+    record StoredObject(String key, long size, String contentType, String sha256) { }
+
+    /** A presigned request: the client sends {@code method} to {@code url} with exactly these {@code headers}. */
+    record PresignedRequest(String method, URL url, Map<String, String> headers, Instant expiresAt) { }
+
+    /** Backend name used in metrics and logs ("r2", "local"). */
+    String name();
+
+    /**
+     * Streams {@code content} to {@code key}, replacing any existing object.
+     * Implementations must not buffer the whole stream; {@code contentLength} is -1 when unknown.
+     */
+    StoredObject put(String key, InputStream content, long contentLength, String contentType) throws IOException;
+
+    InputStream open(String key) throws IOException;
+
+    /**
+     * Opens the object at byte {@code offset}. The stream holds at least {@code length} bytes
+     * but may run on past them; callers read only what they asked for.
+     */
+    InputStream open(String key, long offset, long length) throws IOException;
+
+    /** The object as a local file, for zero-copy serving; empty for remote backends. */
+    default Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+
+    /**
+     * Runs {@code action} on the object as a file, for readers that need random access (PDF).
+     * Local objects are used in place; remote ones are copied to a temp file deleted afterwards.
+     */
+    default <T> T withFile(String key, FileAction<T> action) throws IOException {
+        Optional<Path> local = localPath(key);
+        if (local.isPresent()) {
+            if (!Files.isRegularFile(local.get())) {
+                throw new IOException("Stored file is missing: " + key);
+            }
+            return action.apply(local.get());
+        }
+        Path spool = Files.createTempFile("doc-", ".tmp");
+        try {
+            try (InputStream in = open(key)) {
+                Files.copy(in, spool, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return action.apply(spool);
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    @FunctionalInterface
+    interface FileAction<T> {
+        T apply(Path file) throws IOException;
+    }
+
+    Optional<StoredObject> stat(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /** Backend-specific location recorded as {@code Document.fileUrl}; not a public download link. */
+    String locationOf(String key);
+
+    // ── Presigned access (optional) ─────────────────────────
+
+    default boolean supportsPresignedUrls() {
+        return false;
+    }
+
+    /**
+     * URL for the client to PUT exactly {@code contentLength} bytes to {@code key}.
+     * When {@code sha256Base64} is given it is signed in, so the store rejects any other content.
+     */
+    default PresignedRequest presignPut(String key, String contentType, long contentLength,
+                                        String sha256Base64, Duration ttl) {
+        throw new UnsupportedOperationException(name() + " storage does not support presigned URLs");
+    }
+
+    /** URL for the client to GET {@code key}, served as an attachment named {@code downloadName}. */
+    default PresignedRequest presignGet(String key, String downloadName, String contentType, Duration ttl) {
+        throw new UnsupportedOperationException(name() + " storage does not support presigned URLs");
+    }
+}
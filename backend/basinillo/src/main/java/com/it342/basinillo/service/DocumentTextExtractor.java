@@ -0,0 +1,17 @@
+package com.it342.basinillo.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Pluggable text extractor for one family of content types. Register an implementation as a
+ * Spring bean and {@link DocumentTextService} uses the first one that supports a document.
+ * Implementations run on the extraction workers, never on a request thread.
+ */
+public interface DocumentTextExtractor {
+
+    boolean supports(String contentType);
+
+    /** The document's text, at most {@code maxChars} characters of it. */
+    String extract(Path file, int maxChars) throws IOException;
+}
@@ -0,0 +1,190 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.config.DocumentTextProperties;
+import com.it342.basinillo.dto.DocumentSearchResult;
+import com.it342.basinillo.entity.Document;
+import com.it342.basinillo.entity.DocumentText;
+import com.it342.basinillo.entity.User;
+import com.it342.basinillo.enums.TextExtractionStatus;
+import com.it342.basinillo.repository.DocumentRepository;
+import com.it342.basinillo.repository.DocumentTextRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background text extraction and full-text search over the extracted text.
+ * Uploads only add a PENDING {@link DocumentText} row; a poller claims as many rows as the
+ * bounded worker pool has room for and hands them to it. When the pool is saturated nothing
+ * more is claimed, so the backlog waits in the table rather than in memory, and survives restarts.
+ */
+@Slf4j
+@Service
+public class DocumentTextService {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final DocumentTextRepository textRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentStorage storage;
+    private final ObjectProvider<DocumentTextExtractor> extractors;
+    private final DocumentTextProperties properties;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong pending = new AtomicLong();
+
+    public DocumentTextService(DocumentTextRepository textRepository,
+                               DocumentRepository documentRepository,
+                               DocumentStorage storage,
+                               ObjectProvider<DocumentTextExtractor> extractors,
+                               DocumentTextProperties properties,
+                               @Qualifier("documentTextExecutor") ThreadPoolTaskExecutor executor,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.textRepository = textRepository;
+        this.documentRepository = documentRepository;
+        this.storage = storage;
+        this.extractors = extractors;
+        this.properties = properties;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("documents.text.pending", pending, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("documents.text.queued", executor, e -> e.getQueueSize() + e.getActiveCount())
+                .register(meterRegistry);
+    }
+
+    // ── Queueing ─────────────────────────────────────────────
+
+    /** Queues the document for extraction, in the same transaction that records it. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Document document) {
+        textRepository.save(DocumentText.builder()
+                .document(document)
+                .status(TextExtractionStatus.PENDING)
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${documents.text.poll-interval-ms:2000}")
+    public void poll() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int free = properties.getWorkerThreads() + properties.getQueueCapacity()
+                - executor.getActiveCount() - executor.getQueueSize();
+        if (free > 0) {
+            LocalDateTime now = LocalDateTime.now();
+            List<DocumentTextRepository.Claim> claims = transactionTemplate.execute(tx ->
+                    textRepository.claimBatch(now, now.plusSeconds(properties.getLeaseSeconds()), free));
+            for (DocumentTextRepository.Claim claim : claims == null ? List.<DocumentTextRepository.Claim>of() : claims) {
+                try {
+                    executor.execute(() -> process(claim.getDocumentId(), claim.getAttempts()));
+                } catch (TaskRejectedException e) {
+                    // another caller filled the pool first; hand the row straight back
+                    transactionTemplate.executeWithoutResult(tx -> textRepository.markFailed(
+                            claim.getDocumentId(), TextExtractionStatus.PENDING.name(), null, now));
+                }
+            }
+        }
+        pending.set(textRepository.countPending());
+    }
+
+    // ── Extraction ───────────────────────────────────────────
+
+    void process(Long documentId, int attempt) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome;
+        Document document = documentRepository.findById(documentId).orElse(null);
+        Optional<DocumentTextExtractor> extractor = document == null || document.getStorageKey() == null
+                ? Optional.empty()
+                : extractors.orderedStream().filter(e -> e.supports(document.getContentType())).findFirst();
+        try {
+            if (extractor.isEmpty()) {
+                complete(documentId, TextExtractionStatus.UNSUPPORTED, null);
+                outcome = "unsupported";
+            } else {
+                complete(documentId, TextExtractionStatus.EXTRACTED, extract(extractor.get(), document));
+                outcome = "extracted";
+            }
+        } catch (Exception e) {
+            // a file the extractor cannot parse will not parse on retry either
+            boolean giveUp = e instanceof UnreadableContentException || attempt >= properties.getMaxAttempts();
+            log.warn("Text extraction for document {} failed on attempt {}{}", documentId, attempt,
+                    giveUp ? "; giving up" : "", e);
+            LocalDateTime retryAt = LocalDateTime.now().plusSeconds(properties.getRetryBackoffSeconds() * attempt);
+            transactionTemplate.executeWithoutResult(tx -> textRepository.markFailed(documentId,
+                    (giveUp ? TextExtractionStatus.FAILED : TextExtractionStatus.PENDING).name(),
+                    truncate(e.toString()), retryAt));
+            outcome = giveUp ? "failed" : "retry";
+        }
+        sample.stop(meterRegistry.timer("documents.text.extraction", "outcome", outcome));
+    }
+
+    // ── Search ───────────────────────────────────────────────
+
+    /**
+     * Documents of the user's shipments whose text matches {@code query}, best first.
+     * Accepts web-search syntax: quoted phrases, {@code or}, and {@code -term} to exclude.
+     */
+    public List<DocumentSearchResult> search(String query, int limit, User currentUser) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        String trimmed = query.strip();
+        int capped = Math.max(1, Math.min(limit, properties.getMaxSearchResults()));
+        return textRepository.search(currentUser.getId(),
+                        trimmed.length() > MAX_QUERY_LENGTH ? trimmed.substring(0, MAX_QUERY_LENGTH) : trimmed,
+                        capped).stream()
+                .map(DocumentSearchResult::fromHit)
+                .toList();
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    private String extract(DocumentTextExtractor extractor, Document document) throws IOException {
+        return storage.withFile(document.getStorageKey(), file -> {
+            try {
+                return extractor.extract(file, properties.getMaxChars());
+            } catch (IOException | RuntimeException e) {
+                throw new UnreadableContentException(e);
+            }
+        });
+    }
+
+    private void complete(Long documentId, TextExtractionStatus status, String text) {
+        // Postgres text cannot hold NUL, which some PDF text layers contain
+        String content = text == null ? null : text.replace('\u0000', ' ').strip();
+        transactionTemplate.executeWithoutResult(tx ->
+                textRepository.markDone(documentId, status.name(), content, LocalDateTime.now()));
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /** The content was fetched but the extractor rejected it (corrupt or encrypted file). */
+    private static final class UnreadableContentException extends IOException {
+        private UnreadableContentException(Exception cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.config.FxProperties;
+import com.it342.basinillo.dto.FxBackfillResult;
+import com.it342.basinillo.entity.ShipmentItem;
+import com.it342.basinillo.repository.ShipmentItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Fills phpConvertedValue/exchangeRate on items saved before conversion existed, or before
+ * a rate for their currency/date was loaded. Walks items by id in short transactions;
+ * items still without a rate are skipped and picked up again on a later run.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FxBackfillService {
+
+    private final ShipmentItemRepository shipmentItemRepository;
+    private final FxRateService fxRateService;
+    private final FxProperties properties;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    /** Outcome of one batch: where the next one starts, and what this one did. */
+    private record BatchStats(long lastId, int scanned, int converted) { }
+
+    @Scheduled(cron = "${fx.backfill.cron:0 0 3 * * *}")
+    public void scheduledRun() {
+        if (properties.getBackfill().isEnabled()) {
+            backfill();
+        }
+    }
+
+    public FxBackfillResult backfill() {
+        LocalDateTime now = LocalDateTime.now();
+        FxRateSnapshot rates = fxRateService.reload();
+        int batchSize = properties.getBackfill().getBatchSize();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        long start = System.nanoTime();
+        long afterId = 0;
+        int batches = 0;
+        int scanned = 0;
+        int converted = 0;
+        while (true) {
+            long from = afterId;
+            BatchStats stats = tx.execute(status -> convertBatch(rates, from, batchSize));
+            if (stats == null || stats.scanned() == 0) {
+                break;
+            }
+            batches++;
+            scanned += stats.scanned();
+            converted += stats.converted();
+            afterId = stats.lastId();
+            meterRegistry.counter("fx.backfill.items").increment(stats.converted());
+            if (stats.scanned() < batchSize || !pause()) {
+                break;
+            }
+        }
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+
+        if (scanned > 0) {
+            log.info("FX backfill converted {} of {} items in {} batches ({} ms)", converted, scanned, batches, durationMs);
+        }
+        return FxBackfillResult.builder()
+                .ranAt(now)
+                .batches(batches)
+                .itemsScanned(scanned)
+                .itemsConverted(converted)
+                .durationMs(durationMs)
+                .build();
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    private BatchStats convertBatch(FxRateSnapshot rates, long afterId, int batchSize) {
+        List<ShipmentItem> items = shipmentItemRepository.findUnconvertedAfter(afterId, PageRequest.of(0, batchSize));
+        int converted = 0;
+        for (ShipmentItem item : items) {
+            if (rates.convert(item, FxRateService.conversionDate(item.getShipment(), item))) {
+                converted++;
+            }
+        }
+        long lastId = items.isEmpty() ? afterId : items.get(items.size() - 1).getId();
+        return new BatchStats(lastId, items.size(), converted);
+    }
+
+    /** Throttle between batches. Returns false if interrupted (shutdown). */
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getBackfill().getThrottleMs());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.config.FxProperties;
+import com.it342.basinillo.dto.FxRateImportResult;
+import com.it342.basinillo.dto.FxRateResponse;
+import com.it342.basinillo.dto.ManifestRowError;
+import com.it342.basinillo.entity.ExchangeRate;
+import com.it342.basinillo.entity.Shipment;
+import com.it342.basinillo.entity.ShipmentItem;
+import com.it342.basinillo.exception.RateFileValidationException;
+import com.it342.basinillo.repository.ExchangeRateRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Exchange rates for converting declared values to PHP.
+ * Rates live in {@code exchange_rates} (seeded from {@code fx.rates-file}, updated by admin upload);
+ * conversions read an in-memory {@link FxRateSnapshot} that is rebuilt and swapped atomically
+ * on every reload, so request threads never wait on the DB or on each other for a rate.
+ */
+@Slf4j
+@Service
+public class FxRateService {
+
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final FxProperties properties;
+    private final ResourceLoader resourceLoader;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicReference<FxRateSnapshot> snapshot = new AtomicReference<>(FxRateSnapshot.EMPTY);
+
+    public FxRateService(ExchangeRateRepository exchangeRateRepository,
+                         FxProperties properties,
+                         ResourceLoader resourceLoader,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry) {
+        this.exchangeRateRepository = exchangeRateRepository;
+        this.properties = properties;
+        this.resourceLoader = resourceLoader;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        Gauge.builder("fx.rates.loaded", snapshot, s -> s.get().size()).register(meterRegistry);
+    }
+
+    // ── Loading ──────────────────────────────────────────────
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        String location = properties.getRatesFile();
+        if (location != null && !location.isBlank()) {
+            Resource resource = resourceLoader.getResource(location);
+            if (resource.exists()) {
+                try (InputStream in = resource.getInputStream()) {
+                    List<ExchangeRate> rates = parse(in, "file:" + resource.getFilename());
+                    LocalDateTime now = LocalDateTime.now();
+                    transactionTemplate.executeWithoutResult(tx -> rates.forEach(r -> exchangeRateRepository.insertIfAbsent(
+                            r.getCurrency(), r.getEffectiveDate(), r.getPhpPerUnit(), r.getSource(), now)));
+                } catch (IOException | RateFileValidationException e) {
+                    log.warn("Could not load FX rates from {}: {}", location, e.getMessage());
+                }
+            } else {
+                log.warn("FX rates file {} not found", location);
+            }
+        }
+        reload();
+    }
+
+    /** Rebuilds the snapshot from the table (periodically, so every instance sees admin uploads). */
+    @Scheduled(fixedDelayString = "${fx.refresh-interval-ms:600000}",
+               initialDelayString = "${fx.refresh-interval-ms:600000}")
+    public FxRateSnapshot reload() {
+        FxRateSnapshot fresh = FxRateSnapshot.of(exchangeRateRepository.findAll(), LocalDateTime.now());
+        snapshot.set(fresh);
+        log.debug("Loaded {} FX rates", fresh.size());
+        return fresh;
+    }
+
+    /** Admin upload (CSV: currency, effective_date, php_per_unit). All-or-nothing; replaces same-day rates. */
+    public FxRateImportResult importRates(MultipartFile file) {
+        List<ExchangeRate> rates;
+        try (InputStream in = file.getInputStream()) {
+            rates = parse(in, "upload:" + file.getOriginalFilename());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read rate file: " + e.getMessage(), e);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(tx -> rates.forEach(r -> exchangeRateRepository.upsert(
+                r.getCurrency(), r.getEffectiveDate(), r.getPhpPerUnit(), r.getSource(), now)));
+        FxRateSnapshot fresh = reload();
+
+        return FxRateImportResult.builder()
+                .ratesRead(rates.size())
+                .currencies(new ArrayList<>(new TreeSet<>(rates.stream().map(ExchangeRate::getCurrency).toList())))
+                .ratesLoaded(fresh.size())
+                .loadedAt(fresh.getLoadedAt())
+                .build();
+    }
+
+    public FxRateSnapshot current() {
+        return snapshot.get();
+    }
+
+    public List<FxRateResponse> getLatestRates() {
+        return current().latest().stream().map(FxRateResponse::fromEntity).toList();
+    }
+
+    // ── Conversion ───────────────────────────────────────────
+
+    /**
+     * Converts every item of the shipment against one snapshot, at the rate in effect on its
+     * {@link #conversionDate conversion date}. Returns the number of items converted.
+     */
+    public int convertItems(Shipment shipment) {
+        FxRateSnapshot rates = current();
+        int converted = 0;
+        for (ShipmentItem item : shipment.getItems()) {
+            if (rates.convert(item, conversionDate(shipment, item))) {
+                converted++;
+            }
+        }
+        return converted;
+    }
+
+    /**
+     * The shipment's arrival date, or while that is unknown the day the item was added, so that
+     * converting the item again (on an edit or a backfill) gives the same result.
+     */
+    static LocalDate conversionDate(Shipment shipment, ShipmentItem item) {
+        return shipment.getArrivalDate() != null ? shipment.getArrivalDate() : item.getCreatedAt().toLocalDate();
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    private List<ExchangeRate> parse(InputStream in, String source) throws IOException {
+        Map<String, Integer> columns = new HashMap<>();
+        List<ExchangeRate> rates = new ArrayList<>();
+        List<ManifestRowError> errors = new ArrayList<>();
+
+        ManifestRowReader.readCsv(in, (rowNumber, cells) -> {
+            if (columns.isEmpty()) {
+                for (int i = 0; i < cells.size(); i++) {
+                    columns.put(cells.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z]", ""), i);
+                }
+                return;
+            }
+            String currency = cell(cells, columns.get("currency"));
+            String date = cell(cells, columns.getOrDefault("effectivedate", columns.get("date")));
+            String rate = cell(cells, columns.getOrDefault("phpperunit", columns.get("rate")));
+            if (currency == null || currency.length() != 3) {
+                errors.add(error(rowNumber, "currency", "Currency must be a 3-letter code"));
+                return;
+            }
+            LocalDate effectiveDate = parseDate(date);
+            if (effectiveDate == null) {
+                errors.add(error(rowNumber, "effectiveDate", "Invalid date (expected yyyy-MM-dd): " + date));
+                return;
+            }
+            BigDecimal phpPerUnit = parseRate(rate);
+            if (phpPerUnit == null) {
+                errors.add(error(rowNumber, "phpPerUnit", "Invalid rate (must be a positive number): " + rate));
+                return;
+            }
+            rates.add(ExchangeRate.builder()
+                    .currency(currency.toUpperCase(Locale.ROOT))
+                    .effectiveDate(effectiveDate)
+                    .phpPerUnit(phpPerUnit)
+                    .source(source)
+                    .build());
+        });
+
+        if (columns.isEmpty()) {
+            errors.add(error(1, null, "Rate file is empty"));
+        }
+        if (!errors.isEmpty()) {
+            throw new RateFileValidationException(errors);
+        }
+        return rates;
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return value != null ? LocalDate.parse(value) : null;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static BigDecimal parseRate(String value) {
+        try {
+            BigDecimal rate = value != null ? new BigDecimal(value.replace(",", "")) : null;
+            return rate != null && rate.signum() > 0 ? rate : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static ManifestRowError error(int row, String field, String message) {
+        return ManifestRowError.builder().row(row).field(field).message(message).build();
+    }
+
+    private static String cell(List<String> cells, Integer index) {
+        if (index == null || index >= cells.size()) {
+            return null;
+        }
+        String value = cells.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+}
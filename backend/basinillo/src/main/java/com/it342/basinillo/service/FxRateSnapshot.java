@@ -0,0 +1,123 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.entity.ExchangeRate;
+import com.it342.basinillo.entity.ShipmentItem;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, read-only view of every dated exchange rate, indexed per currency as sorted
+ * day arrays so a lookup is one map hit plus a binary search, with no locks or DB access.
+ * {@link FxRateService} swaps in a new instance on reload; callers that already hold the
+ * old one keep a consistent set of rates for the rest of their work.
+ */
+public final class FxRateSnapshot {
+
+    public static final String BASE_CURRENCY = "PHP";
+    public static final FxRateSnapshot EMPTY = new FxRateSnapshot(Map.of(), 0, null);
+
+    private final Map<String, Series> byCurrency;
+    private final int size;
+    private final LocalDateTime loadedAt;
+
+    private FxRateSnapshot(Map<String, Series> byCurrency, int size, LocalDateTime loadedAt) {
+        this.byCurrency = byCurrency;
+        this.size = size;
+        this.loadedAt = loadedAt;
+    }
+
+    public static FxRateSnapshot of(List<ExchangeRate> rates, LocalDateTime loadedAt) {
+        Map<String, List<ExchangeRate>> grouped = new HashMap<>();
+        for (ExchangeRate rate : rates) {
+            grouped.computeIfAbsent(rate.getCurrency().toUpperCase(Locale.ROOT), c -> new ArrayList<>()).add(rate);
+        }
+
+        Map<String, Series> series = new HashMap<>();
+        grouped.forEach((currency, list) -> {
+            list.sort(Comparator.comparing(ExchangeRate::getEffectiveDate));
+            long[] days = new long[list.size()];
+            BigDecimal[] values = new BigDecimal[list.size()];
+            for (int i = 0; i < list.size(); i++) {
+                days[i] = list.get(i).getEffectiveDate().toEpochDay();
+                values[i] = list.get(i).getPhpPerUnit();
+            }
+            series.put(currency, new Series(days, values));
+        });
+        return new FxRateSnapshot(Map.copyOf(series), rates.size(), loadedAt);
+    }
+
+    /**
+     * PHP per unit of {@code currency} on {@code date}: the latest rate effective on or before it.
+     * Returns null for an unknown currency or a date before the first known rate.
+     */
+    public BigDecimal rateFor(String currency, LocalDate date) {
+        if (BASE_CURRENCY.equalsIgnoreCase(currency)) {
+            return BigDecimal.ONE;
+        }
+        Series series = byCurrency.get(currency);
+        if (series == null) {
+            series = byCurrency.get(currency.trim().toUpperCase(Locale.ROOT));
+        }
+        return series == null ? null : series.on(date.toEpochDay());
+    }
+
+    /**
+     * Fills {@code exchangeRate} and {@code phpConvertedValue} (rounded to centavos) from the
+     * item's declared value and currency. Clears both when no rate applies.
+     * Returns whether the item was converted.
+     */
+    public boolean convert(ShipmentItem item, LocalDate date) {
+        BigDecimal rate = item.getDeclaredValue() == null || item.getCurrency() == null
+                ? null
+                : rateFor(item.getCurrency(), date);
+        item.setExchangeRate(rate);
+        item.setPhpConvertedValue(rate == null ? null
+                : item.getDeclaredValue().multiply(rate).setScale(2, RoundingMode.HALF_UP));
+        return rate != null;
+    }
+
+    /** The most recent rate of every currency, sorted by currency code. */
+    public List<ExchangeRate> latest() {
+        return byCurrency.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> {
+                    int last = e.getValue().days().length - 1;
+                    return ExchangeRate.builder()
+                            .currency(e.getKey())
+                            .effectiveDate(LocalDate.ofEpochDay(e.getValue().days()[last]))
+                            .phpPerUnit(e.getValue().rates()[last])
+                            .build();
+                })
+                .toList();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public LocalDateTime getLoadedAt() {
+        return loadedAt;
+    }
+
+    /** Rates of one currency, ascending by effective day. */
+    private record Series(long[] days, BigDecimal[] rates) {
+
+        BigDecimal on(long day) {
+            int i = Arrays.binarySearch(days, day);
+            if (i < 0) {
+                i = -i - 2;
+            }
+            return i < 0 ? null : rates[i];
+        }
+    }
+}
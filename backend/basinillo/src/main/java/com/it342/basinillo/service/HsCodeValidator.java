@@ -0,0 +1,17 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.dto.ValidHsCode;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Checks the format of {@link ValidHsCode} fields only. The bundled schedule is an excerpt, so a
+ * well-formed code it does not list is accepted here and flagged as unknown on the duty estimate.
+ */
+public class HsCodeValidator implements ConstraintValidator<ValidHsCode, String> {
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        return value == null || value.isBlank() || TariffSchedule.canonical(value) != null;
+    }
+}
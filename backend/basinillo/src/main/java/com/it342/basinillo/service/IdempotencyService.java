@@ -0,0 +1,220 @@
+package com.it342.basinillo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.it342.basinillo.config.IdempotencyProperties;
+import com.it342.basinillo.entity.IdempotencyRecord;
+import com.it342.basinillo.entity.User;
+import com.it342.basinillo.exception.IdempotencyKeyException;
+import com.it342.basinillo.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Makes retried POSTs safe. The first request with a given {@code Idempotency-Key} runs and
+ * its response is stored; retries within the TTL get that stored response back without the
+ * action running again. The action and the stored response commit in one transaction, so a
+ * crash can never leave a created row without its recorded response.
+ * <p>
+ * The in-flight lock lasts {@code idempotency.lock-seconds} and is renewed while a long
+ * {@code prepare} step (an upload) runs, so a retry cannot reclaim the key mid-upload. A holder
+ * whose lock was reclaimed anyway cannot store its response: its transaction rolls back.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final IdempotencyProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService lockRenewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "idempotency-lock-renewer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public IdempotencyService(IdempotencyRecordRepository recordRepository,
+                              IdempotencyProperties properties,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.recordRepository = recordRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs {@code action} once per (user, key). Without a key the action simply runs.
+     *
+     * @param scope    endpoint identifier; the same key on another endpoint is a mismatch
+     * @param request  payload fingerprinted to detect a key reused for a different request
+     * @param bodyType type of the response body, used to replay the stored JSON
+     */
+    public <T> ResponseEntity<T> execute(String key, User user, String scope, Object request,
+                                         TypeReference<T> bodyType, Supplier<ResponseEntity<T>> action) {
+        return execute(key, user, scope, request, bodyType, () -> null, ignored -> action.get());
+    }
+
+    /**
+     * Two-phase variant for work that must not hold a transaction open, such as streaming a file
+     * to storage: {@code prepare} runs after the key is locked and outside any transaction, then
+     * {@code action} receives its result and runs in the transaction that stores the response.
+     * If {@code action} fails, cleaning up what {@code prepare} produced is the caller's job.
+     */
+    public <P, T> ResponseEntity<T> execute(String key, User user, String scope, Object request,
+                                            TypeReference<T> bodyType, Supplier<P> prepare,
+                                            Function<P, ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.apply(prepare.get());
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyKeyException(HttpStatus.BAD_REQUEST, "IDEM-001",
+                    HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+
+        String requestHash = fingerprint(scope, request);
+        String lockToken = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        Integer locked = transactionTemplate.execute(tx -> recordRepository.tryLock(
+                user.getId(), key, requestHash, lockToken, now.plusSeconds(properties.getLockSeconds()),
+                now, now.plusHours(properties.getTtlHours())));
+
+        if (locked == null || locked == 0) {
+            return replay(user, key, requestHash, bodyType);
+        }
+
+        try {
+            P prepared = holdingLock(user.getId(), key, lockToken, prepare);
+            ResponseEntity<T> response = transactionTemplate.execute(tx -> {
+                ResponseEntity<T> result = action.apply(prepared);
+                int completed = recordRepository.complete(user.getId(), key, lockToken,
+                        result.getStatusCode().value(), toJson(result.getBody()), LocalDateTime.now());
+                if (completed == 0) {
+                    // another request reclaimed the key; rolling back keeps the action from happening twice
+                    throw inFlight(key);
+                }
+                return result;
+            });
+            count("executed");
+            return response;
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(tx -> recordRepository.release(user.getId(), key, lockToken));
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void stopRenewing() {
+        lockRenewer.shutdownNow();
+    }
+
+    @Scheduled(cron = "0 45 * * * *")
+    public void purgeExpired() {
+        Integer deleted = transactionTemplate.execute(tx -> recordRepository.deleteExpired(LocalDateTime.now()));
+        log.debug("Purged {} expired idempotency keys", deleted);
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    /** Runs {@code prepare}, pushing the key's lock forward every third of its length meanwhile. */
+    private <P> P holdingLock(Long userId, String key, String lockToken, Supplier<P> prepare) {
+        long lockSeconds = properties.getLockSeconds();
+        long period = Math.max(1, TimeUnit.SECONDS.toMillis(lockSeconds) / 3);
+        ScheduledFuture<?> renewal = lockRenewer.scheduleAtFixedRate(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(tx -> recordRepository.renew(
+                        userId, key, lockToken, LocalDateTime.now().plusSeconds(lockSeconds)));
+            } catch (RuntimeException e) {
+                log.warn("Could not renew the lock on idempotency key {}: {}", key, e.getMessage());
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+        try {
+            return prepare.get();
+        } finally {
+            renewal.cancel(false);
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(User user, String key, String requestHash, TypeReference<T> bodyType) {
+        IdempotencyRecord record = recordRepository.findByUserIdAndIdempotencyKey(user.getId(), key)
+                .orElseThrow(() -> inFlight(key));
+        if (!record.getRequestHash().equals(requestHash)) {
+            count("mismatch");
+            throw new IdempotencyKeyException(HttpStatus.UNPROCESSABLE_ENTITY, "IDEM-003",
+                    HEADER + " '" + key + "' was already used for a different request");
+        }
+        if (record.getCompletedAt() == null) {
+            throw inFlight(key);
+        }
+
+        count("replayed");
+        try {
+            T body = objectMapper.readValue(record.getResponseBody(), bodyType);
+            return ResponseEntity.status(record.getResponseStatus())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for idempotency key is unreadable", e);
+        }
+    }
+
+    private IdempotencyKeyException inFlight(String key) {
+        count("conflict");
+        return new IdempotencyKeyException(HttpStatus.CONFLICT, "IDEM-002",
+                "A request with " + HEADER + " '" + key + "' is still in progress");
+    }
+
+    private String fingerprint(String scope, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(scope.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store response for idempotency key", e);
+        }
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("idempotency.requests", "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,102 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.config.LaneEscalationProperties;
+import com.it342.basinillo.dto.LaneEscalationResult;
+import com.it342.basinillo.enums.ShipmentLane;
+import com.it342.basinillo.enums.ShipmentStatus;
+import com.it342.basinillo.repository.ShipmentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Automatic lane escalation from days-to-doomsday and status.
+ * Each configured rule is one set-based UPDATE that only moves shipments to a higher lane,
+ * so runs are idempotent and safe to overlap across app instances.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LaneEscalationService {
+
+    private final ShipmentRepository shipmentRepository;
+    private final LaneEscalationProperties properties;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Scheduled(fixedDelayString = "${lanes.escalation.interval-ms:300000}",
+               initialDelayString = "${lanes.escalation.interval-ms:300000}")
+    public void scheduledRun() {
+        if (properties.isEnabled()) {
+            escalate();
+        }
+    }
+
+    public LaneEscalationResult escalate() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        long start = System.nanoTime();
+        Map<String, Integer> rowsByRule = new LinkedHashMap<>();
+        for (LaneEscalationProperties.Rule rule : properties.getRules()) {
+            List<String> fromLanes = lowerLanes(rule.getTargetLane());
+            if (fromLanes.isEmpty()) {
+                continue;
+            }
+            LocalDate cutoff = today.plusDays(rule.getMaxDaysToDoomsday());
+            Integer rows = tx.execute(status -> shipmentRepository.escalateLanes(
+                    rule.getTargetLane().name(),
+                    fromLanes,
+                    statusNames(rule.getStatuses()),
+                    cutoff,
+                    now));
+            int touched = rows != null ? rows : 0;
+            rowsByRule.put(rule.getName(), touched);
+            meterRegistry.counter("lanes.escalated", "rule", rule.getName()).increment(touched);
+        }
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+
+        int total = rowsByRule.values().stream().mapToInt(Integer::intValue).sum();
+        if (total > 0) {
+            log.info("Lane escalation touched {} shipments in {} ms: {}", total, durationMs, rowsByRule);
+        }
+
+        return LaneEscalationResult.builder()
+                .ranAt(now)
+                .rowsByRule(rowsByRule)
+                .totalRows(total)
+                .durationMs(durationMs)
+                .build();
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    private List<String> lowerLanes(ShipmentLane target) {
+        return Arrays.stream(ShipmentLane.values())
+                .filter(lane -> lane.ordinal() < target.ordinal())
+                .map(Enum::name)
+                .toList();
+    }
+
+    private List<String> statusNames(List<ShipmentStatus> statuses) {
+        if (statuses == null || statuses.isEmpty()) {
+            return Arrays.stream(ShipmentStatus.values())
+                    .filter(status -> status != ShipmentStatus.RELEASED)
+                    .map(Enum::name)
+                    .toList();
+        }
+        return statuses.stream().map(Enum::name).toList();
+    }
+}
@@ -0,0 +1,257 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.dto.CreateShipmentRequest;
+import com.it342.basinillo.dto.ManifestImportResponse;
+import com.it342.basinillo.dto.ManifestRowError;
+import com.it342.basinillo.dto.ShipmentItemRequest;
+import com.it342.basinillo.entity.User;
+import com.it342.basinillo.exception.ManifestValidationException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Vessel manifest import (CSV or XLSX).
+ * One row per cargo line; rows sharing a {@code reference} (or, without one, the same
+ * vessel/voyage/client/containers) become one shipment. Header names are matched
+ * case- and punctuation-insensitively, e.g. "Vessel Name" → vesselName.
+ * The import is all-or-nothing: any invalid row rejects the whole file with per-row errors.
+ */
+@Service
+@RequiredArgsConstructor
+public class ManifestImportService {
+
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("M/d/yyyy"),
+            DateTimeFormatter.ofPattern("M/d/yy"));
+
+    private final ShipmentService shipmentService;
+    private final Validator validator;
+
+    @Value("${manifest.import.max-rows:5000}")
+    private int maxRows;
+
+    public ManifestImportResponse importManifest(MultipartFile file, User currentUser) {
+        long start = System.nanoTime();
+        ManifestAccumulator accumulator = new ManifestAccumulator();
+
+        try {
+            if (isXlsx(file)) {
+                Path temp = Files.createTempFile("manifest-", ".xlsx");
+                try {
+                    file.transferTo(temp);
+                    ManifestRowReader.readXlsx(temp.toFile(), accumulator);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            } else {
+                try (InputStream in = file.getInputStream()) {
+                    ManifestRowReader.readCsv(in, accumulator);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read manifest: " + e.getMessage(), e);
+        }
+
+        accumulator.validate();
+        if (!accumulator.errors.isEmpty()) {
+            throw new ManifestValidationException(accumulator.errors);
+        }
+
+        List<CreateShipmentRequest> requests = accumulator.groups.values().stream()
+                .map(group -> group.request)
+                .toList();
+        List<Long> ids = shipmentService.importShipments(requests, currentUser);
+        int items = requests.stream().mapToInt(r -> r.getItems().size()).sum();
+
+        return ManifestImportResponse.builder()
+                .rowsRead(accumulator.dataRows)
+                .shipmentsCreated(ids.size())
+                .itemsCreated(items)
+                .durationMs((System.nanoTime() - start) / 1_000_000)
+                .shipmentIds(ids)
+                .build();
+    }
+
+    private boolean isXlsx(MultipartFile file) {
+        String name = file.getOriginalFilename();
+        return name != null && name.toLowerCase(Locale.ROOT).endsWith(".xlsx");
+    }
+
+    // ── Row accumulation ─────────────────────────────────────
+
+    /** Rows of one shipment: the request being built and the sheet row of each item. */
+    private static final class ShipmentGroup {
+        private final CreateShipmentRequest request = new CreateShipmentRequest();
+        private final int firstRow;
+        private final List<Integer> itemRows = new ArrayList<>();
+
+        private ShipmentGroup(int firstRow) {
+            this.firstRow = firstRow;
+            request.setItems(new ArrayList<>());
+        }
+    }
+
+    private final class ManifestAccumulator implements ManifestRowReader.RowHandler {
+
+        private final Map<String, Integer> columns = new HashMap<>();
+        private final Map<String, ShipmentGroup> groups = new LinkedHashMap<>();
+        private final List<ManifestRowError> errors = new ArrayList<>();
+        private int dataRows;
+
+        @Override
+        public void onRow(int rowNumber, List<String> cells) {
+            if (columns.isEmpty()) {
+                for (int i = 0; i < cells.size(); i++) {
+                    columns.put(normalize(cells.get(i)), i);
+                }
+                return;
+            }
+            if (++dataRows > maxRows) {
+                errors.add(error(rowNumber, null, "Manifest exceeds the limit of " + maxRows + " rows"));
+                throw new ManifestValidationException(errors);
+            }
+
+            RowValues row = new RowValues(rowNumber, cells);
+            String reference = row.text("reference");
+            String key = reference != null ? reference
+                    : String.join("|", String.valueOf(row.text("vesselName")), String.valueOf(row.text("voyageNumber")),
+                                       String.valueOf(row.text("clientName")), String.valueOf(row.text("containerNumbers")));
+
+            ShipmentGroup group = groups.get(key);
+            if (group == null) {
+                group = new ShipmentGroup(rowNumber);
+                CreateShipmentRequest req = group.request;
+                req.setVesselName(row.text("vesselName"));
+                req.setVoyageNumber(row.text("voyageNumber"));
+                req.setArrivalDate(row.date("arrivalDate"));
+                req.setPortOfDischarge(row.text("portOfDischarge"));
+                req.setClientName(row.text("clientName"));
+                req.setContainerNumbers(row.text("containerNumbers"));
+                req.setDescriptionOfGoods(row.text("descriptionOfGoods"));
+                req.setFreeDays(row.integer("freeDays"));
+                req.setEntryNumber(row.text("entryNumber"));
+                req.setOrNumber(row.text("orNumber"));
+                groups.put(key, group);
+            }
+
+            if (row.text("itemDescription") != null || row.text("hsCode") != null) {
+                ShipmentItemRequest item = new ShipmentItemRequest(
+                        row.text("itemDescription"),
+                        row.text("hsCode"),
+                        row.integer("quantity"),
+                        row.decimal("declaredValue"),
+                        row.text("currency"));
+                group.request.getItems().add(item);
+                group.itemRows.add(rowNumber);
+            }
+        }
+
+        /** Bean Validation on the assembled requests, mapped back to sheet rows. */
+        private void validate() {
+            if (columns.isEmpty()) {
+                errors.add(error(1, null, "Manifest is empty"));
+                return;
+            }
+            for (ShipmentGroup group : groups.values()) {
+                for (ConstraintViolation<CreateShipmentRequest> v : validator.validate(group.request)) {
+                    String path = v.getPropertyPath().toString();
+                    int row = group.firstRow;
+                    if (path.startsWith("items[")) {
+                        int index = Integer.parseInt(path.substring(6, path.indexOf(']')));
+                        row = group.itemRows.get(index);
+                        path = path.substring(path.indexOf('.') + 1);
+                    }
+                    errors.add(error(row, path, v.getMessage()));
+                }
+            }
+            errors.sort((a, b) -> Integer.compare(a.getRow(), b.getRow()));
+        }
+
+        /** Typed access to one row's cells by header; parse failures are recorded as row errors. */
+        private final class RowValues {
+            private final int rowNumber;
+            private final List<String> cells;
+
+            private RowValues(int rowNumber, List<String> cells) {
+                this.rowNumber = rowNumber;
+                this.cells = cells;
+            }
+
+            private String text(String column) {
+                Integer index = columns.get(column.toLowerCase(Locale.ROOT));
+                if (index == null || index >= cells.size()) {
+                    return null;
+                }
+                String value = cells.get(index).trim();
+                return value.isEmpty() ? null : value;
+            }
+
+            private LocalDate date(String column) {
+                String value = text(column);
+                if (value == null) {
+                    return null;
+                }
+                for (DateTimeFormatter format : DATE_FORMATS) {
+                    try {
+                        return LocalDate.parse(value, format);
+                    } catch (DateTimeParseException ignored) {
+                        // try the next accepted format
+                    }
+                }
+                errors.add(error(rowNumber, column, "Invalid date: " + value));
+                return null;
+            }
+
+            private Integer integer(String column) {
+                String value = text(column);
+                try {
+                    return value != null ? Integer.valueOf(value.replace(",", "")) : null;
+                } catch (NumberFormatException e) {
+                    errors.add(error(rowNumber, column, "Invalid whole number: " + value));
+                    return null;
+                }
+            }
+
+            private BigDecimal decimal(String column) {
+                String value = text(column);
+                try {
+                    return value != null ? new BigDecimal(value.replace(",", "")) : null;
+                } catch (NumberFormatException e) {
+                    errors.add(error(rowNumber, column, "Invalid amount: " + value));
+                    return null;
+                }
+            }
+        }
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    private static String normalize(String header) {
+        return header.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+
+    private static ManifestRowError error(int row, String field, String message) {
+        return ManifestRowError.builder().row(row).field(field).message(message).build();
+    }
+}
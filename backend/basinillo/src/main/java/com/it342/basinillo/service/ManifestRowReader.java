@@ -0,0 +1,159 @@
+package com.it342.basinillo.service;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Streams manifest rows out of CSV or XLSX files one at a time, so the
+ * whole sheet is never materialized in memory.
+ */
+public final class ManifestRowReader {
+
+    /** Receives each physical row (header included). Row numbers are 1-based. */
+    @FunctionalInterface
+    public interface RowHandler {
+        void onRow(int rowNumber, List<String> cells);
+    }
+
+    private ManifestRowReader() {
+    }
+
+    // ── CSV (RFC 4180: quoted fields, "" escapes, embedded newlines) ─
+
+    public static void readCsv(InputStream in, RowHandler handler) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> cells = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean rowHasContent = false;
+        int rowNumber = 0;
+
+        int c = reader.read();
+        if (c == '\uFEFF') {
+            c = reader.read();
+        }
+        for (; c != -1; c = reader.read()) {
+            char ch = (char) c;
+            if (inQuotes) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append(ch);
+                }
+                continue;
+            }
+            switch (ch) {
+                case '"' -> {
+                    inQuotes = true;
+                    rowHasContent = true;
+                }
+                case ',' -> {
+                    cells.add(field.toString());
+                    field.setLength(0);
+                    rowHasContent = true;
+                }
+                case '\r' -> { }
+                case '\n' -> {
+                    if (rowHasContent || field.length() > 0) {
+                        cells.add(field.toString());
+                        handler.onRow(++rowNumber, cells);
+                    }
+                    cells = new ArrayList<>();
+                    field.setLength(0);
+                    rowHasContent = false;
+                }
+                default -> {
+                    field.append(ch);
+                    rowHasContent = true;
+                }
+            }
+        }
+        if (rowHasContent || field.length() > 0) {
+            cells.add(field.toString());
+            handler.onRow(++rowNumber, cells);
+        }
+    }
+
+    // ── XLSX (SAX event model, first sheet only) ─────────────
+
+    public static void readXlsx(File file, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader xssfReader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            Iterator<InputStream> sheets = xssfReader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        xssfReader.getStylesTable(), null, strings,
+                        new SheetRowCollector(handler), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Could not read XLSX manifest: " + e.getMessage(), e);
+        }
+    }
+
+    /** Adapts POI's cell callbacks to whole rows, filling gaps left by blank cells. */
+    private static final class SheetRowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+        private List<String> cells;
+
+        private SheetRowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new ArrayList<>();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (!cells.isEmpty()) {
+                handler.onRow(rowNum + 1, cells);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = new CellReference(cellReference).getCol();
+            while (cells.size() < column) {
+                cells.add("");
+            }
+            cells.add(formattedValue);
+        }
+    }
+}
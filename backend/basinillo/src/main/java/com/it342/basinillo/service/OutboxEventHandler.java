@@ -0,0 +1,17 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.entity.OutboxEvent;
+import com.it342.basinillo.enums.OutboxEventType;
+
+/**
+ * Pluggable consumer of outbox events. Register an implementation as a Spring bean
+ * and {@link OutboxRelay} will dispatch matching events to it outside any DB transaction.
+ * Delivery is at-least-once, so implementations must be idempotent. Events of a type that no
+ * handler supports are not claimed: they stay pending until a handler for them is registered.
+ */
+public interface OutboxEventHandler {
+
+    boolean supports(OutboxEventType type);
+
+    void handle(OutboxEvent event) throws Exception;
+}
@@ -0,0 +1,201 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.config.OutboxProperties;
+import com.it342.basinillo.entity.OutboxEvent;
+import com.it342.basinillo.enums.OutboxEventType;
+import com.it342.basinillo.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dispatches outbox events to {@link OutboxEventHandler}s. Only types some handler supports are
+ * claimed, so an event is never marked processed without having been handled. Events of the other
+ * types wait for a handler for {@code unhandled-retention-hours} and are then deleted; how many are
+ * waiting is published as {@code outbox.events.unhandled}, which {@code outbox.lag.seconds} does not cover.
+ * Each cycle holds a DB connection only for two short transactions (claim, acknowledge);
+ * handlers run in between with no connection checked out of the pool.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectProvider<OutboxEventHandler> handlers;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final String instanceId = ManagementFactory.getRuntimeMXBean().getName();
+
+    private final MeterRegistry meterRegistry;
+    private final Timer batchTimer;
+    private final Counter failedCounter;
+    private final Counter abandonedCounter;
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final AtomicLong unhandled = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       ObjectProvider<OutboxEventHandler> handlers,
+                       OutboxProperties properties,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.handlers = handlers;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.batchTimer = Timer.builder("outbox.relay.batch").register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.events.failed").register(meterRegistry);
+        this.abandonedCounter = Counter.builder("outbox.events.abandoned").register(meterRegistry);
+        Gauge.builder("outbox.lag.seconds", lagSeconds, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("outbox.events.unhandled", unhandled, AtomicLong::get).register(meterRegistry);
+    }
+
+    // ── Polling ──────────────────────────────────────────────
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:1000}")
+    public void poll() {
+        if (handledTypes().isEmpty()) {
+            return;
+        }
+        int dispatched;
+        do {
+            dispatched = batchTimer.record(this::relayBatch);
+        } while (dispatched == properties.getBatchSize());
+        refreshLag();
+    }
+
+    @Scheduled(cron = "0 15 * * * *")
+    public void purgeProcessed() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(properties.getRetentionHours());
+        Integer deleted = transactionTemplate.execute(tx -> outboxEventRepository.deleteProcessedBefore(cutoff));
+        log.debug("Purged {} processed outbox events", deleted);
+    }
+
+    /** Deletes events no handler has picked up within the retention period, so they cannot pile up. */
+    @Scheduled(cron = "0 45 * * * *")
+    public void purgeUnhandled() {
+        List<String> types = unhandledTypes();
+        if (types.isEmpty()) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(properties.getUnhandledRetentionHours());
+        Integer deleted = transactionTemplate.execute(tx -> outboxEventRepository.deletePendingBefore(types, cutoff));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} outbox events of types {} that no handler supports", deleted, types);
+        }
+        refreshUnhandled();
+    }
+
+    @Scheduled(cron = "0 * * * * *")
+    public void refreshUnhandled() {
+        List<String> types = unhandledTypes();
+        unhandled.set(types.isEmpty() ? 0 : outboxEventRepository.countPending(types));
+    }
+
+    /** Claims, dispatches and acknowledges one batch. Returns the number of claimed events. */
+    int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusSeconds(properties.getLeaseSeconds());
+        List<String> types = handledTypes();
+        if (types.isEmpty()) {
+            return 0;
+        }
+        List<OutboxEvent> batch = transactionTemplate.execute(tx ->
+                outboxEventRepository.claimBatch(instanceId, now, leaseUntil, properties.getBatchSize(), types));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> succeeded = new ArrayList<>(batch.size());
+        List<OutboxEvent> failed = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        for (OutboxEvent event : batch) {
+            try {
+                dispatch(event);
+                succeeded.add(event.getId());
+                meterRegistry.counter("outbox.events.dispatched", "type", event.getEventType().name()).increment();
+            } catch (Exception e) {
+                log.warn("Outbox event {} ({}) failed on attempt {}", event.getId(), event.getEventType(),
+                        event.getAttempts(), e);
+                failed.add(event);
+                errors.add(truncate(e.toString()));
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(tx -> acknowledge(succeeded, failed, errors));
+        return batch.size();
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    /** Names of the event types at least one registered handler supports. */
+    private List<String> handledTypes() {
+        List<OutboxEventHandler> registered = handlers.orderedStream().toList();
+        return Arrays.stream(OutboxEventType.values())
+                .filter(type -> registered.stream().anyMatch(handler -> handler.supports(type)))
+                .map(Enum::name)
+                .toList();
+    }
+
+    private List<String> unhandledTypes() {
+        List<String> handled = handledTypes();
+        return Arrays.stream(OutboxEventType.values())
+                .map(Enum::name)
+                .filter(type -> !handled.contains(type))
+                .toList();
+    }
+
+    private void dispatch(OutboxEvent event) throws Exception {
+        for (OutboxEventHandler handler : handlers.orderedStream().toList()) {
+            if (handler.supports(event.getEventType())) {
+                handler.handle(event);
+            }
+        }
+    }
+
+    private void acknowledge(List<Long> succeeded, List<OutboxEvent> failed, List<String> errors) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!succeeded.isEmpty()) {
+            outboxEventRepository.markProcessed(succeeded, instanceId, now);
+        }
+        for (int i = 0; i < failed.size(); i++) {
+            OutboxEvent event = failed.get(i);
+            if (event.getAttempts() >= properties.getMaxAttempts()) {
+                outboxEventRepository.markAbandoned(event.getId(), instanceId, errors.get(i), now);
+                abandonedCounter.increment();
+            } else {
+                long backoff = properties.getRetryBackoffSeconds() * event.getAttempts();
+                outboxEventRepository.markFailed(event.getId(), instanceId, errors.get(i), now.plusSeconds(backoff));
+                failedCounter.increment();
+            }
+        }
+    }
+
+    private void refreshLag() {
+        LocalDateTime oldest = outboxEventRepository.findOldestPendingCreatedAt(handledTypes()).orElse(null);
+        lagSeconds.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toSeconds()));
+    }
+
+    private String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
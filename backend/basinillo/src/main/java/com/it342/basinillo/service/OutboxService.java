@@ -0,0 +1,58 @@
+package com.it342.basinillo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.it342.basinillo.entity.OutboxEvent;
+import com.it342.basinillo.entity.Shipment;
+import com.it342.basinillo.enums.OutboxEventType;
+import com.it342.basinillo.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes outbox rows. MANDATORY propagation guarantees the event commits (or rolls back)
+ * together with the mutation that caused it; the side effect itself runs later in {@link OutboxRelay}.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    public static final String AGGREGATE_SHIPMENT = "Shipment";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordShipmentEvent(Shipment shipment, OutboxEventType type) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("shipmentId", shipment.getId());
+        payload.put("userId", shipment.getUser().getId());
+        payload.put("status", shipment.getStatus());
+        payload.put("lane", shipment.getLane());
+        record(AGGREGATE_SHIPMENT, shipment.getId(), type, payload);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, Long aggregateId, OutboxEventType type, Map<String, Object> payload) {
+        OutboxEvent event = OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(type)
+                .payload(toJson(payload))
+                .build();
+        outboxEventRepository.save(event);
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload", e);
+        }
+    }
+}
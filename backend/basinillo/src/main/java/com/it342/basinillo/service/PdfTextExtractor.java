@@ -0,0 +1,72 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.config.DocumentTextProperties;
+import lombok.RequiredArgsConstructor;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+
+/**
+ * The text layer of a PDF, via PDFBox. The file is parsed from disk with a temp-file stream
+ * cache, so a large scan does not land on the heap. Pure image scans have no text layer and
+ * come out empty; that needs an OCR extractor.
+ */
+@Component
+@Order(1)
+@RequiredArgsConstructor
+public class PdfTextExtractor implements DocumentTextExtractor {
+
+    private final DocumentTextProperties properties;
+
+    @Override
+    public boolean supports(String contentType) {
+        return "application/pdf".equalsIgnoreCase(contentType);
+    }
+
+    @Override
+    public String extract(Path file, int maxChars) throws IOException {
+        try (PDDocument pdf = Loader.loadPDF(file.toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setSortByPosition(true);
+            stripper.setEndPage(properties.getMaxPdfPages());
+            BoundedWriter out = new BoundedWriter(maxChars);
+            stripper.writeText(pdf, out);
+            return out.toString();
+        }
+    }
+
+    /** Keeps the first {@code limit} characters and discards the rest. */
+    private static final class BoundedWriter extends Writer {
+        private final StringBuilder text = new StringBuilder();
+        private final int limit;
+
+        private BoundedWriter(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            text.append(chars, offset, Math.min(length, Math.max(0, limit - text.length())));
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.it342.basinillo.service;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Set;
+
+/** text/*, CSV and XML documents, read as UTF-8 (malformed bytes replaced). */
+@Component
+@Order(2)
+public class PlainTextExtractor implements DocumentTextExtractor {
+
+    private static final Set<String> TYPES = Set.of("application/csv", "application/xml", "application/json");
+
+    @Override
+    public boolean supports(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("text/") || TYPES.contains(type);
+    }
+
+    @Override
+    public String extract(Path file, int maxChars) throws IOException {
+        try (Reader reader = new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8
+                .newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE))) {
+            char[] text = new char[maxChars];
+            int length = 0;
+            for (int n; length < maxChars && (n = reader.read(text, length, maxChars - length)) >= 0; ) {
+                length += n;
+            }
+            return new String(text, 0, length);
+        }
+    }
+}
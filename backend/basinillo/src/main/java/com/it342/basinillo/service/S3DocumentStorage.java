@@ -0,0 +1,282 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.config.R2Properties;
+import com.it342.basinillo.config.StorageProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ContentDisposition;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.ChecksumMode;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cloudflare R2 (or any S3-compatible store) backend. Uploads are streamed in
+ * {@code storage.part-size-bytes} parts through one reusable buffer, so an upload never holds
+ * more than a single part in memory: objects that fit in one part are sent with a plain PUT,
+ * larger ones with a multipart upload that is aborted if anything fails. Also issues presigned
+ * PUT/GET URLs so clients can move bytes to and from the bucket without passing through us.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "storage", name = "backend", havingValue = "r2")
+public class S3DocumentStorage implements DocumentStorage, DisposableBean {
+
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private final S3Client s3;
+    private final S3Presigner presigner;
+    private final String bucket;
+    private final String endpoint;
+    private final int partSize;
+
+    public S3DocumentStorage(R2Properties r2, StorageProperties storage) {
+        this.bucket = r2.getBucket();
+        this.endpoint = r2.getEndpoint();
+        this.partSize = Math.max(storage.getPartSizeBytes(), MIN_PART_SIZE);
+        StaticCredentialsProvider credentials = StaticCredentialsProvider.create(
+                AwsBasicCredentials.create(r2.getAccessKey(), r2.getSecretKey()));
+        S3Configuration pathStyle = S3Configuration.builder().pathStyleAccessEnabled(true).build();
+        this.s3 = S3Client.builder()
+                .endpointOverride(URI.create(r2.getEndpoint()))
+                .region(Region.of(r2.getRegion()))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(pathStyle)
+                .build();
+        this.presigner = S3Presigner.builder()
+                .endpointOverride(URI.create(r2.getEndpoint()))
+                .region(Region.of(r2.getRegion()))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(pathStyle)
+                .build();
+    }
+
+    @Override
+    public String name() {
+        return "r2";
+    }
+
+    @Override
+    public StoredObject put(String key, InputStream content, long contentLength, String contentType) throws IOException {
+        byte[] buffer = new byte[contentLength >= 0 && contentLength < partSize ? (int) contentLength + 1 : partSize];
+        int read = readFully(content, buffer);
+        try {
+            if (read < buffer.length) {
+                int size = read;
+                s3.putObject(b -> b.bucket(bucket).key(key).contentType(contentType).contentLength((long) size),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, size), size));
+                return new StoredObject(key, size, contentType, null);
+            }
+        } catch (SdkException e) {
+            throw new IOException("R2 upload failed for " + key, e);
+        }
+        if (buffer.length < partSize) {
+            // the declared length was short; fall back to full-size parts
+            byte[] part = Arrays.copyOf(buffer, partSize);
+            read += readFully(content, part, read);
+            return putMultipart(key, content, contentType, part, read);
+        }
+        return putMultipart(key, content, contentType, buffer, read);
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return s3.getObject(b -> b.bucket(bucket).key(key));
+        } catch (SdkException e) {
+            throw new IOException("R2 download failed for " + key, e);
+        }
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        if (length <= 0) {
+            return InputStream.nullInputStream();
+        }
+        String range = "bytes=" + offset + "-" + (offset + length - 1);
+        try {
+            return s3.getObject(b -> b.bucket(bucket).key(key).range(range));
+        } catch (SdkException e) {
+            throw new IOException("R2 download failed for " + key, e);
+        }
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) throws IOException {
+        try {
+            HeadObjectResponse head = s3.headObject(b -> b.bucket(bucket).key(key).checksumMode(ChecksumMode.ENABLED));
+            String sha256 = head.checksumSHA256() == null ? null
+                    : HexFormat.of().formatHex(Base64.getDecoder().decode(head.checksumSHA256()));
+            return Optional.of(new StoredObject(key, head.contentLength(), head.contentType(), sha256));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw new IOException("R2 stat failed for " + key, e);
+        } catch (SdkException e) {
+            throw new IOException("R2 stat failed for " + key, e);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        try {
+            s3.deleteObject(b -> b.bucket(bucket).key(key));
+        } catch (SdkException e) {
+            throw new IOException("R2 delete failed for " + key, e);
+        }
+    }
+
+    @Override
+    public String locationOf(String key) {
+        return endpoint + "/" + bucket + "/" + key;
+    }
+
+    @Override
+    public boolean supportsPresignedUrls() {
+        return true;
+    }
+
+    @Override
+    public PresignedRequest presignPut(String key, String contentType, long contentLength,
+                                       String sha256Base64, Duration ttl) {
+        PutObjectRequest put = PutObjectRequest.builder()
+                .bucket(bucket).key(key)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .checksumSHA256(sha256Base64)
+                .build();
+        PresignedPutObjectRequest presigned = presigner.presignPutObject(r -> r.signatureDuration(ttl).putObjectRequest(put));
+        return new PresignedRequest("PUT", presigned.url(), clientHeaders(presigned.signedHeaders()), presigned.expiration());
+    }
+
+    @Override
+    public PresignedRequest presignGet(String key, String downloadName, String contentType, Duration ttl) {
+        GetObjectRequest get = GetObjectRequest.builder()
+                .bucket(bucket).key(key)
+                .responseContentDisposition(attachment(downloadName))
+                .responseContentType(contentType)
+                .build();
+        PresignedGetObjectRequest presigned = presigner.presignGetObject(r -> r.signatureDuration(ttl).getObjectRequest(get));
+        return new PresignedRequest("GET", presigned.url(), clientHeaders(presigned.signedHeaders()), presigned.expiration());
+    }
+
+    @Override
+    public void destroy() {
+        presigner.close();
+        s3.close();
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    /** Sends {@code buffer} (already holding the first {@code read} bytes) and the rest of the stream as parts. */
+    private StoredObject putMultipart(String key, InputStream content, String contentType,
+                                      byte[] buffer, int read) throws IOException {
+        String uploadId;
+        try {
+            uploadId = s3.createMultipartUpload(b -> b.bucket(bucket).key(key).contentType(contentType)).uploadId();
+        } catch (SdkException e) {
+            throw new IOException("R2 upload failed for " + key, e);
+        }
+
+        List<CompletedPart> parts = new ArrayList<>();
+        long total = 0;
+        try {
+            while (read > 0) {
+                int partNumber = parts.size() + 1;
+                int size = read;
+                String eTag = s3.uploadPart(b -> b.bucket(bucket).key(key).uploadId(uploadId)
+                                        .partNumber(partNumber).contentLength((long) size),
+                                RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, size), size))
+                        .eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+                total += size;
+                read = readFully(content, buffer);
+            }
+            s3.completeMultipartUpload(b -> b.bucket(bucket).key(key).uploadId(uploadId)
+                    .multipartUpload(m -> m.parts(parts)));
+            return new StoredObject(key, total, contentType, null);
+        } catch (IOException | RuntimeException e) {
+            abort(key, uploadId);
+            if (e instanceof SdkException) {
+                throw new IOException("R2 upload failed for " + key, e);
+            }
+            throw e;
+        }
+    }
+
+    private void abort(String key, String uploadId) {
+        try {
+            s3.abortMultipartUpload(b -> b.bucket(bucket).key(key).uploadId(uploadId));
+        } catch (SdkException e) {
+            log.warn("Could not abort multipart upload {} for {}: {}", uploadId, key, e.getMessage());
+        }
+    }
+
+    private static String attachment(String fileName) {
+        ContentDisposition.Builder disposition = ContentDisposition.attachment();
+        boolean ascii = StandardCharsets.US_ASCII.newEncoder().canEncode(fileName);
+        return (ascii ? disposition.filename(fileName) : disposition.filename(fileName, StandardCharsets.UTF_8))
+                .build().toString();
+    }
+
+    /** Signed headers the client has to send itself; Host and Content-Length are set by any HTTP client. */
+    private static Map<String, String> clientHeaders(Map<String, List<String>> signedHeaders) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        signedHeaders.forEach((name, values) -> {
+            if (!name.equalsIgnoreCase("host") && !name.equalsIgnoreCase("content-length")) {
+                headers.put(name, String.join(",", values));
+            }
+        });
+        return headers;
+    }
+
+    /** Reads until {@code buffer} is full or the stream ends; returns the byte count. */
+    private static int readFully(InputStream in, byte[] buffer) throws IOException {
+        return readFully(in, buffer, 0);
+    }
+
+    private static int readFully(InputStream in, byte[] buffer, int offset) throws IOException {
+        int position = offset;
+        while (position < buffer.length) {
+            int n = in.read(buffer, position, buffer.length - position);
+            if (n < 0) {
+                break;
+            }
+            position += n;
+        }
+        return position - offset;
+    }
+}
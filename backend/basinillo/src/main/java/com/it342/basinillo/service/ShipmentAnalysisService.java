@@ -1,18 +1,24 @@
 package com.it342.basinillo.service;
 
+import com.it342.basinillo.config.ReplicaRead;
 import com.it342.basinillo.dto.ShipmentAnalysisResponse;
 import com.it342.basinillo.enums.ShipmentStatus;
 import com.it342.basinillo.repository.ShipmentRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "shipment.analysis", histogram = true)
 public class ShipmentAnalysisService {
 
     private final ShipmentRepository shipmentRepository;
 
     /** Broker-scoped analysis: counts only the authenticated user's shipments. */
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public ShipmentAnalysisResponse getAnalysisForUser(Long userId) {
         long total = shipmentRepository.countByUserIdAndDeletedAtIsNull(userId);
         long completed = shipmentRepository.countByUserIdAndStatusAndDeletedAtIsNull(userId, ShipmentStatus.RELEASED);
@@ -27,6 +33,8 @@ public class ShipmentAnalysisService {
     }
 
     /** Admin-scoped analysis: counts across all brokers. */
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public ShipmentAnalysisResponse getGlobalAnalysis() {
         long total = shipmentRepository.countByDeletedAtIsNull();
         long completed = shipmentRepository.countByStatusAndDeletedAtIsNull(ShipmentStatus.RELEASED);
@@ -0,0 +1,116 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.config.ArchiveProperties;
+import com.it342.basinillo.config.ReplicaRead;
+import com.it342.basinillo.dto.ArchiveRunResult;
+import com.it342.basinillo.dto.ArchivedShipmentResponse;
+import com.it342.basinillo.entity.ArchivedShipment;
+import com.it342.basinillo.entity.User;
+import com.it342.basinillo.exception.ResourceNotFoundException;
+import com.it342.basinillo.repository.ArchivedShipmentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps the hot {@code shipments} table small: moves soft-deleted and long-released
+ * shipments (with items and document metadata) into the *_archive tables.
+ * Work is done in short, throttled batches so the job never holds more than one of
+ * the pool's connections for long, and can be stopped or re-run at any point.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ShipmentArchivalService {
+
+    private final ArchivedShipmentRepository archivedShipmentRepository;
+    private final ArchiveProperties properties;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Scheduled(cron = "${archive.cron:0 30 2 * * *}")
+    public void scheduledRun() {
+        if (properties.isEnabled()) {
+            archive();
+        }
+    }
+
+    public ArchiveRunResult archive() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime deletedBefore = now.minusDays(properties.getSoftDeletedGraceDays());
+        LocalDateTime releasedBefore = now.minusDays(properties.getReleasedRetentionDays());
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        long start = System.nanoTime();
+        int batches = 0;
+        int total = 0;
+        while (batches < properties.getMaxBatchesPerRun()) {
+            Integer moved = tx.execute(status -> archivedShipmentRepository.archiveBatch(
+                    deletedBefore, releasedBefore, properties.getBatchSize(), LocalDateTime.now()));
+            int count = moved != null ? moved : 0;
+            batches++;
+            total += count;
+            meterRegistry.counter("archive.shipments.moved").increment(count);
+            if (count < properties.getBatchSize() || !pause()) {
+                break;
+            }
+        }
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+
+        if (total > 0) {
+            log.info("Archived {} shipments in {} batches ({} ms)", total, batches, durationMs);
+        }
+        return ArchiveRunResult.builder()
+                .ranAt(now)
+                .batches(batches)
+                .shipmentsArchived(total)
+                .durationMs(durationMs)
+                .build();
+    }
+
+    // ── Archive reads ────────────────────────────────────────
+
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public List<ArchivedShipmentResponse> getArchivedForUser(User user, int page, int size) {
+        return archivedShipmentRepository
+                .findByUserIdOrderByArchivedAtDesc(user.getId(), PageRequest.of(page, size))
+                .stream()
+                .map(shipment -> ArchivedShipmentResponse.fromEntity(shipment, false))
+                .toList();
+    }
+
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public ArchivedShipmentResponse getArchivedById(Long id, User user) {
+        ArchivedShipment shipment = archivedShipmentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Archived shipment not found: " + id));
+        if (!shipment.getUserId().equals(user.getId())) {
+            throw new AccessDeniedException("You do not have access to this shipment");
+        }
+        return ArchivedShipmentResponse.fromEntity(shipment, true);
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    /** Throttle between batches. Returns false if interrupted (shutdown). */
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getThrottleMs());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
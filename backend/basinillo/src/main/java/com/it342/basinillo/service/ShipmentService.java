@@ -1,121 +1,231 @@
 package com.it342.basinillo.service;
 
+import com.it342.basinillo.config.ReplicaRead;
 import com.it342.basinillo.dto.*;
 import com.it342.basinillo.entity.Shipment;
 import com.it342.basinillo.entity.ShipmentItem;
 import com.it342.basinillo.entity.User;
+import com.it342.basinillo.enums.DocumentType;
+import com.it342.basinillo.enums.OutboxEventType;
 import com.it342.basinillo.enums.ShipmentLane;
 import com.it342.basinillo.enums.ShipmentStatus;
+import com.it342.basinillo.exception.InvalidStateTransitionException;
+import com.it342.basinillo.exception.PreconditionFailedException;
 import com.it342.basinillo.exception.ResourceNotFoundException;
+import com.it342.basinillo.repository.DocumentRepository;
 import com.it342.basinillo.repository.ShipmentRepository;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "shipment.service", histogram = true)
 public class ShipmentService {
 
     private final ShipmentRepository shipmentRepository;
+    private final DocumentRepository documentRepository;
+    private final OutboxService outboxService;
+    private final FxRateService fxRateService;
+    private final EntityManager entityManager;
 
     private static final int DEFAULT_FREE_DAYS = 5;
+    private static final int IMPORT_FLUSH_SIZE = 50;
+    /** Shipment ids per document-count query, keeping the IN list well under the bind-parameter limit */
+    private static final int COUNT_CHUNK_SIZE = 1000;
 
     // ── Create ───────────────────────────────────────────────
 
     @Transactional
     public ShipmentResponse createShipment(CreateShipmentRequest request, User currentUser) {
-        int freeDays = request.getFreeDays() != null ? request.getFreeDays() : DEFAULT_FREE_DAYS;
-        LocalDate doomsdayDate = computeDoomsdayDate(request.getArrivalDate(), freeDays);
-
-        Shipment shipment = Shipment.builder()
-                .user(currentUser)
-                .vesselName(request.getVesselName())
-                .voyageNumber(request.getVoyageNumber())
-                .arrivalDate(request.getArrivalDate())
-                .portOfDischarge(request.getPortOfDischarge())
-                .clientName(request.getClientName())
-                .containerNumbers(request.getContainerNumbers())
-                .descriptionOfGoods(request.getDescriptionOfGoods())
-                .freeDays(freeDays)
-                .doomsdayDate(doomsdayDate)
-                .entryNumber(request.getEntryNumber())
-                .orNumber(request.getOrNumber())
-                .build();
-
-        if (request.getItems() != null) {
-            request.getItems().forEach(itemReq -> addItemToShipment(shipment, itemReq));
-        }
+        Shipment shipment = buildShipment(request, currentUser);
 
         Shipment saved = shipmentRepository.save(shipment);
+        outboxService.recordShipmentEvent(saved, OutboxEventType.SHIPMENT_CREATED);
         return ShipmentResponse.fromEntity(saved);
     }
 
+    /**
+     * Bulk create for manifest imports. Same mapping as createShipment, but the persistence
+     * context is flushed and cleared every IMPORT_FLUSH_SIZE shipments so Hibernate sends
+     * shipments, items and outbox rows as JDBC batches and memory stays flat.
+     */
+    @Transactional
+    public List<Long> importShipments(List<CreateShipmentRequest> requests, User currentUser) {
+        List<Long> ids = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            Shipment saved = shipmentRepository.save(buildShipment(requests.get(i), currentUser));
+            outboxService.recordShipmentEvent(saved, OutboxEventType.SHIPMENT_CREATED);
+            ids.add(saved.getId());
+
+            if ((i + 1) % IMPORT_FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return ids;
+    }
+
     // ── Read ─────────────────────────────────────────────────
 
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public List<ShipmentResponse> getAllForUser(User user) {
-        return shipmentRepository.findByUserIdAndDeletedAtIsNullOrderByDoomsdayDateAsc(user.getId())
+        return withDocumentCounts(shipmentRepository.findByUserIdAndDeletedAtIsNullOrderByDoomsdayDateAsc(user.getId())
                 .stream()
                 .map(ShipmentResponse::fromEntity)
-                .toList();
+                .toList());
     }
 
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public ShipmentResponse getById(Long id, User user) {
         Shipment shipment = findShipmentOrThrow(id);
         verifyOwnership(shipment, user);
-        return ShipmentResponse.fromEntity(shipment);
+        return withDocumentCounts(List.of(ShipmentResponse.fromEntity(shipment))).get(0);
     }
 
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public List<ShipmentResponse> searchShipments(User user, String keyword) {
-        return shipmentRepository.searchByKeyword(user.getId(), keyword)
+        return withDocumentCounts(shipmentRepository.searchByKeyword(user.getId(), keyword)
                 .stream()
                 .map(ShipmentResponse::fromEntity)
-                .toList();
+                .toList());
     }
 
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public List<ShipmentResponse> filterByStatus(User user, ShipmentStatus status) {
-        return shipmentRepository.findByUserIdAndStatusAndDeletedAtIsNullOrderByDoomsdayDateAsc(user.getId(), status)
+        return withDocumentCounts(shipmentRepository.findByUserIdAndStatusAndDeletedAtIsNullOrderByDoomsdayDateAsc(user.getId(), status)
                 .stream()
                 .map(ShipmentResponse::fromEntity)
-                .toList();
+                .toList());
     }
 
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public List<ShipmentResponse> filterByLane(User user, ShipmentLane lane) {
-        return shipmentRepository.findByUserIdAndLaneAndDeletedAtIsNullOrderByDoomsdayDateAsc(user.getId(), lane)
+        return withDocumentCounts(shipmentRepository.findByUserIdAndLaneAndDeletedAtIsNullOrderByDoomsdayDateAsc(user.getId(), lane)
                 .stream()
                 .map(ShipmentResponse::fromEntity)
-                .toList();
+                .toList());
     }
 
     // ── Update ───────────────────────────────────────────────
 
+    /**
+     * Partial update. When {@code expectedVersion} (from If-Match) is given and stale, fails with 412;
+     * a concurrent write between read and flush is caught by @Version and surfaces as 409.
+     */
     @Transactional
-    public ShipmentResponse updateShipment(Long id, UpdateShipmentRequest request, User user) {
+    public ShipmentResponse updateShipment(Long id, UpdateShipmentRequest request, Long expectedVersion, User user) {
         Shipment shipment = findShipmentOrThrow(id);
         verifyOwnership(shipment, user);
+        verifyVersion(shipment, expectedVersion);
 
         applyUpdates(shipment, request);
+        if (request.getArrivalDate() != null) {
+            fxRateService.convertItems(shipment);   // rates are taken as of the arrival date
+        }
 
-        Shipment saved = shipmentRepository.save(shipment);
+        Shipment saved = shipmentRepository.saveAndFlush(shipment);
+        outboxService.recordShipmentEvent(saved, OutboxEventType.SHIPMENT_UPDATED);
         return ShipmentResponse.fromEntity(saved);
     }
 
+    /**
+     * Advances the status one step with a single conditional UPDATE
+     * (WHERE id AND owner AND status = from [AND version = expected]).
+     * When the client names {@code fromStatus}, no read is needed before the write;
+     * otherwise the current status is read first and the UPDATE still guards against races.
+     */
     @Transactional
-    public ShipmentResponse advanceStatus(Long id, User user) {
-        Shipment shipment = findShipmentOrThrow(id);
-        verifyOwnership(shipment, user);
-
-        ShipmentStatus nextStatus = getNextStatus(shipment.getStatus());
-        shipment.setStatus(nextStatus);
+    public ShipmentResponse advanceStatus(Long id, ShipmentStatus fromStatus, Long expectedVersion, User user) {
+        ShipmentStatus from = fromStatus;
+        Long version = expectedVersion;
+        if (from == null) {
+            Shipment current = findShipmentOrThrow(id);
+            verifyOwnership(current, user);
+            from = current.getStatus();
+            version = expectedVersion != null ? expectedVersion : current.getVersion();
+            entityManager.detach(current);
+        }
+        ShipmentStatus nextStatus = getNextStatus(from);
 
-        Shipment saved = shipmentRepository.save(shipment);
+        Shipment saved = shipmentRepository.transitionStatus(
+                        id, user.getId(), from.name(), nextStatus.name(), version, LocalDateTime.now())
+                .orElseThrow(() -> explainFailedTransition(id, fromStatus, expectedVersion, user));
+        outboxService.recordShipmentEvent(saved, OutboxEventType.SHIPMENT_STATUS_CHANGED);
         return ShipmentResponse.fromEntity(saved);
     }
 
+    // ── Bulk ─────────────────────────────────────────────────
+
+    /**
+     * Advances many shipments from {@code fromStatus} to its successor in one owner-scoped
+     * UPDATE ... WHERE status = :from RETURNING id. Ids that did not move are reported
+     * individually (not found, not yours, or no longer in fromStatus).
+     */
+    @Transactional
+    public BulkOperationResponse bulkAdvanceStatus(BulkStatusRequest request, User user) {
+        ShipmentStatus from = request.getFromStatus();
+        ShipmentStatus to = getNextStatus(from);
+        LocalDateTime now = LocalDateTime.now();
+
+        if (request.getVesselName() != null && !request.getVesselName().isBlank()) {
+            List<Long> moved = shipmentRepository.advanceStatusByVessel(
+                    user.getId(), request.getVesselName(), request.getVoyageNumber(), from.name(), to.name(), now);
+            return buildBulkResponse(moved, List.of(), to, user, from);
+        }
+
+        List<Long> ids = request.getIds().stream().distinct().toList();
+        List<Long> moved = shipmentRepository.advanceStatusByIds(ids, user.getId(), from.name(), to.name(), now);
+        return buildBulkResponse(moved, ids, to, user, from);
+    }
+
+    /**
+     * Applies the same field changes to many shipments in one owner-scoped UPDATE. A new arrival
+     * date re-converts the items of every updated shipment at the rates of that date, as a
+     * single update does.
+     */
+    @Transactional
+    public BulkOperationResponse bulkUpdate(BulkUpdateRequest request, User user) {
+        String lane = request.getLane() != null ? request.getLane().name() : null;
+        LocalDateTime now = LocalDateTime.now();
+
+        if (request.getVesselName() != null && !request.getVesselName().isBlank()) {
+            List<Long> updated = shipmentRepository.bulkUpdateByVessel(
+                    user.getId(), request.getVesselName(), request.getVoyageNumber(),
+                    request.getArrivalDate(), request.getPortOfDischarge(), request.getFreeDays(), lane, now);
+            reconvertItems(request, updated);
+            return buildBulkResponse(updated, List.of(), null, user, null);
+        }
+
+        List<Long> ids = request.getIds().stream().distinct().toList();
+        List<Long> updated = shipmentRepository.bulkUpdateByIds(
+                ids, user.getId(),
+                request.getArrivalDate(), request.getPortOfDischarge(), request.getFreeDays(), lane, now);
+        reconvertItems(request, updated);
+        return buildBulkResponse(updated, ids, null, user, null);
+    }
+
     // ── Soft Delete ──────────────────────────────────────────
 
     @Transactional
@@ -124,21 +234,142 @@ public class ShipmentService {
         verifyOwnership(shipment, user);
         shipment.setDeletedAt(LocalDateTime.now());
         shipmentRepository.save(shipment);
+        outboxService.recordShipmentEvent(shipment, OutboxEventType.SHIPMENT_DELETED);
     }
 
     // ── Private helpers (DRY) ────────────────────────────────
 
+    private Shipment buildShipment(CreateShipmentRequest request, User currentUser) {
+        int freeDays = request.getFreeDays() != null ? request.getFreeDays() : DEFAULT_FREE_DAYS;
+        LocalDate doomsdayDate = computeDoomsdayDate(request.getArrivalDate(), freeDays);
+
+        Shipment shipment = Shipment.builder()
+                .user(currentUser)
+                .vesselName(request.getVesselName())
+                .voyageNumber(request.getVoyageNumber())
+                .arrivalDate(request.getArrivalDate())
+                .portOfDischarge(request.getPortOfDischarge())
+                .clientName(request.getClientName())
+                .containerNumbers(request.getContainerNumbers())
+                .descriptionOfGoods(request.getDescriptionOfGoods())
+                .freeDays(freeDays)
+                .doomsdayDate(doomsdayDate)
+                .entryNumber(request.getEntryNumber())
+                .orNumber(request.getOrNumber())
+                .build();
+
+        if (request.getItems() != null) {
+            request.getItems().forEach(itemReq -> addItemToShipment(shipment, itemReq));
+            fxRateService.convertItems(shipment);
+        }
+        return shipment;
+    }
+
+    /**
+     * Fills the per-type document counts of every response from one GROUP BY query
+     * (per {@value #COUNT_CHUNK_SIZE} shipments), instead of the client listing each shipment's documents.
+     */
+    private List<ShipmentResponse> withDocumentCounts(List<ShipmentResponse> responses) {
+        Map<Long, Map<DocumentType, Long>> counts = new HashMap<>();
+        List<Long> ids = responses.stream().map(ShipmentResponse::getId).toList();
+        for (int from = 0; from < ids.size(); from += COUNT_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + COUNT_CHUNK_SIZE, ids.size()));
+            for (DocumentRepository.TypeCount count : documentRepository.countByShipmentIdInGroupByType(chunk)) {
+                counts.computeIfAbsent(count.getShipmentId(), id -> new EnumMap<>(DocumentType.class))
+                        .put(count.getType(), count.getTotal());
+            }
+        }
+        for (ShipmentResponse response : responses) {
+            Map<DocumentType, Long> byType = counts.getOrDefault(response.getId(), new EnumMap<>(DocumentType.class));
+            response.setDocumentCounts(byType);
+            response.setDocumentCount(byType.values().stream().mapToLong(Long::longValue).sum());
+        }
+        return responses;
+    }
+
     private Shipment findShipmentOrThrow(Long id) {
         return shipmentRepository.findByIdAndDeletedAtIsNull(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Shipment not found: " + id));
     }
 
+    private void verifyVersion(Shipment shipment, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(shipment.getVersion())) {
+            throw new PreconditionFailedException("Shipment " + shipment.getId() + " is at version "
+                    + shipment.getVersion() + ", not " + expectedVersion);
+        }
+    }
+
+    /** Works out why a conditional transition matched no row, re-reading the shipment once. */
+    private RuntimeException explainFailedTransition(Long id, ShipmentStatus expectedStatus,
+                                                     Long expectedVersion, User user) {
+        Shipment shipment = findShipmentOrThrow(id);
+        verifyOwnership(shipment, user);
+        verifyVersion(shipment, expectedVersion);
+        if (expectedStatus != null && shipment.getStatus() != expectedStatus) {
+            return new InvalidStateTransitionException(
+                    "Shipment is " + shipment.getStatus() + ", expected " + expectedStatus);
+        }
+        return new OptimisticLockingFailureException("Shipment " + id + " changed concurrently");
+    }
+
     private void verifyOwnership(Shipment shipment, User user) {
         if (!shipment.getUser().getId().equals(user.getId())) {
             throw new AccessDeniedException("You do not have access to this shipment");
         }
     }
 
+    /**
+     * Per-id results for a bulk write. Only ids that did not change are looked up again,
+     * to explain why; a fully successful batch costs no extra query.
+     */
+    private BulkOperationResponse buildBulkResponse(List<Long> changed, List<Long> requested,
+                                                    ShipmentStatus newStatus, User user, ShipmentStatus expected) {
+        Set<Long> changedIds = new HashSet<>(changed);
+        List<BulkItemResult> results = new ArrayList<>();
+        changed.forEach(id -> results.add(BulkItemResult.builder().id(id).success(true).status(newStatus).build()));
+
+        List<Long> unchanged = requested.stream().filter(id -> !changedIds.contains(id)).toList();
+        if (!unchanged.isEmpty()) {
+            Map<Long, Shipment> current = shipmentRepository.findAllById(unchanged).stream()
+                    .collect(Collectors.toMap(Shipment::getId, Function.identity()));
+            for (Long id : unchanged) {
+                Shipment shipment = current.get(id);
+                String error;
+                if (shipment == null || shipment.getDeletedAt() != null) {
+                    error = "Shipment not found";
+                } else if (!shipment.getUser().getId().equals(user.getId())) {
+                    error = "You do not have access to this shipment";
+                } else {
+                    error = "Shipment is " + shipment.getStatus() + ", expected " + expected;
+                }
+                results.add(BulkItemResult.builder().id(id).success(false).status(
+                        shipment != null ? shipment.getStatus() : null).error(error).build());
+            }
+        }
+
+        return BulkOperationResponse.builder()
+                .succeeded(changed.size())
+                .failed(unchanged.size())
+                .results(results)
+                .build();
+    }
+
+    /**
+     * After a set-based arrival-date change, converts the items of the changed shipments at the
+     * new date's rates, {@value #IMPORT_FLUSH_SIZE} shipments at a time so memory stays flat.
+     */
+    private void reconvertItems(BulkUpdateRequest request, List<Long> changed) {
+        if (request.getArrivalDate() == null) {
+            return;
+        }
+        for (int from = 0; from < changed.size(); from += IMPORT_FLUSH_SIZE) {
+            List<Long> chunk = changed.subList(from, Math.min(from + IMPORT_FLUSH_SIZE, changed.size()));
+            shipmentRepository.findByIdIn(chunk).forEach(fxRateService::convertItems);
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
     private LocalDate computeDoomsdayDate(LocalDate arrivalDate, int freeDays) {
         return arrivalDate != null ? arrivalDate.plusDays(freeDays) : null;
     }
@@ -149,7 +380,7 @@ public class ShipmentService {
             case LODGED   -> ShipmentStatus.ASSESSED;
             case ASSESSED -> ShipmentStatus.PAID;
             case PAID     -> ShipmentStatus.RELEASED;
-            case RELEASED -> throw new IllegalStateException("Shipment is already released");
+            case RELEASED -> throw new InvalidStateTransitionException("Shipment is already released");
         };
     }
 
@@ -157,7 +388,7 @@ public class ShipmentService {
         ShipmentItem item = ShipmentItem.builder()
                 .shipment(shipment)
                 .description(req.getDescription())
-                .hsCode(req.getHsCode())
+                .hsCode(canonicalHsCode(req.getHsCode()))
                 .quantity(req.getQuantity())
                 .declaredValue(req.getDeclaredValue())
                 .currency(req.getCurrency())
@@ -165,6 +396,12 @@ public class ShipmentService {
         shipment.getItems().add(item);
     }
 
+    /** Stores HS codes in dotted AHTN form (8471.30.20) however they were typed. */
+    private String canonicalHsCode(String hsCode) {
+        String canonical = TariffSchedule.canonical(hsCode);
+        return canonical != null ? canonical : hsCode;
+    }
+
     private void applyUpdates(Shipment shipment, UpdateShipmentRequest req) {
         if (req.getVesselName() != null)       shipment.setVesselName(req.getVesselName());
         if (req.getVoyageNumber() != null)     shipment.setVoyageNumber(req.getVoyageNumber());
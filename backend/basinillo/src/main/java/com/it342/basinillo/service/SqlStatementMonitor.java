@@ -0,0 +1,174 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.config.SqlMonitorProperties;
+import com.it342.basinillo.dto.SqlStatementStatsResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Replaces {@code show-sql}: every JDBC statement (reported by the proxy in {@code DataSourceConfig})
+ * is added to per-shape aggregates, and only statements over {@code sql.monitor.slow-threshold-ms}
+ * are logged, with parameter types but never values, the row count and the calling app method.
+ */
+@Slf4j
+@Service
+public class SqlStatementMonitor {
+
+    private static final String OTHER = "(other)";
+    private static final int MAX_CACHED_SQL = 5000;
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final SqlMonitorProperties properties;
+    private final Map<String, String> shapes = new ConcurrentHashMap<>();
+    private final Map<String, ShapeStats> stats = new ConcurrentHashMap<>();
+
+    public SqlStatementMonitor(SqlMonitorProperties properties) {
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /** One finished execution; {@code rows} is rows read or affected, -1 when unknown. */
+    public void record(String sql, long nanos, long rows, List<String> parameterTypes) {
+        String shape = shapeOf(sql);
+        ShapeStats shapeStats = stats.get(shape);
+        if (shapeStats == null) {
+            shapeStats = stats.size() < properties.getMaxShapes()
+                    ? stats.computeIfAbsent(shape, s -> new ShapeStats())
+                    : stats.computeIfAbsent(OTHER, s -> new ShapeStats());
+        }
+        boolean slow = nanos >= TimeUnit.MILLISECONDS.toNanos(properties.getSlowThresholdMs());
+        shapeStats.add(nanos, rows, slow);
+
+        if (slow && ThreadLocalRandom.current().nextDouble() < properties.getSlowLogSampleRate()) {
+            log.warn("Slow SQL {} ms, rows={}, caller={}, params={}: {}",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), rows, caller(), parameterTypes, shape);
+        }
+    }
+
+    /** Aggregates since startup (or the last reset), highest total time first. */
+    public List<SqlStatementStatsResponse> topStatements(int limit) {
+        return stats.entrySet().stream()
+                .map(e -> e.getValue().toResponse(e.getKey()))
+                .sorted(Comparator.comparingDouble(SqlStatementStatsResponse::getTotalMillis).reversed())
+                .limit(Math.max(1, limit))
+                .toList();
+    }
+
+    public void reset() {
+        stats.clear();
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    /** Literals and IN lists become placeholders, so one query shape is one entry whatever its arguments. */
+    private String shapeOf(String sql) {
+        String shape = shapes.get(sql);
+        if (shape == null) {
+            shape = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+            shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+            shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+            shape = IN_LIST.matcher(shape).replaceAll("(?, ...)");
+            if (shapes.size() < MAX_CACHED_SQL) {
+                shapes.put(sql, shape);
+            }
+        }
+        return shape;
+    }
+
+    /** Innermost app frame outside the JDBC plumbing, e.g. {@code ShipmentService.getAllForUser:92}. */
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith("com.it342.basinillo.")
+                        && !f.getClassName().startsWith("com.it342.basinillo.config.")
+                        && !f.getClassName().equals(SqlStatementMonitor.class.getName())
+                        && !f.getClassName().contains("$$"))
+                .findFirst()
+                .map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1)
+                        + "." + f.getMethodName() + ":" + f.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    /** Counters plus a log-scale latency histogram (buckets grow by 25% from 10 µs). */
+    private static final class ShapeStats {
+
+        private static final double FIRST_BUCKET_NANOS = 10_000;
+        private static final double GROWTH = 1.25;
+        private static final int BUCKETS = 72;
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder slowCount = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        private void add(long nanos, long rowCount, boolean slow) {
+            count.increment();
+            totalNanos.add(nanos);
+            if (rowCount > 0) {
+                rows.add(rowCount);
+            }
+            if (slow) {
+                slowCount.increment();
+            }
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            buckets.incrementAndGet(bucketOf(nanos));
+        }
+
+        private static int bucketOf(long nanos) {
+            if (nanos <= FIRST_BUCKET_NANOS) {
+                return 0;
+            }
+            int bucket = (int) Math.ceil(Math.log(nanos / FIRST_BUCKET_NANOS) / Math.log(GROWTH));
+            return Math.min(bucket, BUCKETS - 1);
+        }
+
+        private double p99Nanos() {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                total += buckets.get(i);
+            }
+            long target = (long) Math.ceil(total * 0.99);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= target && seen > 0) {
+                    return Math.min(FIRST_BUCKET_NANOS * Math.pow(GROWTH, i), maxNanos.get());
+                }
+            }
+            return 0;
+        }
+
+        private SqlStatementStatsResponse toResponse(String shape) {
+            long n = count.sum();
+            double total = totalNanos.sum() / 1e6;
+            return SqlStatementStatsResponse.builder()
+                    .shape(shape)
+                    .count(n)
+                    .totalMillis(total)
+                    .meanMillis(n == 0 ? 0 : total / n)
+                    .p99Millis(p99Nanos() / 1e6)
+                    .maxMillis(maxNanos.get() / 1e6)
+                    .rows(rows.sum())
+                    .slowCount(slowCount.sum())
+                    .build();
+        }
+    }
+}
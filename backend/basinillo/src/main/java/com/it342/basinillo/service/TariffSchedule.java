@@ -0,0 +1,148 @@
+package com.it342.basinillo.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable AHTN/HS schedule held as a digit trie: each node is one digit of the code, so
+ * lookup and prefix search cost one array hop per digit regardless of schedule size.
+ * Headings (4 digits) and subheadings (6) carry descriptions only; national tariff lines
+ * (8 digits) carry the MFN duty rate and are the only codes valid on a declaration.
+ */
+public final class TariffSchedule {
+
+    /** One schedule row. {@code dutyRate} is a percentage, null for headings/subheadings. */
+    public record TariffLine(String code, String description, BigDecimal dutyRate) {
+
+        public boolean isDeclarable() {
+            return dutyRate != null;
+        }
+    }
+
+    private static final class Node {
+        private Node[] children;
+        private TariffLine line;
+
+        private Node child(int digit) {
+            return children == null ? null : children[digit];
+        }
+
+        private Node childOrCreate(int digit) {
+            if (children == null) {
+                children = new Node[10];
+            }
+            if (children[digit] == null) {
+                children[digit] = new Node();
+            }
+            return children[digit];
+        }
+    }
+
+    private final Node root = new Node();
+    private int size;
+
+    /** Builder-side insert; a schedule is not modified once handed to {@link TariffService}. */
+    void add(String code, String description, BigDecimal dutyRate) {
+        String digits = digitsOf(code);
+        if (digits == null) {
+            throw new IllegalArgumentException("Invalid HS code: " + code);
+        }
+        Node node = root;
+        for (int i = 0; i < digits.length(); i++) {
+            node = node.childOrCreate(digits.charAt(i) - '0');
+        }
+        if (node.line == null) {
+            size++;
+        }
+        node.line = new TariffLine(format(digits), description, dutyRate);
+    }
+
+    /** Exact lookup; accepts dotted or plain codes ("8471.30.20", "84713020"). */
+    public TariffLine find(String code) {
+        String digits = digitsOf(code);
+        Node node = digits == null ? null : walk(digits);
+        return node == null ? null : node.line;
+    }
+
+    /** Up to {@code limit} lines whose code starts with {@code prefix}, in code order. */
+    public List<TariffLine> startingWith(String prefix, int limit) {
+        List<TariffLine> matches = new ArrayList<>(Math.min(limit, 16));
+        String digits = stripSeparators(prefix == null ? "" : prefix);
+        if (digits == null) {
+            return matches;
+        }
+        Node start = walk(digits);
+        if (start != null) {
+            collect(start, matches, limit);
+        }
+        return matches;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Canonical dotted form (8471, 8471.30, 8471.30.20), or null if not a 4/6/8-digit code. */
+    public static String canonical(String code) {
+        String digits = digitsOf(code);
+        return digits == null ? null : format(digits);
+    }
+
+    // ── Private helpers ──────────────────────────────────────
+
+    private Node walk(String digits) {
+        Node node = root;
+        for (int i = 0; i < digits.length() && node != null; i++) {
+            node = node.child(digits.charAt(i) - '0');
+        }
+        return node;
+    }
+
+    private static void collect(Node node, List<TariffLine> out, int limit) {
+        if (out.size() >= limit) {
+            return;
+        }
+        if (node.line != null) {
+            out.add(node.line);
+        }
+        if (node.children != null) {
+            for (Node child : node.children) {
+                if (child != null) {
+                    collect(child, out, limit);
+                }
+            }
+        }
+    }
+
+    private static String digitsOf(String code) {
+        if (code == null) {
+            return null;
+        }
+        String digits = stripSeparators(code);
+        int length = digits == null ? 0 : digits.length();
+        return length == 4 || length == 6 || length == 8 ? digits : null;
+    }
+
+    /** Drops dots and spaces; null if anything else but digits remains. */
+    private static String stripSeparators(String code) {
+        StringBuilder digits = new StringBuilder(code.length());
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if (c != '.' && !Character.isWhitespace(c)) {
+                return null;
+            }
+        }
+        return digits.toString();
+    }
+
+    private static String format(String digits) {
+        return switch (digits.length()) {
+            case 4 -> digits;
+            case 6 -> digits.substring(0, 4) + "." + digits.substring(4);
+            default -> digits.substring(0, 4) + "." + digits.substring(4, 6) + "." + digits.substring(6);
+        };
+    }
+}
@@ -0,0 +1,140 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.config.TariffProperties;
+import com.it342.basinillo.dto.DutyEstimateResponse;
+import com.it342.basinillo.dto.HsCodeSuggestion;
+import com.it342.basinillo.dto.ShipmentItemResponse;
+import com.it342.basinillo.dto.ShipmentResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * HS/AHTN tariff lookups and duty estimates, all served from an in-memory
+ * {@link TariffSchedule} loaded once at startup, so none of it touches Postgres.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TariffService {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final TariffProperties properties;
+    private final ResourceLoader resourceLoader;
+
+    private volatile TariffSchedule schedule = new TariffSchedule();
+
+    @PostConstruct
+    void loadSchedule() {
+        Resource resource = resourceLoader.getResource(properties.getScheduleFile());
+        TariffSchedule loaded = new TariffSchedule();
+        try (InputStream in = resource.getInputStream()) {
+            ManifestRowReader.readCsv(in, (rowNumber, cells) -> {
+                if (rowNumber == 1 || cells.isEmpty() || cells.get(0).isBlank()) {
+                    return;
+                }
+                String rate = cells.size() > 2 ? cells.get(2).trim() : "";
+                try {
+                    loaded.add(cells.get(0).trim(),
+                               cells.size() > 1 ? cells.get(1).trim() : "",
+                               rate.isEmpty() ? null : new BigDecimal(rate));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Skipping tariff row {}: {}", rowNumber, e.getMessage());
+                }
+            });
+            schedule = loaded;
+            log.info("Loaded {} tariff lines from {}", loaded.size(), properties.getScheduleFile());
+        } catch (IOException e) {
+            log.error("Could not load tariff schedule {}; duty estimates will list every HS code as unknown",
+                    properties.getScheduleFile(), e);
+        }
+    }
+
+    // ── Lookup ───────────────────────────────────────────────
+
+    /** False until a schedule has loaded. */
+    public boolean isAvailable() {
+        return schedule.size() > 0;
+    }
+
+    public TariffSchedule.TariffLine find(String hsCode) {
+        return schedule.find(hsCode);
+    }
+
+    /** Autocomplete by code prefix ("8471", "8471.3"), in code order. */
+    public List<HsCodeSuggestion> suggest(String prefix, int limit) {
+        int capped = Math.max(1, Math.min(limit, properties.getMaxSuggestions()));
+        return schedule.startingWith(prefix, capped).stream()
+                .map(HsCodeSuggestion::fromLine)
+                .toList();
+    }
+
+    // ── Estimation ───────────────────────────────────────────
+
+    /**
+     * Duty = dutiable value × MFN rate; VAT = (dutiable value + duty) × VAT rate.
+     * The dutiable value is the item's PHP-converted declared value. Other landed-cost
+     * charges (freight, insurance, brokerage, excise) are not known here and are left out.
+     */
+    public DutyEstimateResponse estimateDuties(ShipmentResponse shipment) {
+        BigDecimal vatRate = properties.getVatRate();
+        BigDecimal totalValue = BigDecimal.ZERO;
+        BigDecimal totalDuty = BigDecimal.ZERO;
+        BigDecimal totalVat = BigDecimal.ZERO;
+        boolean complete = true;
+        List<DutyEstimateResponse.ItemEstimate> estimates = new ArrayList<>();
+
+        for (ShipmentItemResponse item : shipment.getItems()) {
+            TariffSchedule.TariffLine line = item.getHsCode() != null ? schedule.find(item.getHsCode()) : null;
+            BigDecimal value = item.getPhpConvertedValue();
+            DutyEstimateResponse.ItemEstimate.ItemEstimateBuilder estimate = DutyEstimateResponse.ItemEstimate.builder()
+                    .itemId(item.getId())
+                    .hsCode(item.getHsCode())
+                    .tariffDescription(line != null ? line.description() : null)
+                    .dutiableValue(value)
+                    .dutyRate(line != null ? line.dutyRate() : null);
+
+            String note = item.getHsCode() == null ? "No HS code"
+                    : line == null ? "HS code not in tariff schedule"
+                    : !line.isDeclarable() ? "HS heading, not an 8-digit tariff line"
+                    : value == null ? "No PHP value (missing declared value or exchange rate)"
+                    : null;
+            if (note != null) {
+                complete = false;
+                estimates.add(estimate.note(note)
+                        .unknownHsCode(item.getHsCode() != null && (line == null || !line.isDeclarable()))
+                        .build());
+                continue;
+            }
+
+            BigDecimal duty = value.multiply(line.dutyRate()).divide(HUNDRED, 2, RoundingMode.HALF_UP);
+            BigDecimal vat = value.add(duty).multiply(vatRate).setScale(2, RoundingMode.HALF_UP);
+            totalValue = totalValue.add(value);
+            totalDuty = totalDuty.add(duty);
+            totalVat = totalVat.add(vat);
+            estimates.add(estimate.duty(duty).vat(vat).build());
+        }
+
+        return DutyEstimateResponse.builder()
+                .shipmentId(shipment.getId())
+                .vatRate(vatRate)
+                .totalDutiableValue(totalValue)
+                .totalDuty(totalDuty)
+                .totalVat(totalVat)
+                .totalTaxes(totalDuty.add(totalVat))
+                .complete(complete)
+                .items(estimates)
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+-- ===================================================================
+-- Idempotent patches applied after Hibernate's ddl-auto=update.
+-- Each statement must be safe to run on every startup.
+-- ===================================================================
+
+-- Pooled sequences replaced IDENTITY ids on these tables. Move each sequence past the
+-- highest existing id so rows created before the switch never collide.
+SELECT setval('shipments_seq', (SELECT MAX(id) FROM shipments))
+WHERE (SELECT MAX(id) FROM shipments) > (SELECT last_value FROM shipments_seq);
+
+SELECT setval('shipment_items_seq', (SELECT MAX(id) FROM shipment_items))
+WHERE (SELECT MAX(id) FROM shipment_items) > (SELECT last_value FROM shipment_items_seq);
+
+SELECT setval('outbox_events_seq', (SELECT MAX(id) FROM outbox_events))
+WHERE (SELECT MAX(id) FROM outbox_events) > (SELECT last_value FROM outbox_events_seq);
+
+-- Optimistic locking: rows created before the version column existed start at 0. Runs while
+-- the column is still nullable; once it is NOT NULL with a default there is nothing to backfill.
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = ''shipments''
+                 AND column_name = ''version'' AND is_nullable = ''YES'') THEN
+        UPDATE shipments SET version = 0 WHERE version IS NULL;
+        ALTER TABLE shipments ALTER COLUMN version SET DEFAULT 0;
+        ALTER TABLE shipments ALTER COLUMN version SET NOT NULL;
+    END IF;
+END';
+
+-- Hot/cold split: indexes cover only live rows, so they stay small as soft-deleted and
+-- released shipments accumulate (and shrink again once the archiver moves them out).
+CREATE INDEX IF NOT EXISTS idx_shipments_live_user_doomsday
+    ON shipments (user_id, doomsday_date) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_shipments_live_user_status
+    ON shipments (user_id, status, doomsday_date) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_shipments_live_user_lane
+    ON shipments (user_id, lane, doomsday_date) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_shipments_active_doomsday
+    ON shipments (doomsday_date) WHERE deleted_at IS NULL AND status <> 'RELEASED';
+DROP INDEX IF EXISTS idx_shipments_lane_doomsday;
+
+-- Archiver candidates
+CREATE INDEX IF NOT EXISTS idx_shipments_soft_deleted
+    ON shipments (deleted_at) WHERE deleted_at IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_shipments_released
+    ON shipments (updated_at) WHERE deleted_at IS NULL AND status = 'RELEASED';
+
+-- Postgres does not index foreign keys on its own
+CREATE INDEX IF NOT EXISTS idx_shipment_items_shipment ON shipment_items (shipment_id);
+CREATE INDEX IF NOT EXISTS idx_documents_shipment ON documents (shipment_id);
+
+-- FX: exchange_rate was created as numeric(38,2), which rounds rates like KRW 0.0393 to 0.04.
+-- Altered only while a table still has the old type, so later startups take no table lock.
+-- (Single-quoted body: the script splitter does not understand $$ quoting.)
+DO '
+DECLARE
+    target text;
+BEGIN
+    FOR target IN
+        SELECT c.table_name FROM information_schema.columns c
+        WHERE c.table_schema = current_schema()
+          AND c.table_name IN (''shipment_items'', ''shipment_items_archive'')
+          AND c.column_name = ''exchange_rate''
+          AND (c.numeric_precision, c.numeric_scale) IS DISTINCT FROM (19, 8)
+    LOOP
+        EXECUTE format(''ALTER TABLE %I ALTER COLUMN exchange_rate TYPE numeric(19,8)'', target);
+    END LOOP;
+END';
+
+-- Deduplicated document bodies: ownership check on reuse, and the blob collector's candidates
+CREATE INDEX IF NOT EXISTS idx_documents_checksum
+    ON documents (checksum_sha256) WHERE checksum_sha256 IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_document_blobs_garbage
+    ON document_blobs (released_at) WHERE ref_count <= 0;
+
+-- Full-text index over extracted document text. 'english' stems words (invoices → invoic)
+-- and keeps codes such as 8471.30.20 or INV-0042 as searchable tokens.
+ALTER TABLE document_texts ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('english', COALESCE(content, ''))) STORED;
+CREATE INDEX IF NOT EXISTS idx_document_texts_search ON document_texts USING gin (search_vector);
+CREATE INDEX IF NOT EXISTS idx_document_texts_pending
+    ON document_texts (available_at) WHERE status = 'PENDING';
+
+-- Queue documents stored before text extraction existed
+INSERT INTO document_texts (document_id, status, attempts, available_at, created_at)
+SELECT d.id, 'PENDING', 0, now(), now() FROM documents d
+WHERE d.storage_key IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM document_texts t WHERE t.document_id = d.id);
+
+-- Thumbnail/preview queue, and documents stored before previews existed
+CREATE INDEX IF NOT EXISTS idx_document_previews_pending
+    ON document_previews (available_at) WHERE status = 'PENDING';
+INSERT INTO document_previews (document_id, status, attempts, available_at, created_at)
+SELECT d.id, 'PENDING', 0, now(), now() FROM documents d
+WHERE d.storage_key IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM document_previews p WHERE p.document_id = d.id);
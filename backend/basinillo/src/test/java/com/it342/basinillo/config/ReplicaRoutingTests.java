@@ -0,0 +1,245 @@
+package com.it342.basinillo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.it342.basinillo.entity.Shipment;
+import com.it342.basinillo.entity.User;
+import com.it342.basinillo.repository.ShipmentRepository;
+import com.it342.basinillo.repository.UserRepository;
+import com.it342.basinillo.security.JwtService;
+import com.it342.basinillo.service.DocumentTextService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Read-replica routing against two local databases: the primary, and a {@code replica} schema on
+ * the same server holding empty copies of the primary's tables. The replica never receives the
+ * primary's rows, so whether a read sees a row shows which side served it. A second replica URL
+ * points at a closed port and must never be used.
+ */
+@SpringBootTest(properties = {
+        "datasource.replicas.enabled=true",
+        "datasource.replicas.lag-check-interval-ms=100",
+        "datasource.replicas.max-lag-ms=100",
+        "datasource.replicas.read-your-writes-ms=1000",
+        "storage.local-root=${java.io.tmpdir}/replica-routing-documents"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReplicaRoutingTests {
+
+    private static final String REPLICA_SCHEMA = "replica";
+
+    @DynamicPropertySource
+    static void replicas(DynamicPropertyRegistry registry) {
+        String primary = System.getenv("DATABASE_URL");
+        String separator = primary != null && primary.contains("?") ? "&" : "?";
+        registry.add("datasource.replicas.urls", () -> List.of(
+                primary + separator + "currentSchema=" + REPLICA_SCHEMA,
+                "jdbc:postgresql://localhost:1/unreachable"));
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private DocumentTextService documentTextService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /** Built once Hibernate and the schema patches have created the primary's tables, before the app serves. */
+    @TestConfiguration
+    static class ReplicaSchema {
+
+        @Bean
+        @DependsOnDatabaseInitialization
+        InitializingBean replicaSchema(DataSource dataSource) {
+            return () -> {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+                jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + REPLICA_SCHEMA + " CASCADE");
+                jdbcTemplate.execute("CREATE SCHEMA " + REPLICA_SCHEMA);
+                for (String table : jdbcTemplate.queryForList(
+                        "SELECT tablename FROM pg_tables WHERE schemaname = 'public'", String.class)) {
+                    jdbcTemplate.execute("CREATE TABLE " + REPLICA_SCHEMA + "." + table
+                            + " (LIKE public." + table + " INCLUDING ALL)");
+                }
+            };
+        }
+    }
+
+    @BeforeAll
+    void awaitReplica() throws InterruptedException {
+        // replicas take no reads until their first lag check succeeds
+        for (int i = 0; i < 100 && !(replicaLag("replica-1") <= 100); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(replicaLag("replica-1") <= 100, "replica-1 never passed a lag check");
+    }
+
+    @Test
+    void readOnlyTransactionsReadFromAReplicaThatIsUpToDate() throws Exception {
+        User broker = broker();
+        shipmentRepository.save(shipment(broker));
+
+        // the user lookup stays on the primary, the listing itself comes from the empty replica;
+        // the unreachable replica is skipped rather than tried and fallen back from
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(get("/api/v1/shipments").header(HttpHeaders.AUTHORIZATION, bearer(broker)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.length()").value(0));
+        }
+        assertTrue(Double.isNaN(replicaLag("replica-2")));
+    }
+
+    @Test
+    void aUserReadsTheirOwnWritesFromThePrimaryUntilTheWindowEnds() throws Exception {
+        User broker = broker();
+        mockMvc.perform(post("/api/v1/shipments").header(HttpHeaders.AUTHORIZATION, bearer(broker))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"vesselName\":\"MV Replica\",\"clientName\":\"Client\",\"arrivalDate\":\""
+                                + LocalDate.now() + "\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/shipments").header(HttpHeaders.AUTHORIZATION, bearer(broker)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1));
+
+        // someone else's read is not pinned to the primary by that write
+        User other = broker();
+        shipmentRepository.save(shipment(other));
+        mockMvc.perform(get("/api/v1/shipments").header(HttpHeaders.AUTHORIZATION, bearer(other)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(0));
+
+        Thread.sleep(1200);
+        mockMvc.perform(get("/api/v1/shipments").header(HttpHeaders.AUTHORIZATION, bearer(broker)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(0));
+    }
+
+    @Test
+    void anUploadStartsTheUploadersReadYourWritesWindow() throws Exception {
+        User broker = broker();
+        Shipment shipment = shipmentRepository.save(shipment(broker));
+
+        // the metadata is written on the upload executor, which must still know who is uploading
+        MvcResult upload = mockMvc.perform(post("/api/v1/shipments/{id}/documents", shipment.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearer(broker))
+                        .param("fileName", "invoice.pdf")
+                        .param("documentType", "CI")
+                        .contentType(MediaType.APPLICATION_PDF)
+                        .content("%PDF-1.4".getBytes()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(upload)).andExpect(status().isCreated());
+
+        // the shipment exists only on the primary, so a replica read would not find it
+        mockMvc.perform(get("/api/v1/shipments/{id}", shipment.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearer(broker)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void backgroundJobsFindAJustUploadedDocumentOnThePrimary() throws Exception {
+        User broker = broker();
+        Shipment shipment = shipmentRepository.save(shipment(broker));
+        MvcResult upload = mockMvc.perform(multipart("/api/v1/shipments/{id}/documents", shipment.getId())
+                        .file(new MockMultipartFile("file", "invoice.pdf", MediaType.APPLICATION_PDF_VALUE,
+                                "%PDF-1.4".getBytes()))
+                        .param("documentType", "CI")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(broker)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(upload)).andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long documentId = objectMapper.readTree(body).path("data").path("id").asLong();
+
+        // the extractor looks the document up outside any request; on the replica it would not
+        // exist and the row would be closed as UNSUPPORTED
+        String textStatus = "PENDING";
+        for (int i = 0; i < 100 && "PENDING".equals(textStatus); i++) {
+            documentTextService.poll();
+            Thread.sleep(50);
+            textStatus = jdbcTemplate.queryForObject(
+                    "SELECT status FROM document_texts WHERE document_id = ?", String.class, documentId);
+        }
+        assertNotEquals("PENDING", textStatus);
+        assertNotEquals("UNSUPPORTED", textStatus);
+    }
+
+    // ── Helpers ──────────────────────────────────────────────
+
+    private double replicaLag(String replica) {
+        Gauge gauge = meterRegistry.find("db.replica.lag").tag("replica", replica).gauge();
+        return gauge == null ? Double.NaN : gauge.value();
+    }
+
+    private User broker() {
+        return userRepository.save(User.builder()
+                .email("replica-" + System.nanoTime() + "@example.com")
+                .firstName("Replica")
+                .lastName("Broker")
+                .build());
+    }
+
+    private static Shipment shipment(User user) {
+        return Shipment.builder()
+                .user(user)
+                .vesselName("MV Primary Only")
+                .arrivalDate(LocalDate.now())
+                .doomsdayDate(LocalDate.now().plusDays(5))
+                .clientName("Client")
+                .build();
+    }
+
+    private String bearer(User user) {
+        return "Bearer " + jwtService.generateAccessToken(user);
+    }
+}
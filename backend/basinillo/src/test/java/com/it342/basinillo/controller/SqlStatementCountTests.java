@@ -0,0 +1,392 @@
+package com.it342.basinillo.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.it342.basinillo.entity.Document;
+import com.it342.basinillo.entity.Shipment;
+import com.it342.basinillo.entity.ShipmentItem;
+import com.it342.basinillo.entity.User;
+import com.it342.basinillo.enums.DocumentType;
+import com.it342.basinillo.enums.Role;
+import com.it342.basinillo.repository.ShipmentRepository;
+import com.it342.basinillo.repository.UserRepository;
+import com.it342.basinillo.security.JwtService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement-count guard. Each endpoint runs once for a broker with a small dataset and once
+ * for a broker with a larger one, and its statements are counted from
+ * {@code hibernate.request.statements}, the per-request count recorded by {@code MetricsConfig}.
+ * The test fails if:
+ * <ul>
+ *   <li>the count grows with the number of rows (an N+1 or a per-row write), or</li>
+ *   <li>the count exceeds the budget recorded in {@code sql-statement-budgets.properties}.</li>
+ * </ul>
+ * Lower a budget when an endpoint gets cheaper. Raise one only with a reason in the commit.
+ * <p>
+ * Writes real rows, so DATABASE_URL must point at a throwaway local Postgres, as for the other
+ * tests.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SqlStatementCountTests {
+
+    private static final String BUDGETS = "sql-statement-budgets.properties";
+    private static final String PASSWORD = "Budget-Password-1";
+
+    /** Shipments, items per shipment and documents per shipment of the two datasets */
+    private static final int[] SMALL = {2, 2, 2};
+    private static final int[] LARGE = {8, 6, 6};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Properties budgets = new Properties();
+    private String passwordHash;
+    private String adminToken;
+
+    @BeforeAll
+    void setUp() throws IOException {
+        try (InputStream in = new ClassPathResource(BUDGETS).getInputStream()) {
+            budgets.load(in);
+        }
+        passwordHash = passwordEncoder.encode(PASSWORD);
+        User admin = userRepository.save(User.builder()
+                .email("budget-admin-" + System.nanoTime() + "@example.com")
+                .firstName("Budget")
+                .lastName("Admin")
+                .role(Role.ADMIN)
+                .build());
+        adminToken = jwtService.generateAccessToken(admin);
+    }
+
+    // ── ShipmentController ───────────────────────────────────
+
+    @Test
+    void shipmentList() throws Exception {
+        assertStatements("shipments.list", Caller.BROKER, d -> get("/api/v1/shipments"));
+    }
+
+    @Test
+    void shipmentSearch() throws Exception {
+        assertStatements("shipments.search", Caller.BROKER, d -> get("/api/v1/shipments").param("search", "Client"));
+    }
+
+    @Test
+    void shipmentFilterByStatus() throws Exception {
+        assertStatements("shipments.filter-status", Caller.BROKER, d -> get("/api/v1/shipments").param("status", "ARRIVED"));
+    }
+
+    @Test
+    void shipmentFilterByLane() throws Exception {
+        assertStatements("shipments.filter-lane", Caller.BROKER, d -> get("/api/v1/shipments").param("lane", "GREEN"));
+    }
+
+    @Test
+    void shipmentGet() throws Exception {
+        assertStatements("shipments.get", Caller.BROKER, d -> get("/api/v1/shipments/{id}", d.firstShipmentId()));
+    }
+
+    @Test
+    void shipmentDuties() throws Exception {
+        assertStatements("shipments.duties", Caller.BROKER, d -> get("/api/v1/shipments/{id}/duties", d.firstShipmentId()));
+    }
+
+    @Test
+    void shipmentAnalysis() throws Exception {
+        assertStatements("shipments.analysis", Caller.BROKER, d -> get("/api/v1/shipments/analysis"));
+    }
+
+    @Test
+    void shipmentCreate() throws Exception {
+        assertStatements("shipments.create", Caller.BROKER, d -> json(post("/api/v1/shipments"), Map.of(
+                "vesselName", "MV Budget",
+                "arrivalDate", LocalDate.now().toString(),
+                "clientName", "Client Budget",
+                "items", d.itemRequests())));
+    }
+
+    @Test
+    void shipmentUpdate() throws Exception {
+        assertStatements("shipments.update", Caller.BROKER, d -> json(put("/api/v1/shipments/{id}", d.firstShipmentId()),
+                Map.of("vesselName", "MV Renamed")));
+    }
+
+    @Test
+    void shipmentAdvanceStatus() throws Exception {
+        assertStatements("shipments.advance-status", Caller.BROKER, d -> patch("/api/v1/shipments/{id}/status", d.firstShipmentId()));
+    }
+
+    @Test
+    void shipmentBulkAdvanceStatus() throws Exception {
+        assertStatements("shipments.bulk-status", Caller.BROKER, d -> json(patch("/api/v1/shipments/bulk/status"),
+                Map.of("ids", d.firstShipmentIds(), "fromStatus", "ARRIVED")));
+    }
+
+    @Test
+    void shipmentBulkUpdate() throws Exception {
+        assertStatements("shipments.bulk-update", Caller.BROKER, d -> json(patch("/api/v1/shipments/bulk"),
+                Map.of("ids", d.firstShipmentIds(), "portOfDischarge", "Port of Batangas")));
+    }
+
+    @Test
+    void shipmentDelete() throws Exception {
+        assertStatements("shipments.delete", Caller.BROKER, d -> delete("/api/v1/shipments/{id}", d.firstShipmentId()));
+    }
+
+    // ── DocumentController ───────────────────────────────────
+
+    @Test
+    void documentList() throws Exception {
+        assertStatements("documents.list", Caller.BROKER, d -> get("/api/v1/shipments/{id}/documents", d.firstShipmentId()));
+    }
+
+    // ── TariffController ─────────────────────────────────────
+
+    @Test
+    void tariffHsCodes() throws Exception {
+        assertStatements("tariff.hs-codes", Caller.BROKER, d -> get("/api/v1/tariff/hs-codes").param("q", "8471"));
+    }
+
+    // ── AdminController ──────────────────────────────────────
+
+    @Test
+    void adminShipments() throws Exception {
+        assertStatements("admin.shipments", Caller.ADMIN, d -> get("/api/v1/admin/shipments"));
+    }
+
+    @Test
+    void adminUsers() throws Exception {
+        assertStatements("admin.users", Caller.ADMIN, d -> get("/api/v1/admin/users"));
+    }
+
+    @Test
+    void adminUser() throws Exception {
+        assertStatements("admin.user", Caller.ADMIN, d -> get("/api/v1/admin/users/{id}", d.user().getId()));
+    }
+
+    @Test
+    void adminAnalysis() throws Exception {
+        assertStatements("admin.analysis", Caller.ADMIN, d -> get("/api/v1/admin/analysis"));
+    }
+
+    @Test
+    void adminFxRates() throws Exception {
+        assertStatements("admin.fx-rates", Caller.ADMIN, d -> get("/api/v1/admin/fx/rates"));
+    }
+
+    @Test
+    void adminStorageDedup() throws Exception {
+        assertStatements("admin.storage-dedup", Caller.ADMIN, d -> get("/api/v1/admin/storage/dedup"));
+    }
+
+    @Test
+    void adminStoragePreviews() throws Exception {
+        assertStatements("admin.storage-previews", Caller.ADMIN, d -> get("/api/v1/admin/storage/previews"));
+    }
+
+    // ── AuthController ───────────────────────────────────────
+
+    @Test
+    void authLogin() throws Exception {
+        assertStatements("auth.login", Caller.ANONYMOUS, d -> json(post("/api/v1/auth/login"),
+                Map.of("email", d.user().getEmail(), "password", PASSWORD)));
+    }
+
+    @Test
+    void authRegister() throws Exception {
+        assertStatements("auth.register", Caller.ANONYMOUS, d -> json(post("/api/v1/auth/register"), Map.of(
+                "email", "budget-new-" + System.nanoTime() + "@example.com",
+                "password", PASSWORD,
+                "firstName", "New",
+                "lastName", "Broker")));
+    }
+
+    @Test
+    void authMe() throws Exception {
+        assertStatements("auth.me", Caller.BROKER, d -> get("/api/v1/auth/me"));
+    }
+
+    // ── Harness ──────────────────────────────────────────────
+
+    /** Who sends the request: the dataset's broker, the admin, or nobody signed in */
+    private enum Caller { BROKER, ADMIN, ANONYMOUS }
+
+    /** Runs the request for a small and a large dataset; same count for both, and within budget. */
+    private void assertStatements(String endpoint, Caller caller,
+                                  Function<Dataset, MockHttpServletRequestBuilder> request) throws Exception {
+        // first call warms caches (FX rates, tariffs, prepared plans) so it does not skew the small count
+        Dataset warmUp = dataset(SMALL);
+        statements(request.apply(warmUp), token(caller, warmUp));
+        Dataset small = dataset(SMALL);
+        long smallCount = statements(request.apply(small), token(caller, small));
+        Dataset large = dataset(LARGE);
+        long largeCount = statements(request.apply(large), token(caller, large));
+
+        assertEquals(smallCount, largeCount, endpoint + " issues more SQL statements for more rows ("
+                + smallCount + " -> " + largeCount + "); look for a lazy load or a query per row");
+        String budget = budgets.getProperty(endpoint);
+        if (budget == null) {
+            fail("No statement budget for " + endpoint + " (measured " + largeCount + "); add "
+                    + endpoint + "=" + largeCount + " to " + BUDGETS);
+        }
+        assertTrue(largeCount <= Long.parseLong(budget.trim()), endpoint + " issues " + largeCount
+                + " SQL statements, over its budget of " + budget + " in " + BUDGETS);
+    }
+
+    private long statements(MockHttpServletRequestBuilder request, String token) throws Exception {
+        if (token != null) {
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        double[] before = recorded();
+        mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+        double[] after = recorded();
+        assertEquals(before[0] + 1, after[0], "request was not counted by hibernate.request.statements");
+        return Math.round(after[1] - before[1]);
+    }
+
+    /** Requests recorded and statements counted so far, over all routes */
+    private double[] recorded() {
+        double requests = 0;
+        double statements = 0;
+        for (DistributionSummary summary : meterRegistry.find("hibernate.request.statements").summaries()) {
+            requests += summary.count();
+            statements += summary.totalAmount();
+        }
+        return new double[]{requests, statements};
+    }
+
+    private String token(Caller caller, Dataset dataset) {
+        return switch (caller) {
+            case BROKER -> dataset.token();
+            case ADMIN -> adminToken;
+            case ANONYMOUS -> null;
+        };
+    }
+
+    private MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, Object body) {
+        try {
+            return request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Dataset dataset(int[] size) {
+        User user = userRepository.save(User.builder()
+                .email("budget-" + System.nanoTime() + "@example.com")
+                .passwordHash(passwordHash)
+                .firstName("Budget")
+                .lastName("Broker")
+                .build());
+        List<Shipment> shipments = new ArrayList<>();
+        for (int s = 0; s < size[0]; s++) {
+            Shipment shipment = Shipment.builder()
+                    .user(user)
+                    .vesselName("MV Budget " + s)
+                    .arrivalDate(LocalDate.now().minusDays(s))
+                    .doomsdayDate(LocalDate.now().plusDays(5 - s))
+                    .clientName("Client " + s)
+                    .build();
+            for (int i = 0; i < size[1]; i++) {
+                shipment.getItems().add(ShipmentItem.builder()
+                        .shipment(shipment)
+                        .description("Item " + i)
+                        .hsCode("8471.30.20")
+                        .quantity(1 + i)
+                        .declaredValue(BigDecimal.valueOf(1000 + i))
+                        .currency("USD")
+                        .build());
+            }
+            for (int d = 0; d < size[2]; d++) {
+                DocumentType type = DocumentType.values()[d % DocumentType.values().length];
+                shipment.getDocuments().add(Document.builder()
+                        .shipment(shipment)
+                        .fileName(type + "-" + d + ".pdf")
+                        .fileUrl("budget/" + System.nanoTime())
+                        .type(type)
+                        .build());
+            }
+            shipments.add(shipment);
+        }
+        return new Dataset(user, jwtService.generateAccessToken(user), shipmentRepository.saveAll(shipments), size[1]);
+    }
+
+    private record Dataset(User user, String token, List<Shipment> shipments, int itemsPerShipment) {
+
+        Long firstShipmentId() {
+            return shipments.get(0).getId();
+        }
+
+        /** The same number of ids whatever the dataset size, so only the rows around them grow */
+        List<Long> firstShipmentIds() {
+            return shipments.stream().limit(SMALL[0]).map(Shipment::getId).toList();
+        }
+
+        List<Map<String, Object>> itemRequests() {
+            List<Map<String, Object>> items = new ArrayList<>();
+            for (int i = 0; i < itemsPerShipment; i++) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("description", "Item " + i);
+                item.put("hsCode", "8471.30.20");
+                item.put("quantity", 1 + i);
+                item.put("declaredValue", 1000 + i);
+                item.put("currency", "USD");
+                items.add(item);
+            }
+            return items;
+        }
+    }
+}
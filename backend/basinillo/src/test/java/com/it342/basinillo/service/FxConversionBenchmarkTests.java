@@ -0,0 +1,95 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.entity.ExchangeRate;
+import com.it342.basinillo.entity.ShipmentItem;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Conversions/second against an in-memory {@link FxRateSnapshot} holding ten years of daily
+ * rates for 20 currencies. No Spring context or database; run with
+ * {@code mvn test -Dtest=FxConversionBenchmarkTests -Dbenchmark=true}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class FxConversionBenchmarkTests {
+
+    private static final String[] CURRENCIES = {
+            "USD", "EUR", "GBP", "JPY", "CNY", "HKD", "SGD", "KRW", "TWD", "THB",
+            "MYR", "IDR", "VND", "INR", "AUD", "NZD", "CAD", "CHF", "AED", "SAR"};
+    private static final int DAYS = 3650;
+    private static final int ITEMS = 200_000;
+    private static final int ROUNDS = 10;
+
+    @Test
+    void conversionThroughput() {
+        LocalDate first = LocalDate.of(2016, 1, 1);
+        FxRateSnapshot snapshot = FxRateSnapshot.of(rates(first), LocalDateTime.now());
+        assertEquals(CURRENCIES.length * DAYS, snapshot.size());
+
+        Random random = new Random(42);
+        List<ShipmentItem> items = new ArrayList<>(ITEMS);
+        LocalDate[] dates = new LocalDate[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(ShipmentItem.builder()
+                    .description("Item " + i)
+                    .quantity(1)
+                    .declaredValue(BigDecimal.valueOf(random.nextInt(1_000_000), 2))
+                    .currency(CURRENCIES[random.nextInt(CURRENCIES.length)])
+                    .build());
+            dates[i] = first.plusDays(random.nextInt(DAYS));
+        }
+
+        // warm-up
+        convertAll(snapshot, items, dates);
+
+        long start = System.nanoTime();
+        int converted = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            converted += convertAll(snapshot, items, dates);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        assertEquals(ITEMS * ROUNDS, converted);
+        log.info("FxRateSnapshot.convert: {} conversions in {} s -> {} conversions/s",
+                converted, String.format("%.2f", seconds), Math.round(converted / seconds));
+    }
+
+    private int convertAll(FxRateSnapshot snapshot, List<ShipmentItem> items, LocalDate[] dates) {
+        int converted = 0;
+        for (int i = 0; i < items.size(); i++) {
+            if (snapshot.convert(items.get(i), dates[i])) {
+                converted++;
+            }
+        }
+        return converted;
+    }
+
+    private List<ExchangeRate> rates(LocalDate first) {
+        Random random = new Random(7);
+        List<ExchangeRate> rates = new ArrayList<>(CURRENCIES.length * DAYS);
+        for (String currency : CURRENCIES) {
+            double level = 0.01 + random.nextDouble() * 80;
+            for (int day = 0; day < DAYS; day++) {
+                level *= 1 + (random.nextDouble() - 0.5) / 100;
+                rates.add(ExchangeRate.builder()
+                        .currency(currency)
+                        .effectiveDate(first.plusDays(day))
+                        .phpPerUnit(BigDecimal.valueOf(level).setScale(8, RoundingMode.HALF_UP))
+                        .build());
+            }
+        }
+        return rates;
+    }
+}
@@ -0,0 +1,84 @@
+package com.it342.basinillo.service;
+
+import com.it342.basinillo.dto.CreateShipmentRequest;
+import com.it342.basinillo.dto.ShipmentItemRequest;
+import com.it342.basinillo.entity.User;
+import com.it342.basinillo.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rows/second of the batched manifest import vs. one createShipment call per shipment.
+ * Writes real rows, so point DATABASE_URL at a throwaway local Postgres and run with
+ * {@code mvn test -Dtest=ManifestImportBenchmarkTests -Dbenchmark=true}.
+ */
+@Slf4j
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ManifestImportBenchmarkTests {
+
+    private static final int SHIPMENTS = 500;
+    private static final int ITEMS_PER_SHIPMENT = 10;
+
+    @Autowired
+    private ShipmentService shipmentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void importThroughput() {
+        User broker = userRepository.save(User.builder()
+                .email("bench-" + System.nanoTime() + "@example.com")
+                .firstName("Bench")
+                .lastName("Broker")
+                .build());
+        List<CreateShipmentRequest> requests = manifest();
+
+        // warm-up
+        shipmentService.importShipments(manifest().subList(0, 50), broker);
+
+        long start = System.nanoTime();
+        for (CreateShipmentRequest request : requests) {
+            shipmentService.createShipment(request, broker);
+        }
+        report("createShipment x" + SHIPMENTS, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        shipmentService.importShipments(requests, broker);
+        report("importShipments", System.nanoTime() - start);
+    }
+
+    private void report(String label, long nanos) {
+        int rows = SHIPMENTS * (1 + ITEMS_PER_SHIPMENT);
+        double seconds = nanos / 1e9;
+        log.info("{}: {} rows in {} s -> {} rows/s", label, rows, String.format("%.2f", seconds), Math.round(rows / seconds));
+    }
+
+    private List<CreateShipmentRequest> manifest() {
+        List<CreateShipmentRequest> requests = new ArrayList<>(SHIPMENTS);
+        for (int s = 0; s < SHIPMENTS; s++) {
+            List<ShipmentItemRequest> items = new ArrayList<>(ITEMS_PER_SHIPMENT);
+            for (int i = 0; i < ITEMS_PER_SHIPMENT; i++) {
+                items.add(new ShipmentItemRequest("Item " + i, "8471.30", 10 + i, BigDecimal.valueOf(1000 + i), "USD"));
+            }
+            CreateShipmentRequest request = new CreateShipmentRequest();
+            request.setVesselName("MV Bench " + (s % 5));
+            request.setVoyageNumber("V" + s);
+            request.setArrivalDate(LocalDate.now());
+            request.setClientName("Client " + s);
+            request.setContainerNumbers("MSCU" + (1000000 + s));
+            request.setItems(items);
+            requests.add(request);
+        }
+        return requests;
+    }
+}
@@ -107,6 +107,9 @@ export interface Shipment {
   deletedAt: string | null;
   createdAt: string;
   items: ShipmentItem[];
+  /** Present on list/detail reads */
+  documentCount?: number;
+  documentCounts?: Partial<Record<DocumentType, number>>;
 }
 
 export interface ShipmentItem {
@@ -154,8 +157,13 @@ export interface ShipmentDocument {
   fileName: string;
   fileUrl: string;
   type: DocumentType;
+  contentType: string | null;
   sizeBytes: number;
+  checksumSha256: string | null;
   uploadedAt: string;
+  previewStatus: "PENDING" | "READY" | "UNSUPPORTED" | "FAILED" | null;
+  thumbnailUrl: string | null;
+  previewUrl: string | null;
 }
 
 /* ------------------------------ Analysis ------------------------------ */